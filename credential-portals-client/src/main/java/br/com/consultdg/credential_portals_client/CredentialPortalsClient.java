@@ -0,0 +1,228 @@
+package br.com.consultdg.credential_portals_client;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.security.PrivateKey;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * Cliente do endpoint {@code GET /api/consumer-keys/credentials} para robôs com chave RSA.
+ * <p>
+ * A chave privada é convertida uma única vez e as senhas retornadas são descriptografadas em
+ * paralelo. A última listagem fica guardada junto com o ETag da resposta: as chamadas seguintes
+ * enviam {@code If-None-Match} e, se nada mudou, o servidor responde 304 e a listagem guardada
+ * é devolvida sem nova descriptografia.
+ */
+public class CredentialPortalsClient implements AutoCloseable {
+
+    public static final String CREDENTIALS_PATH = "/api/consumer-keys/credentials";
+    public static final String CONSUMER_IDENTIFIER_HEADER = "X-Consumer-Identifier";
+
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(60);
+    private static final TypeReference<List<EncryptedCredential>> CREDENTIALS_TYPE = new TypeReference<>() {};
+
+    private final URI credentialsUri;
+    private final String consumerIdentifier;
+    private final RsaPasswordDecryptor decryptor;
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final boolean ownsExecutor;
+    private final int parallelism;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Cria o cliente com um pool próprio de threads de descriptografia, uma por núcleo.
+     *
+     * @param baseUrl Endereço da API (ex.: http://localhost:8084)
+     * @param consumerIdentifier Identificador do robô cadastrado na API
+     * @param privateKey Chave privada RSA correspondente à chave pública cadastrada
+     */
+    public CredentialPortalsClient(URI baseUrl, String consumerIdentifier, PrivateKey privateKey) {
+        this(baseUrl, consumerIdentifier, privateKey, HttpClient.newHttpClient(), null);
+    }
+
+    /**
+     * Cria o cliente com {@link HttpClient} e pool de threads fornecidos pela aplicação.
+     * O pool informado não é encerrado em {@link #close()}.
+     *
+     * @param executor Pool para a descriptografia; {@code null} cria um pool próprio
+     */
+    public CredentialPortalsClient(URI baseUrl, String consumerIdentifier, PrivateKey privateKey,
+                                   HttpClient httpClient, ExecutorService executor) {
+        if (consumerIdentifier == null || consumerIdentifier.isBlank()) {
+            throw new IllegalArgumentException("Identificador do consumidor obrigatório");
+        }
+        this.credentialsUri = baseUrl.resolve(CREDENTIALS_PATH);
+        this.consumerIdentifier = consumerIdentifier;
+        this.decryptor = new RsaPasswordDecryptor(privateKey);
+        this.httpClient = httpClient;
+        this.parallelism = Runtime.getRuntime().availableProcessors();
+        this.ownsExecutor = executor == null;
+        this.executor = executor != null ? executor : newDecryptionExecutor(parallelism);
+    }
+
+    /**
+     * Busca as credenciais do robô, já descriptografadas.
+     * Se a listagem não mudou desde a última chamada, devolve a mesma lista sem descriptografar de novo.
+     *
+     * @return Lista imutável de credenciais
+     * @throws IllegalStateException se o consumidor não possuir chave pública válida ou a API responder com erro
+     */
+    public List<PortalCredential> fetchCredentials() {
+        Snapshot current = snapshot;
+
+        HttpRequest.Builder request = HttpRequest.newBuilder(credentialsUri)
+                .timeout(REQUEST_TIMEOUT)
+                .header(CONSUMER_IDENTIFIER_HEADER, consumerIdentifier)
+                .header("Accept", "application/json")
+                .GET();
+        if (current != null) {
+            request.header("If-None-Match", current.eTag);
+        }
+
+        HttpResponse<byte[]> response = send(request.build());
+        switch (response.statusCode()) {
+            case 200:
+                List<PortalCredential> credentials = decryptAll(parse(response.body()));
+                String eTag = response.headers().firstValue("ETag").orElse(null);
+                snapshot = eTag != null ? new Snapshot(eTag, credentials) : null;
+                return credentials;
+            case 304:
+                if (current == null) {
+                    throw new IllegalStateException("API de credenciais respondeu 304 sem listagem anterior");
+                }
+                return current.credentials;
+            case 401:
+                throw new IllegalStateException("Consumidor não possui chave pública válida: " + consumerIdentifier);
+            default:
+                throw new IllegalStateException("Resposta inesperada da API de credenciais: HTTP " + response.statusCode());
+        }
+    }
+
+    /**
+     * ETag da última listagem recebida, ou {@code null} se ainda não houve listagem.
+     */
+    public String getETag() {
+        Snapshot current = snapshot;
+        return current != null ? current.eTag : null;
+    }
+
+    /**
+     * Descarta a listagem guardada; a próxima chamada busca e descriptografa tudo novamente.
+     */
+    public void clearCache() {
+        snapshot = null;
+    }
+
+    @Override
+    public void close() {
+        if (ownsExecutor) {
+            executor.shutdownNow();
+        }
+    }
+
+    private HttpResponse<byte[]> send(HttpRequest request) {
+        try {
+            return httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao consultar a API de credenciais: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Consulta à API de credenciais interrompida", e);
+        }
+    }
+
+    private List<EncryptedCredential> parse(byte[] body) {
+        try {
+            return objectMapper.readValue(body, CREDENTIALS_TYPE);
+        } catch (IOException e) {
+            throw new RuntimeException("Resposta inválida da API de credenciais: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Divide a lista em um bloco por thread e descriptografa os blocos em paralelo, mantendo a ordem.
+     */
+    private List<PortalCredential> decryptAll(List<EncryptedCredential> encrypted) {
+        int chunks = Math.min(parallelism, encrypted.size());
+        if (chunks <= 1) {
+            return Collections.unmodifiableList(decryptChunk(encrypted));
+        }
+
+        int chunkSize = (encrypted.size() + chunks - 1) / chunks;
+        List<Future<List<PortalCredential>>> futures = new ArrayList<>(chunks);
+        for (int start = 0; start < encrypted.size(); start += chunkSize) {
+            List<EncryptedCredential> chunk = encrypted.subList(start, Math.min(start + chunkSize, encrypted.size()));
+            futures.add(executor.submit(() -> decryptChunk(chunk)));
+        }
+
+        List<PortalCredential> credentials = new ArrayList<>(encrypted.size());
+        try {
+            for (Future<List<PortalCredential>> future : futures) {
+                credentials.addAll(future.get());
+            }
+        } catch (InterruptedException e) {
+            futures.forEach(future -> future.cancel(true));
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Descriptografia das credenciais interrompida", e);
+        } catch (ExecutionException e) {
+            futures.forEach(future -> future.cancel(true));
+            if (e.getCause() instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new RuntimeException("Erro ao descriptografar credenciais: " + e.getCause().getMessage(), e.getCause());
+        }
+        return Collections.unmodifiableList(credentials);
+    }
+
+    private List<PortalCredential> decryptChunk(List<EncryptedCredential> chunk) {
+        List<PortalCredential> credentials = new ArrayList<>(chunk.size());
+        for (EncryptedCredential credential : chunk) {
+            credentials.add(new PortalCredential(
+                    credential.getUrlPortal(),
+                    credential.getUsername(),
+                    decryptor.decrypt(credential.getPassword()),
+                    decryptor.decrypt(credential.getPasswordOfInvoice()),
+                    credential.getNameMall(),
+                    credential.getError()));
+        }
+        return credentials;
+    }
+
+    private static ExecutorService newDecryptionExecutor(int threads) {
+        AtomicInteger threadCounter = new AtomicInteger();
+        return Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "credential-decryption-" + threadCounter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    private static final class Snapshot {
+        private final String eTag;
+        private final List<PortalCredential> credentials;
+
+        private Snapshot(String eTag, List<PortalCredential> credentials) {
+            this.eTag = eTag;
+            this.credentials = credentials;
+        }
+    }
+}
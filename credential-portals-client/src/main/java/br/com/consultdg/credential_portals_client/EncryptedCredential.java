@@ -0,0 +1,62 @@
+package br.com.consultdg.credential_portals_client;
+
+/**
+ * Item da listagem como retornado pela API, com as senhas ainda criptografadas.
+ */
+class EncryptedCredential {
+
+    private String urlPortal;
+    private String username;
+    private String password;
+    private String passwordOfInvoice;
+    private String nameMall;
+    private String error;
+
+    public String getUrlPortal() {
+        return urlPortal;
+    }
+
+    public void setUrlPortal(String urlPortal) {
+        this.urlPortal = urlPortal;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getPasswordOfInvoice() {
+        return passwordOfInvoice;
+    }
+
+    public void setPasswordOfInvoice(String passwordOfInvoice) {
+        this.passwordOfInvoice = passwordOfInvoice;
+    }
+
+    public String getNameMall() {
+        return nameMall;
+    }
+
+    public void setNameMall(String nameMall) {
+        this.nameMall = nameMall;
+    }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
+}
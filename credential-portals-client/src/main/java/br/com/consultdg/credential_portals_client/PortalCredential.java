@@ -0,0 +1,72 @@
+package br.com.consultdg.credential_portals_client;
+
+/**
+ * Credencial de portal já descriptografada, pronta para uso pelo robô.
+ */
+public final class PortalCredential {
+
+    private final String urlPortal;
+    private final String username;
+    private final String password;
+    private final String passwordOfInvoice;
+    private final String nameMall;
+    private final String error;
+
+    public PortalCredential(String urlPortal, String username, String password, String passwordOfInvoice, String nameMall) {
+        this(urlPortal, username, password, passwordOfInvoice, nameMall, null);
+    }
+
+    public PortalCredential(String urlPortal, String username, String password, String passwordOfInvoice, String nameMall,
+                            String error) {
+        this.urlPortal = urlPortal;
+        this.username = username;
+        this.password = password;
+        this.passwordOfInvoice = passwordOfInvoice;
+        this.nameMall = nameMall;
+        this.error = error;
+    }
+
+    public String getUrlPortal() {
+        return urlPortal;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    /**
+     * Senha do portal, ou {@code null} se o servidor não conseguiu criptografá-la (ver {@link #getError()}).
+     */
+    public String getPassword() {
+        return password;
+    }
+
+    /**
+     * Senha da nota fiscal, ou {@code null} se a credencial não tiver uma.
+     */
+    public String getPasswordOfInvoice() {
+        return passwordOfInvoice;
+    }
+
+    public String getNameMall() {
+        return nameMall;
+    }
+
+    /**
+     * Motivo informado pelo servidor quando as senhas desta credencial não vieram, ou {@code null}.
+     * A credencial existe; a falha é da criptografia e pode não se repetir na próxima consulta.
+     */
+    public String getError() {
+        return error;
+    }
+
+    public boolean hasError() {
+        return error != null;
+    }
+
+    @Override
+    public String toString() {
+        // Nunca expõe as senhas em logs
+        return "PortalCredential{nameMall='" + nameMall + "', urlPortal='" + urlPortal + "', username='" + username + "'}";
+    }
+}
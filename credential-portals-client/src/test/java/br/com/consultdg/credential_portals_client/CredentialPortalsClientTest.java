@@ -0,0 +1,140 @@
+package br.com.consultdg.credential_portals_client;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.net.URI;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+import br.com.consultdg.credential_portals_service.CredentialPortalsServiceApplication;
+import br.com.consultdg.credential_portals_service.api.model.ConsumerPublicKeyRequestDTO;
+import br.com.consultdg.credential_portals_service.api.model.CredentialsRequestDTO;
+import br.com.consultdg.credential_portals_service.api.model.CredentialsResponseDTO;
+import br.com.consultdg.credential_portals_service.service.ConsumerPublicKeyService;
+import br.com.consultdg.credential_portals_service.service.CredentialsService;
+
+/**
+ * Testes do cliente contra o servidor real, embarcado com banco H2 em memória.
+ */
+@SpringBootTest(classes = CredentialPortalsServiceApplication.class,
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        properties = {
+                "spring.datasource.url=jdbc:h2:mem:client-test;MODE=MySQL;DB_CLOSE_DELAY=-1",
+                "spring.datasource.username=sa",
+                "spring.datasource.password=",
+                "spring.datasource.driver-class-name=org.h2.Driver",
+                "spring.jpa.hibernate.ddl-auto=create-drop",
+                "spring.jpa.properties.hibernate.dialect=org.hibernate.dialect.H2Dialect",
+                "credentials.rsa-key-pool.high-watermark=1"
+        })
+class CredentialPortalsClientTest {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private ConsumerPublicKeyService consumerPublicKeyService;
+
+    @Autowired
+    private CredentialsService credentialsService;
+
+    private String consumerIdentifier;
+    private String nameMallPrefix;
+    private KeyPair keyPair;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        consumerIdentifier = "robot-" + UUID.randomUUID();
+        nameMallPrefix = "Shopping " + UUID.randomUUID() + " ";
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        keyPair = keyPairGenerator.generateKeyPair();
+    }
+
+    @Test
+    void testFetchCredentials_ShouldDecryptAllPasswords() {
+        // Arrange
+        registerPublicKey();
+        for (int i = 0; i < 12; i++) {
+            createCredential(i, "senha" + i, i % 2 == 0 ? "nota" + i : null);
+        }
+
+        try (CredentialPortalsClient client = newClient()) {
+            // Act
+            List<PortalCredential> credentials = ownCredentials(client.fetchCredentials());
+
+            // Assert
+            assertEquals(12, credentials.size());
+            for (PortalCredential credential : credentials) {
+                int index = Integer.parseInt(credential.getNameMall().substring(nameMallPrefix.length()));
+                assertEquals("senha" + index, credential.getPassword());
+                assertEquals(index % 2 == 0 ? "nota" + index : null, credential.getPasswordOfInvoice());
+                assertEquals("usuario" + index, credential.getUsername());
+            }
+            assertNotNull(client.getETag());
+        }
+    }
+
+    @Test
+    void testFetchCredentials_ShouldReuseListingUntilSomethingChanges() {
+        // Arrange
+        registerPublicKey();
+        CredentialsResponseDTO created = createCredential(0, "senhaAntiga", null);
+
+        try (CredentialPortalsClient client = newClient()) {
+            List<PortalCredential> first = client.fetchCredentials();
+            String firstETag = client.getETag();
+
+            // Act
+            List<PortalCredential> notModified = client.fetchCredentials();
+            credentialsService.update(created.getId(), new CredentialsRequestDTO(
+                    nameMallPrefix + 0, null, "https://portal0.example.com", "usuario0", "senhaNova", null, true));
+            List<PortalCredential> modified = client.fetchCredentials();
+
+            // Assert
+            assertSame(first, notModified);
+            assertNotSame(first, modified);
+            assertNotEquals(firstETag, client.getETag());
+            assertEquals("senhaNova", ownCredentials(modified).get(0).getPassword());
+        }
+    }
+
+    @Test
+    void testFetchCredentials_ShouldFailWhenConsumerHasNoValidKey() {
+        try (CredentialPortalsClient client = newClient()) {
+            // Act & Assert
+            assertThrows(IllegalStateException.class, client::fetchCredentials);
+        }
+    }
+
+    private CredentialPortalsClient newClient() {
+        return new CredentialPortalsClient(URI.create("http://localhost:" + port), consumerIdentifier, keyPair.getPrivate());
+    }
+
+    private void registerPublicKey() {
+        consumerPublicKeyService.registerPublicKey(new ConsumerPublicKeyRequestDTO("Robot", consumerIdentifier,
+                Base64.getEncoder().encodeToString(keyPair.getPublic().getEncoded())));
+    }
+
+    private CredentialsResponseDTO createCredential(int index, String password, String passwordOfInvoice) {
+        return credentialsService.create(new CredentialsRequestDTO(nameMallPrefix + index, null,
+                "https://portal" + index + ".example.com", "usuario" + index, password, passwordOfInvoice, true));
+    }
+
+    /** A base é compartilhada entre os testes; considera apenas as credenciais criadas pelo teste atual. */
+    private List<PortalCredential> ownCredentials(List<PortalCredential> credentials) {
+        return credentials.stream()
+                .filter(credential -> credential.getNameMall().startsWith(nameMallPrefix))
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.consultdg.credential_portals_service.benchmark.jmh;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.consultdg.credential_portals_service.model.Credentials;
+import br.com.consultdg.credential_portals_service.service.BulkEncryptionEngine;
+import br.com.consultdg.credential_portals_service.service.InternalEncryptionService;
+import br.com.consultdg.credential_portals_service.service.RSAEncryptionService;
+
+/**
+ * Escala do {@link BulkEncryptionEngine} por número de threads no mapeamento usado pela listagem de
+ * credenciais dos robôs (AES decrypt + 2x RSA encrypt por credencial).
+ * <p>
+ * Cada operação é um lote de {@value #CREDENTIALS} credenciais; o speedup é a razão entre o tempo
+ * com {@code threads=1} e o das demais linhas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class BulkEncryptionScalingBenchmark {
+
+    private static final int CREDENTIALS = 2000;
+
+    @Param({"1", "2", "4", "8"})
+    private int threads;
+
+    private final InternalEncryptionService internalEncryptionService = new InternalEncryptionService();
+    private final RSAEncryptionService rsaEncryptionService = new RSAEncryptionService();
+
+    private BulkEncryptionEngine bulkEncryptionEngine;
+    private PublicKey publicKey;
+    private List<Credentials> credentials;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        KeyPair keyPair = rsaEncryptionService.generateKeyPair();
+        publicKey = keyPair.getPublic();
+        credentials = new ArrayList<>(CREDENTIALS);
+        for (int i = 0; i < CREDENTIALS; i++) {
+            Credentials credential = new Credentials();
+            credential.setOriginalPasswordEncrypted(internalEncryptionService.encrypt("senhaPortal" + i));
+            credential.setPasswordOfInvoice("senhaNota" + i);
+            credentials.add(credential);
+        }
+        bulkEncryptionEngine = new BulkEncryptionEngine(threads, threads, 32, 256);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bulkEncryptionEngine.shutdown();
+    }
+
+    @Benchmark
+    public List<Integer> encryptBatch() {
+        return bulkEncryptionEngine.map("benchmark", credentials, credential -> {
+            String password = internalEncryptionService.decrypt(credential.getOriginalPasswordEncrypted());
+            String encryptedPassword = rsaEncryptionService.encrypt(password, publicKey);
+            String encryptedInvoice = rsaEncryptionService.encrypt(credential.getPasswordOfInvoice(), publicKey);
+            return encryptedPassword.length() + encryptedInvoice.length();
+        }, (credential, e) -> {
+            throw new IllegalStateException("Falha ao criptografar credencial no benchmark", e);
+        });
+    }
+}
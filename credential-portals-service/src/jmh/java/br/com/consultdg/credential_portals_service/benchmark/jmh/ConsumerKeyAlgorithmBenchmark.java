@@ -0,0 +1,69 @@
+package br.com.consultdg.credential_portals_service.benchmark.jmh;
+
+import java.security.KeyPair;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.consultdg.credential_portals_service.service.ConsumerKeyAlgorithm;
+import br.com.consultdg.credential_portals_service.service.EciesEncryptionService;
+import br.com.consultdg.credential_portals_service.service.RSAEncryptionService;
+
+/**
+ * Compara RSA-2048 com ECIES (X25519 e P-256) na criptografia de senhas para os consumidores:
+ * custo no servidor ({@code encrypt}) e custo no robô ({@code decrypt}).
+ * <p>
+ * O texto cifrado de uma senha curta tem 256 bytes com RSA, 65 com X25519 e 98 com P-256.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ConsumerKeyAlgorithmBenchmark {
+
+    private static final String PASSWORD = "senhaDoPortal@123";
+
+    @Param({"RSA", "X25519", "P256"})
+    private ConsumerKeyAlgorithm algorithm;
+
+    private final RSAEncryptionService rsaEncryptionService = new RSAEncryptionService();
+    private final EciesEncryptionService eciesEncryptionService = new EciesEncryptionService();
+
+    private KeyPair keyPair;
+    private String ciphertext;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        keyPair = algorithm == ConsumerKeyAlgorithm.RSA
+                ? rsaEncryptionService.generateKeyPair()
+                : eciesEncryptionService.generateKeyPair(algorithm);
+        ciphertext = encrypt();
+    }
+
+    @Benchmark
+    public String encrypt() throws Exception {
+        return algorithm == ConsumerKeyAlgorithm.RSA
+                ? rsaEncryptionService.encrypt(PASSWORD, keyPair.getPublic())
+                : eciesEncryptionService.encrypt(PASSWORD, keyPair.getPublic());
+    }
+
+    @Benchmark
+    public String decrypt() throws Exception {
+        return algorithm == ConsumerKeyAlgorithm.RSA
+                ? rsaEncryptionService.decrypt(ciphertext, keyPair.getPrivate())
+                : eciesEncryptionService.decrypt(ciphertext, keyPair.getPrivate());
+    }
+}
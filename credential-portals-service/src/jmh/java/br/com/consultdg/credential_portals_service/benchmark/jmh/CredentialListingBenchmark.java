@@ -0,0 +1,140 @@
+package br.com.consultdg.credential_portals_service.benchmark.jmh;
+
+import java.lang.reflect.Proxy;
+import java.security.KeyPair;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import br.com.consultdg.credential_portals_service.api.model.CredentialsWithEncryptedPasswordDTO;
+import br.com.consultdg.credential_portals_service.model.Credentials;
+import br.com.consultdg.credential_portals_service.repository.CredentialsRepository;
+import br.com.consultdg.credential_portals_service.service.BulkEncryptionEngine;
+import br.com.consultdg.credential_portals_service.service.ConsumerCiphertextCache;
+import br.com.consultdg.credential_portals_service.service.ConsumerKeyAlgorithm;
+import br.com.consultdg.credential_portals_service.service.ConsumerKeyRegistry;
+import br.com.consultdg.credential_portals_service.service.ConsumerKeyRegistry.RegisteredKey;
+import br.com.consultdg.credential_portals_service.service.CredentialsService;
+import br.com.consultdg.credential_portals_service.service.EciesEncryptionService;
+import br.com.consultdg.credential_portals_service.service.InternalEncryptionService;
+import br.com.consultdg.credential_portals_service.service.RSAEncryptionService;
+
+/**
+ * Listagem completa de {@link CredentialsService#findAllWithEncryptedPassword(String)} com chave RSA,
+ * sem banco: o repositório devolve uma lista fixa de credenciais.
+ * <p>
+ * {@code cold} limpa o cache de textos cifrados antes de cada chamada (toda credencial é
+ * descriptografada e recriptografada); {@code warm} mede as chamadas seguintes, servidas pelo cache.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 5)
+@Fork(1)
+public class CredentialListingBenchmark {
+
+    private static final String CONSUMER = "robot-benchmark";
+
+    @Param({"10", "1000", "100000"})
+    private int credentials;
+
+    @Param({"cold", "warm"})
+    private String cache;
+
+    private CredentialsService credentialsService;
+    private ConsumerCiphertextCache consumerCiphertextCache;
+    private BulkEncryptionEngine bulkEncryptionEngine;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        RSAEncryptionService rsaEncryptionService = new RSAEncryptionService();
+        InternalEncryptionService internalEncryptionService = new InternalEncryptionService();
+        KeyPair keyPair = rsaEncryptionService.generateKeyPair();
+        RegisteredKey registeredKey = new RegisteredKey(CONSUMER, keyPair.getPublic(), ConsumerKeyAlgorithm.RSA,
+                null, true, LocalDateTime.now());
+
+        List<Credentials> activeCredentials = new ArrayList<>(credentials);
+        for (int i = 0; i < credentials; i++) {
+            Credentials credential = new Credentials();
+            credential.setId(UUID.randomUUID());
+            credential.setNameMall("Shopping " + i);
+            credential.setCnpj(String.format("%014d", i));
+            credential.setUrlPortal("https://portal" + i + ".example.com");
+            credential.setUsername("usuario" + i);
+            credential.setOriginalPasswordEncrypted(internalEncryptionService.encrypt("senha" + i));
+            if (i % 2 == 0) {
+                credential.setPasswordOfInvoice("nota" + i);
+            }
+            credential.setUpdatedAt(LocalDateTime.now());
+            activeCredentials.add(credential);
+        }
+
+        consumerCiphertextCache = new ConsumerCiphertextCache(Math.max(50_000L, credentials), Duration.ofHours(12));
+        bulkEncryptionEngine = new BulkEncryptionEngine(0, 4, 32, 256);
+
+        credentialsService = new CredentialsService();
+        ReflectionTestUtils.setField(credentialsService, "credentialsRepository", repositoryReturning(activeCredentials));
+        ReflectionTestUtils.setField(credentialsService, "consumerKeyRegistry", new ConsumerKeyRegistry() {
+            @Override
+            public Optional<RegisteredKey> findValidKey(String consumerIdentifier) {
+                return Optional.of(registeredKey);
+            }
+        });
+        ReflectionTestUtils.setField(credentialsService, "rsaEncryptionService", rsaEncryptionService);
+        ReflectionTestUtils.setField(credentialsService, "eciesEncryptionService", new EciesEncryptionService());
+        ReflectionTestUtils.setField(credentialsService, "internalEncryptionService", internalEncryptionService);
+        ReflectionTestUtils.setField(credentialsService, "bulkEncryptionEngine", bulkEncryptionEngine);
+        ReflectionTestUtils.setField(credentialsService, "consumerCiphertextCache", consumerCiphertextCache);
+
+        if ("warm".equals(cache)) {
+            credentialsService.findAllWithEncryptedPassword(CONSUMER);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void resetCache() {
+        if ("cold".equals(cache)) {
+            consumerCiphertextCache.invalidateAll();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        bulkEncryptionEngine.shutdown();
+    }
+
+    @Benchmark
+    public List<CredentialsWithEncryptedPasswordDTO> findAllWithEncryptedPassword() {
+        return credentialsService.findAllWithEncryptedPassword(CONSUMER);
+    }
+
+    private static CredentialsRepository repositoryReturning(List<Credentials> activeCredentials) {
+        return (CredentialsRepository) Proxy.newProxyInstance(CredentialsRepository.class.getClassLoader(),
+                new Class<?>[] {CredentialsRepository.class}, (proxy, method, args) -> {
+                    if ("findAllActive".equals(method.getName())) {
+                        return activeCredentials;
+                    }
+                    throw new UnsupportedOperationException(method.getName());
+                });
+    }
+}
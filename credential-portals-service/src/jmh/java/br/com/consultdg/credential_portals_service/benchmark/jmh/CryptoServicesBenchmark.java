@@ -0,0 +1,92 @@
+package br.com.consultdg.credential_portals_service.benchmark.jmh;
+
+import java.security.KeyPair;
+import java.security.PublicKey;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.consultdg.credential_portals_service.service.InternalEncryptionService;
+import br.com.consultdg.credential_portals_service.service.PasswordEncryptionService;
+import br.com.consultdg.credential_portals_service.service.RSAEncryptionService;
+
+/**
+ * Operações unitárias dos serviços de criptografia: conversão de chave, RSA, AES interno e BCrypt.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class CryptoServicesBenchmark {
+
+    private static final String PASSWORD = "senhaDoPortal@123";
+
+    private final RSAEncryptionService rsaEncryptionService = new RSAEncryptionService();
+    private final InternalEncryptionService internalEncryptionService = new InternalEncryptionService();
+    private final PasswordEncryptionService passwordEncryptionService = new PasswordEncryptionService();
+
+    private KeyPair keyPair;
+    private String pemPublicKey;
+    private String rsaCiphertext;
+    private String aesCiphertext;
+    private String bcryptHash;
+
+    @Setup
+    public void setUp() throws Exception {
+        keyPair = rsaEncryptionService.generateKeyPair();
+        pemPublicKey = "-----BEGIN PUBLIC KEY-----\n"
+                + rsaEncryptionService.publicKeyToString(keyPair.getPublic()).replaceAll("(.{64})", "$1\n")
+                + "\n-----END PUBLIC KEY-----";
+        rsaCiphertext = rsaEncryptionService.encrypt(PASSWORD, keyPair.getPublic());
+        aesCiphertext = internalEncryptionService.encrypt(PASSWORD);
+        bcryptHash = passwordEncryptionService.encryptPassword(PASSWORD);
+    }
+
+    @Benchmark
+    public PublicKey stringToPublicKey() throws Exception {
+        return rsaEncryptionService.stringToPublicKey(pemPublicKey);
+    }
+
+    @Benchmark
+    public String rsaEncrypt() throws Exception {
+        return rsaEncryptionService.encrypt(PASSWORD, keyPair.getPublic());
+    }
+
+    @Benchmark
+    public String rsaDecrypt() throws Exception {
+        return rsaEncryptionService.decrypt(rsaCiphertext, keyPair.getPrivate());
+    }
+
+    @Benchmark
+    public String aesEncrypt() {
+        return internalEncryptionService.encrypt(PASSWORD);
+    }
+
+    @Benchmark
+    public String aesDecrypt() {
+        return internalEncryptionService.decrypt(aesCiphertext);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public String bcryptEncryptPassword() {
+        return passwordEncryptionService.encryptPassword(PASSWORD);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public boolean bcryptVerifyPassword() {
+        return passwordEncryptionService.verifyPassword(PASSWORD, bcryptHash);
+    }
+}
@@ -0,0 +1,131 @@
+package br.com.consultdg.credential_portals_service.benchmark.jmh;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Comparator;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import br.com.consultdg.credential_portals_service.model.UuidV7Generator;
+
+/**
+ * Inserções em uma tabela com chave primária {@code BINARY(16)}, como a de {@code credentials} no
+ * MySQL, comparando UUIDs aleatórios (v4) com UUIDs ordenados pelo tempo (v7).
+ * <p>
+ * Usa um H2 em arquivo (em {@code target/}) com cache de páginas pequeno, para que a localidade das
+ * inserções no índice da chave primária apareça no resultado. {@code existingRows} é o tamanho da
+ * tabela antes da medição; cada operação é uma linha, gravada em lotes de {@value #BATCH_SIZE}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 3, time = 10)
+@Fork(1)
+public class PrimaryKeyInsertBenchmark {
+
+    private static final int BATCH_SIZE = 500;
+
+    @Param({"v4", "v7"})
+    private String uuidVersion;
+
+    @Param({"0", "100000", "500000"})
+    private int existingRows;
+
+    private Path databaseDirectory;
+    private Connection connection;
+    private PreparedStatement insert;
+    private Supplier<UUID> ids;
+    private long sequence;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        ids = "v7".equals(uuidVersion) ? UuidV7Generator::next : UUID::randomUUID;
+        databaseDirectory = Files.createTempDirectory(Files.createDirectories(Paths.get("target", "jmh-db")), uuidVersion);
+        connection = DriverManager.getConnection("jdbc:h2:file:" + databaseDirectory.resolve("bench").toAbsolutePath()
+                + ";MODE=MySQL;CACHE_SIZE=8192", "sa", "");
+        connection.setAutoCommit(false);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE credentials (id BINARY(16) NOT NULL PRIMARY KEY, "
+                    + "name_mall VARCHAR(255) NOT NULL, username VARCHAR(100) NOT NULL, password VARCHAR(255) NOT NULL)");
+        }
+        insert = connection.prepareStatement("INSERT INTO credentials (id, name_mall, username, password) VALUES (?, ?, ?, ?)");
+        for (int inserted = 0; inserted < existingRows; inserted += BATCH_SIZE) {
+            insertBatch();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+        insert.close();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SHUTDOWN");
+        } catch (SQLException e) {
+            // Conexão já encerrada pelo próprio SHUTDOWN
+        }
+        try (Stream<Path> files = Files.walk(databaseDirectory)) {
+            files.sorted(Comparator.reverseOrder()).forEach(PrimaryKeyInsertBenchmark::deleteQuietly);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insert() throws SQLException {
+        return insertBatch();
+    }
+
+    private int[] insertBatch() throws SQLException {
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            long row = sequence++;
+            insert.setBytes(1, toBytes(ids.get()));
+            insert.setString(2, "Shopping " + row);
+            insert.setString(3, "usuario" + row);
+            insert.setString(4, "$2a$12$R9h/cIPz0gi.URNNX3kh2OPST9/PgBkqquzi.Ss7KIUgO2t0jWMUW");
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+
+    // Mesma ordem de bytes que o Hibernate usa para UUID em BINARY(16) no MySQL
+    private static byte[] toBytes(UUID uuid) {
+        return ByteBuffer.allocate(16)
+                .putLong(uuid.getMostSignificantBits())
+                .putLong(uuid.getLeastSignificantBits())
+                .array();
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            // Arquivo temporário em target/, removido no próximo clean
+        }
+    }
+}
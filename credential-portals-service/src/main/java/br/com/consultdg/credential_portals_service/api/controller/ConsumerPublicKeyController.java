@@ -3,8 +3,13 @@ package br.com.consultdg.credential_portals_service.api.controller;
 import br.com.consultdg.credential_portals_service.api.model.BasicCredentialsResponseDTO;
 import br.com.consultdg.credential_portals_service.api.model.ConsumerPublicKeyRequestDTO;
 import br.com.consultdg.credential_portals_service.api.model.ConsumerPublicKeyResponseDTO;
+import br.com.consultdg.credential_portals_service.api.model.HybridCredentialsResponseDTO;
+import br.com.consultdg.credential_portals_service.api.model.KeysetPageDTO;
 import br.com.consultdg.credential_portals_service.service.ConsumerPublicKeyService;
 import br.com.consultdg.credential_portals_service.service.CredentialsService;
+import br.com.consultdg.credential_portals_service.service.HybridEncryptionService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -13,10 +18,16 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ETag;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.UUID;
 
@@ -29,12 +40,19 @@ import java.util.UUID;
 @Tag(name = "Consumer Public Keys", description = "API para gerenciamento de chaves públicas dos consumidores")
 public class ConsumerPublicKeyController {
 
+    private static final String RSA_ENCRYPTION_MODE = "rsa";
+
+    private static final int STREAM_FLUSH_INTERVAL = 64;
+
     @Autowired
     private ConsumerPublicKeyService consumerPublicKeyService;
 
     @Autowired
     private CredentialsService credentialsService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
     @GetMapping
     @Operation(summary = "Lista todas as chaves públicas", description = "Retorna uma lista com todas as chaves públicas ativas")
     @ApiResponses(value = {
@@ -46,6 +64,26 @@ public class ConsumerPublicKeyController {
         return ResponseEntity.ok(keys);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Lista chaves públicas paginadas",
+            description = "Retorna uma página das chaves públicas ativas em ordem de criação, sem contar o total. " +
+                    "Para a próxima página, envie o nextCursor recebido como cursor, com a mesma ordenação")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página retornada com sucesso",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = KeysetPageDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Cursor, tamanho ou ordenação inválidos", content = @Content)
+    })
+    public ResponseEntity<KeysetPageDTO<ConsumerPublicKeyResponseDTO>> getPublicKeysPage(
+            @Parameter(description = "Cursor da página anterior (nextCursor)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Ordem por data de criação: asc ou desc") @RequestParam(required = false) String sort) {
+        try {
+            return ResponseEntity.ok(consumerPublicKeyService.findPage(cursor, size, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Busca chave pública por ID", description = "Retorna uma chave pública específica pelo seu ID")
     @ApiResponses(value = {
@@ -75,6 +113,21 @@ public class ConsumerPublicKeyController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/fingerprint/{fingerprint}")
+    @Operation(summary = "Busca chave pública pela impressão digital", 
+               description = "Retorna a chave pública ativa cuja impressão digital SHA-256 (DER, hexadecimal) corresponde à informada")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Chave pública encontrada",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = ConsumerPublicKeyResponseDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Nenhuma chave ativa com esta impressão digital", content = @Content)
+    })
+    public ResponseEntity<ConsumerPublicKeyResponseDTO> getPublicKeyByFingerprint(
+            @Parameter(description = "Impressão digital SHA-256 da chave", required = true) @PathVariable String fingerprint) {
+        return consumerPublicKeyService.findByFingerprint(fingerprint)
+                .map(key -> ResponseEntity.ok(key))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @PostMapping
     @Operation(summary = "Registra nova chave pública", description = "Registra uma nova chave pública para um consumidor")
     @ApiResponses(value = {
@@ -159,15 +212,20 @@ public class ConsumerPublicKeyController {
 
     @GetMapping("/generate-example")
     @Operation(summary = "Gera exemplo de par de chaves", 
-               description = "Gera um par de chaves RSA de exemplo para demonstração")
+               description = "Gera um par de chaves de exemplo (RSA, X25519 ou P-256) para demonstração")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Par de chaves gerado com sucesso",
-                content = @Content(mediaType = "text/plain"))
+                content = @Content(mediaType = "text/plain")),
+        @ApiResponse(responseCode = "400", description = "Algoritmo não suportado", content = @Content)
     })
-    public ResponseEntity<String> generateKeyPairExample() {
+    public ResponseEntity<String> generateKeyPairExample(
+            @Parameter(description = "Algoritmo da chave: RSA (padrão), X25519 ou P-256")
+            @RequestParam(value = "algorithm", required = false, defaultValue = "RSA") String algorithm) {
         try {
-            String keyPairExample = consumerPublicKeyService.generateKeyPairExample();
+            String keyPairExample = consumerPublicKeyService.generateKeyPairExample(algorithm);
             return ResponseEntity.ok(keyPairExample);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
         } catch (Exception e) {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
                     .body("Erro ao gerar par de chaves: " + e.getMessage());
@@ -189,31 +247,46 @@ public class ConsumerPublicKeyController {
 
     @GetMapping("/credentials")
     @Operation(summary = "Lista credenciais básicas para robôs", 
-               description = "Retorna uma lista de credenciais básicas (urlPortal, username, password criptografada, nameMall) para consumo por robôs autenticados")
+               description = "Retorna uma lista de credenciais básicas (urlPortal, username, password criptografada, nameMall) para consumo por robôs autenticados. " +
+                       "Com o header X-Encryption-Mode: hybrid, retorna uma única chave de sessão AES-GCM protegida com a chave do consumidor e as senhas criptografadas com essa chave. " +
+                       "A resposta traz um ETag; enviando-o em If-None-Match, a API responde 304 sem criptografar nada se a listagem não mudou")
     @ApiResponses(value = {
         @ApiResponse(responseCode = "200", description = "Lista de credenciais retornada com sucesso",
-                content = @Content(mediaType = "application/json", schema = @Schema(implementation = BasicCredentialsResponseDTO.class))),
+                content = @Content(mediaType = "application/json", schema = @Schema(oneOf = {BasicCredentialsResponseDTO.class, HybridCredentialsResponseDTO.class}))),
+        @ApiResponse(responseCode = "304", description = "Listagem inalterada desde o ETag informado", content = @Content),
+        @ApiResponse(responseCode = "400", description = "Modo de criptografia não suportado", content = @Content),
         @ApiResponse(responseCode = "401", description = "Não autorizado - chave pública inválida ou não encontrada", content = @Content),
         @ApiResponse(responseCode = "403", description = "Acesso negado - consumidor não possui permissão", content = @Content)
     })
-    public ResponseEntity<List<BasicCredentialsResponseDTO>> getBasicCredentials(
+    public ResponseEntity<?> getBasicCredentials(
             @Parameter(description = "Identificador único do consumidor", required = true) 
-            @RequestHeader("X-Consumer-Identifier") String consumerIdentifier) {
+            @RequestHeader("X-Consumer-Identifier") String consumerIdentifier,
+            @Parameter(description = "Modo de criptografia da resposta: rsa (padrão, cada senha criptografada com RSA) ou hybrid (envelope AES-GCM)")
+            @RequestHeader(value = "X-Encryption-Mode", required = false, defaultValue = RSA_ENCRYPTION_MODE) String encryptionMode,
+            @Parameter(description = "ETag de uma listagem anterior")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         
         try {
-            // Busca as credenciais com senhas criptografadas para o consumidor e converte para o DTO básico
-            List<BasicCredentialsResponseDTO> basicCredentials = credentialsService.findAllWithEncryptedPassword(consumerIdentifier)
-                    .stream()
-                    .map(credential -> new BasicCredentialsResponseDTO(
-                        credential.getUrlPortal(),
-                        credential.getUsername(), 
-                        credential.getEncryptedPassword(), // Senha criptografada com RSA
-                        credential.getEncryptedPasswordOfInvoice(), // Senha da nota fiscal criptografada com RSA
-                        credential.getNameMall()
-                    ))
-                    .toList();
-
-            return ResponseEntity.ok(basicCredentials);
+            boolean hybrid = HybridEncryptionService.ENCRYPTION_MODE.equalsIgnoreCase(encryptionMode);
+            if (!hybrid && !RSA_ENCRYPTION_MODE.equalsIgnoreCase(encryptionMode)) {
+                return ResponseEntity.badRequest().build();
+            }
+
+            // Listagem inalterada: não há o que criptografar
+            String eTag = credentialsService.credentialsETag(consumerIdentifier, encryptionMode);
+            if (matchesIfNoneMatch(ifNoneMatch, eTag)) {
+                return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+            }
+
+            if (hybrid) {
+                HybridCredentialsResponseDTO hybridCredentials = credentialsService.findAllWithHybridEncryption(consumerIdentifier);
+                return ResponseEntity.ok().eTag(eTag).body(hybridCredentials);
+            }
+
+            // Senhas criptografadas com RSA para o consumidor, já no DTO básico
+            List<BasicCredentialsResponseDTO> basicCredentials = credentialsService.findAllBasicWithEncryptedPassword(consumerIdentifier);
+
+            return ResponseEntity.ok().eTag(eTag).body(basicCredentials);
             
         } catch (IllegalArgumentException e) {
             // Consumidor não possui chave pública válida
@@ -223,4 +296,72 @@ public class ConsumerPublicKeyController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    @GetMapping(value = "/credentials/stream", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Lista credenciais básicas para robôs em fluxo",
+               description = "Mesmo conteúdo de /credentials no modo rsa, em NDJSON (uma credencial por linha). " +
+                       "As credenciais são lidas, criptografadas e enviadas aos poucos: o primeiro registro chega sem esperar " +
+                       "a listagem inteira e o uso de memória não depende da quantidade de credenciais")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Credenciais enviadas em fluxo",
+                content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = BasicCredentialsResponseDTO.class))),
+        @ApiResponse(responseCode = "304", description = "Listagem inalterada desde o ETag informado", content = @Content),
+        @ApiResponse(responseCode = "401", description = "Não autorizado - chave pública inválida ou não encontrada", content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> streamBasicCredentials(
+            @Parameter(description = "Identificador único do consumidor", required = true)
+            @RequestHeader("X-Consumer-Identifier") String consumerIdentifier,
+            @Parameter(description = "ETag de uma listagem anterior")
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
+        String eTag;
+        try {
+            // Valida o consumidor antes de iniciar a resposta
+            eTag = credentialsService.credentialsETag(consumerIdentifier, RSA_ENCRYPTION_MODE);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+        }
+        if (matchesIfNoneMatch(ifNoneMatch, eTag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).eTag(eTag).build();
+        }
+
+        StreamingResponseBody body = outputStream -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+                generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                int[] written = {0};
+                credentialsService.streamWithEncryptedPassword(consumerIdentifier, credential -> {
+                    try {
+                        generator.writeObject(credential);
+                        generator.writeRaw('\n');
+                        // O primeiro registro sai imediatamente; os demais, em blocos
+                        if (written[0]++ % STREAM_FLUSH_INTERVAL == 0) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok()
+                .eTag(eTag)
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    /**
+     * Indica se o If-None-Match corresponde ao ETag atual: aceita lista de ETags, {@code *} e ETags
+     * fracos ({@code W/"..."}, como os reescritos por proxies que comprimem a resposta).
+     */
+    static boolean matchesIfNoneMatch(String ifNoneMatch, String eTag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        ETag current = ETag.create(eTag);
+        for (ETag requested : ETag.parse(ifNoneMatch)) {
+            if (requested.isWildcard() || requested.compare(current, false)) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -1,27 +1,44 @@
 package br.com.consultdg.credential_portals_service.api.controller;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
 import java.util.UUID;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PatchMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import br.com.consultdg.credential_portals_service.api.model.CredentialImportEventDTO;
+import br.com.consultdg.credential_portals_service.api.model.CredentialsPatchRequestDTO;
 import br.com.consultdg.credential_portals_service.api.model.CredentialsRequestDTO;
 import br.com.consultdg.credential_portals_service.api.model.CredentialsResponseDTO;
 import br.com.consultdg.credential_portals_service.api.model.CredentialsWithEncryptedPasswordDTO;
+import br.com.consultdg.credential_portals_service.api.model.KeysetPageDTO;
+import br.com.consultdg.credential_portals_service.api.model.PasswordVerificationItemDTO;
 import br.com.consultdg.credential_portals_service.api.model.PasswordVerificationRequestDTO;
+import br.com.consultdg.credential_portals_service.api.model.PasswordVerificationResultDTO;
+import br.com.consultdg.credential_portals_service.service.CredentialImportService;
 import br.com.consultdg.credential_portals_service.service.CredentialsService;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.media.Content;
@@ -36,9 +53,17 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 @Tag(name = "Credentials", description = "API para gerenciamento de credenciais de portais")
 public class CredentialsController {
 
+    private static final String CSV_MEDIA_TYPE = "text/csv";
+
     @Autowired
     private CredentialsService credentialsService;
 
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private CredentialImportService credentialImportService;
+
     @GetMapping
     @Operation(summary = "Lista todas as credenciais", description = "Retorna uma lista com todas as credenciais ativas")
     @ApiResponses(value = {
@@ -50,6 +75,26 @@ public class CredentialsController {
         return ResponseEntity.ok(credentials);
     }
 
+    @GetMapping("/page")
+    @Operation(summary = "Lista credenciais paginadas",
+            description = "Retorna uma página das credenciais ativas em ordem de criação, sem contar o total. " +
+                    "Para a próxima página, envie o nextCursor recebido como cursor, com a mesma ordenação")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Página retornada com sucesso",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = KeysetPageDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Cursor, tamanho ou ordenação inválidos", content = @Content)
+    })
+    public ResponseEntity<KeysetPageDTO<CredentialsResponseDTO>> getCredentialsPage(
+            @Parameter(description = "Cursor da página anterior (nextCursor)") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamanho da página") @RequestParam(required = false) Integer size,
+            @Parameter(description = "Ordem por data de criação: asc ou desc") @RequestParam(required = false) String sort) {
+        try {
+            return ResponseEntity.ok(credentialsService.findPage(cursor, size, sort));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @GetMapping("/{id}")
     @Operation(summary = "Busca credencial por ID", description = "Retorna uma credencial específica pelo seu ID")
     @ApiResponses(value = {
@@ -126,6 +171,22 @@ public class CredentialsController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @PatchMapping("/{id}")
+    @Operation(summary = "Atualiza credencial parcialmente",
+            description = "Altera apenas os campos informados. A senha só é recriptografada se for diferente da atual")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Credencial atualizada com sucesso",
+                content = @Content(mediaType = "application/json", schema = @Schema(implementation = CredentialsResponseDTO.class))),
+        @ApiResponse(responseCode = "404", description = "Credencial não encontrada", content = @Content)
+    })
+    public ResponseEntity<CredentialsResponseDTO> patchCredential(
+            @Parameter(description = "ID da credencial", required = true) @PathVariable UUID id,
+            @Parameter(description = "Campos a alterar", required = true) @RequestBody CredentialsPatchRequestDTO patchDTO) {
+        return credentialsService.patch(id, patchDTO)
+                .map(credential -> ResponseEntity.ok(credential))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @DeleteMapping("/{id}")
     @Operation(summary = "Remove credencial", description = "Remove uma credencial do sistema (soft delete)")
     @ApiResponses(value = {
@@ -158,6 +219,71 @@ public class CredentialsController {
         }
     }
 
+    @PostMapping(value = "/verify-passwords", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Verifica senhas em lote",
+            description = "Verifica vários pares (ID, senha) de uma vez. Os resultados são enviados em NDJSON, uma linha por item, " +
+                    "na ordem em que as verificações terminam; o campo index indica a posição do item na requisição")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Resultados das verificações",
+                content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = PasswordVerificationResultDTO.class))),
+        @ApiResponse(responseCode = "400", description = "Lote vazio ou acima do limite de itens", content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> verifyPasswords(
+            @Parameter(description = "Pares (ID da credencial, senha) a verificar", required = true) @RequestBody List<PasswordVerificationItemDTO> items) {
+        try {
+            credentialsService.checkPasswordVerificationBatch(items);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        }
+
+        StreamingResponseBody body = outputStream -> credentialsService.verifyPasswords(items, result -> {
+            try {
+                outputStream.write(objectMapper.writeValueAsBytes(result));
+                outputStream.write('\n');
+                outputStream.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @PostMapping(value = "/import", consumes = {CSV_MEDIA_TYPE, MediaType.APPLICATION_NDJSON_VALUE},
+            produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(summary = "Importa credenciais em lote",
+            description = "Importa credenciais de um CSV (text/csv, com cabeçalho nameMall,cnpj,urlPortal,username,password," +
+                    "passwordOfInvoice,active) ou de JSON Lines (application/x-ndjson, um CredentialsRequestDTO por linha), " +
+                    "lidos em fluxo. A resposta, em NDJSON, traz um evento por linha rejeitada (error), um por lote gravado " +
+                    "(progress) e o resumo final (summary)")
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Eventos da importação",
+                content = @Content(mediaType = MediaType.APPLICATION_NDJSON_VALUE, schema = @Schema(implementation = CredentialImportEventDTO.class))),
+        @ApiResponse(responseCode = "415", description = "Formato de entrada não suportado", content = @Content)
+    })
+    public ResponseEntity<StreamingResponseBody> importCredentials(
+            @Parameter(description = "Tipo da entrada: text/csv ou application/x-ndjson") @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream input) {
+        CredentialImportService.Format format = MediaType.parseMediaType(contentType).isCompatibleWith(MediaType.APPLICATION_NDJSON)
+                ? CredentialImportService.Format.JSON_LINES
+                : CredentialImportService.Format.CSV;
+
+        StreamingResponseBody body = outputStream -> credentialImportService.importCredentials(
+                new InputStreamReader(input, StandardCharsets.UTF_8), format, event -> {
+                    try {
+                        outputStream.write(objectMapper.writeValueAsBytes(event));
+                        outputStream.write('\n');
+                        outputStream.flush();
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
     @GetMapping("/encrypted/{consumerIdentifier}")
     @Operation(summary = "Lista credenciais com senhas criptografadas", 
                description = "Retorna todas as credenciais com senhas criptografadas para o consumidor especificado")
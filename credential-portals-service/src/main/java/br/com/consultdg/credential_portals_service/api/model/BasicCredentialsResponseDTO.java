@@ -1,5 +1,7 @@
 package br.com.consultdg.credential_portals_service.api.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 
 /**
@@ -23,6 +25,11 @@ public class BasicCredentialsResponseDTO {
     @Schema(description = "Nome do shopping/mall", example = "Shopping Center ABC")
     private String nameMall;
 
+    @Schema(description = "Motivo da falha, presente apenas quando as senhas desta credencial não puderam ser criptografadas (vêm nulas)",
+            example = "Não foi possível criptografar as senhas desta credencial")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
     // Constructors
     public BasicCredentialsResponseDTO() {}
 
@@ -74,4 +81,12 @@ public class BasicCredentialsResponseDTO {
     public void setNameMall(String nameMall) {
         this.nameMall = nameMall;
     }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
 }
@@ -16,9 +16,12 @@ public class ConsumerPublicKeyRequestDTO {
     @Schema(description = "Identificador único do consumidor", example = "frontend-app-v1", required = true)
     private String consumerIdentifier;
 
-    @Schema(description = "Chave pública RSA em formato Base64", required = true)
+    @Schema(description = "Chave pública em formato Base64 (X.509) ou PEM", required = true)
     private String publicKey;
 
+    @Schema(description = "Algoritmo da chave pública: RSA (padrão), X25519 ou P-256", example = "X25519")
+    private String keyAlgorithm;
+
     @Schema(description = "Data de expiração da chave (opcional)", example = "2025-12-31T23:59:59")
     private LocalDateTime expiresAt;
 
@@ -59,6 +62,14 @@ public class ConsumerPublicKeyRequestDTO {
         this.publicKey = publicKey;
     }
 
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    public void setKeyAlgorithm(String keyAlgorithm) {
+        this.keyAlgorithm = keyAlgorithm;
+    }
+
     public LocalDateTime getExpiresAt() {
         return expiresAt;
     }
@@ -26,6 +26,9 @@ public class ConsumerPublicKeyResponseDTO {
     @Schema(description = "Tamanho da chave em bits", example = "2048")
     private Integer keySize;
 
+    @Schema(description = "Impressão digital SHA-256 da chave (DER, hexadecimal)", example = "3f2a9c...")
+    private String fingerprint;
+
     @Schema(description = "Data e hora de criação", example = "2025-07-26T10:30:00")
     private LocalDateTime createdAt;
 
@@ -48,7 +51,7 @@ public class ConsumerPublicKeyResponseDTO {
     public ConsumerPublicKeyResponseDTO() {}
 
     public ConsumerPublicKeyResponseDTO(UUID id, String consumerName, String consumerIdentifier, 
-                                       String keyAlgorithm, Integer keySize, LocalDateTime createdAt, 
+                                       String keyAlgorithm, Integer keySize, String fingerprint, LocalDateTime createdAt, 
                                        LocalDateTime updatedAt, LocalDateTime expiresAt, Boolean active, 
                                        String description, Boolean isValid) {
         this.id = id;
@@ -56,6 +59,7 @@ public class ConsumerPublicKeyResponseDTO {
         this.consumerIdentifier = consumerIdentifier;
         this.keyAlgorithm = keyAlgorithm;
         this.keySize = keySize;
+        this.fingerprint = fingerprint;
         this.createdAt = createdAt;
         this.updatedAt = updatedAt;
         this.expiresAt = expiresAt;
@@ -105,6 +109,14 @@ public class ConsumerPublicKeyResponseDTO {
         this.keySize = keySize;
     }
 
+    public String getFingerprint() {
+        return fingerprint;
+    }
+
+    public void setFingerprint(String fingerprint) {
+        this.fingerprint = fingerprint;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -0,0 +1,104 @@
+package br.com.consultdg.credential_portals_service.api.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de um evento da importação em lote, enviado em NDJSON: o erro de uma linha, o progresso
+ * após cada lote gravado ou o resumo final.
+ */
+@Schema(description = "Evento da importação em lote de credenciais")
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CredentialImportEventDTO {
+
+    public static final String ERROR = "error";
+    public static final String PROGRESS = "progress";
+    public static final String SUMMARY = "summary";
+
+    @Schema(description = "Tipo do evento: error, progress ou summary", example = "progress")
+    private String type;
+
+    @Schema(description = "Linha da entrada com erro (a partir de 1)", example = "42")
+    private Integer line;
+
+    @Schema(description = "Motivo do erro da linha", example = "Campo obrigatório ausente: password")
+    private String message;
+
+    @Schema(description = "Linhas processadas até o momento", example = "500")
+    private Integer processed;
+
+    @Schema(description = "Credenciais gravadas até o momento", example = "498")
+    private Integer imported;
+
+    @Schema(description = "Linhas com erro até o momento", example = "2")
+    private Integer failed;
+
+    public CredentialImportEventDTO() {
+    }
+
+    public static CredentialImportEventDTO error(int line, String message) {
+        CredentialImportEventDTO event = new CredentialImportEventDTO();
+        event.type = ERROR;
+        event.line = line;
+        event.message = message;
+        return event;
+    }
+
+    public static CredentialImportEventDTO counts(String type, int processed, int imported, int failed) {
+        CredentialImportEventDTO event = new CredentialImportEventDTO();
+        event.type = type;
+        event.processed = processed;
+        event.imported = imported;
+        event.failed = failed;
+        return event;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    public void setType(String type) {
+        this.type = type;
+    }
+
+    public Integer getLine() {
+        return line;
+    }
+
+    public void setLine(Integer line) {
+        this.line = line;
+    }
+
+    public String getMessage() {
+        return message;
+    }
+
+    public void setMessage(String message) {
+        this.message = message;
+    }
+
+    public Integer getProcessed() {
+        return processed;
+    }
+
+    public void setProcessed(Integer processed) {
+        this.processed = processed;
+    }
+
+    public Integer getImported() {
+        return imported;
+    }
+
+    public void setImported(Integer imported) {
+        this.imported = imported;
+    }
+
+    public Integer getFailed() {
+        return failed;
+    }
+
+    public void setFailed(Integer failed) {
+        this.failed = failed;
+    }
+}
@@ -0,0 +1,89 @@
+package br.com.consultdg.credential_portals_service.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+@Schema(description = "DTO para atualização parcial de credenciais. Campos ausentes ou nulos não são alterados")
+public class CredentialsPatchRequestDTO {
+
+    @Schema(description = "Nome do shopping center", example = "Shopping Center Norte")
+    private String nameMall;
+
+    @Schema(description = "CNPJ da empresa", example = "12345678000195")
+    private String cnpj;
+
+    @Schema(description = "URL do portal", example = "https://portal.shopping.com.br")
+    private String urlPortal;
+
+    @Schema(description = "Nome de usuário para acesso", example = "admin")
+    private String username;
+
+    @Schema(description = "Nova senha para acesso; só é processada se for diferente da atual", example = "senha123")
+    private String password;
+
+    @Schema(description = "Senha da nota fiscal", example = "senhaNotaFiscal123")
+    private String passwordOfInvoice;
+
+    @Schema(description = "Status ativo da credencial", example = "true")
+    private Boolean active;
+
+    // Constructors
+    public CredentialsPatchRequestDTO() {
+    }
+
+    // Getters and Setters
+    public String getNameMall() {
+        return nameMall;
+    }
+
+    public void setNameMall(String nameMall) {
+        this.nameMall = nameMall;
+    }
+
+    public String getCnpj() {
+        return cnpj;
+    }
+
+    public void setCnpj(String cnpj) {
+        this.cnpj = cnpj;
+    }
+
+    public String getUrlPortal() {
+        return urlPortal;
+    }
+
+    public void setUrlPortal(String urlPortal) {
+        this.urlPortal = urlPortal;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+
+    public String getPasswordOfInvoice() {
+        return passwordOfInvoice;
+    }
+
+    public void setPasswordOfInvoice(String passwordOfInvoice) {
+        this.passwordOfInvoice = passwordOfInvoice;
+    }
+
+    public Boolean getActive() {
+        return active;
+    }
+
+    public void setActive(Boolean active) {
+        this.active = active;
+    }
+}
@@ -1,5 +1,7 @@
 package br.com.consultdg.credential_portals_service.api.model;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.time.LocalDateTime;
@@ -51,6 +53,11 @@ public class CredentialsWithEncryptedPasswordDTO {
     @Schema(description = "Status ativo da credencial", example = "true")
     private Boolean active;
 
+    @Schema(description = "Motivo da falha, presente apenas quando as senhas desta credencial não puderam ser criptografadas (vêm nulas)",
+            example = "Não foi possível criptografar as senhas desta credencial")
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String error;
+
     // Constructors
     public CredentialsWithEncryptedPasswordDTO() {}
 
@@ -177,4 +184,12 @@ public class CredentialsWithEncryptedPasswordDTO {
     public void setActive(Boolean active) {
         this.active = active;
     }
+
+    public String getError() {
+        return error;
+    }
+
+    public void setError(String error) {
+        this.error = error;
+    }
 }
@@ -0,0 +1,83 @@
+package br.com.consultdg.credential_portals_service.api.model;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * DTO para retornar credenciais básicas no modo de criptografia híbrida (envelope).
+ * As senhas são criptografadas com uma chave de sessão AES-GCM, que é enviada
+ * criptografada com a chave pública RSA do consumidor.
+ */
+@Schema(description = "Credenciais básicas criptografadas no modo híbrido (chave de sessão AES-GCM protegida por RSA)")
+public class HybridCredentialsResponseDTO {
+
+    @Schema(description = "Modo de criptografia da resposta", example = "hybrid")
+    private String encryptionMode;
+
+    @Schema(description = "Algoritmo usado para proteger a chave de sessão", example = "RSA/ECB/PKCS1Padding")
+    private String keyEncryptionAlgorithm;
+
+    @Schema(description = "Algoritmo usado para criptografar as senhas; cada campo contém IV (12 bytes) + texto cifrado em Base64",
+            example = "AES/GCM/NoPadding")
+    private String dataEncryptionAlgorithm;
+
+    @Schema(description = "Chave de sessão AES criptografada com a chave pública do consumidor (Base64)")
+    private String encryptedSessionKey;
+
+    @Schema(description = "Credenciais com senhas criptografadas pela chave de sessão")
+    private List<BasicCredentialsResponseDTO> credentials;
+
+    // Constructors
+    public HybridCredentialsResponseDTO() {}
+
+    public HybridCredentialsResponseDTO(String encryptionMode, String keyEncryptionAlgorithm, String dataEncryptionAlgorithm,
+                                        String encryptedSessionKey, List<BasicCredentialsResponseDTO> credentials) {
+        this.encryptionMode = encryptionMode;
+        this.keyEncryptionAlgorithm = keyEncryptionAlgorithm;
+        this.dataEncryptionAlgorithm = dataEncryptionAlgorithm;
+        this.encryptedSessionKey = encryptedSessionKey;
+        this.credentials = credentials;
+    }
+
+    // Getters and Setters
+    public String getEncryptionMode() {
+        return encryptionMode;
+    }
+
+    public void setEncryptionMode(String encryptionMode) {
+        this.encryptionMode = encryptionMode;
+    }
+
+    public String getKeyEncryptionAlgorithm() {
+        return keyEncryptionAlgorithm;
+    }
+
+    public void setKeyEncryptionAlgorithm(String keyEncryptionAlgorithm) {
+        this.keyEncryptionAlgorithm = keyEncryptionAlgorithm;
+    }
+
+    public String getDataEncryptionAlgorithm() {
+        return dataEncryptionAlgorithm;
+    }
+
+    public void setDataEncryptionAlgorithm(String dataEncryptionAlgorithm) {
+        this.dataEncryptionAlgorithm = dataEncryptionAlgorithm;
+    }
+
+    public String getEncryptedSessionKey() {
+        return encryptedSessionKey;
+    }
+
+    public void setEncryptedSessionKey(String encryptedSessionKey) {
+        this.encryptedSessionKey = encryptedSessionKey;
+    }
+
+    public List<BasicCredentialsResponseDTO> getCredentials() {
+        return credentials;
+    }
+
+    public void setCredentials(List<BasicCredentialsResponseDTO> credentials) {
+        this.credentials = credentials;
+    }
+}
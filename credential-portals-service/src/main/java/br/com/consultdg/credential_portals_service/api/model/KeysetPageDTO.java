@@ -0,0 +1,43 @@
+package br.com.consultdg.credential_portals_service.api.model;
+
+import java.util.List;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de uma página de listagem paginada por cursor. Não traz o total de registros:
+ * a próxima página é obtida enviando {@code nextCursor}, que fica nulo na última página.
+ */
+@Schema(description = "Página de uma listagem paginada por cursor")
+public class KeysetPageDTO<T> {
+
+    @Schema(description = "Itens da página")
+    private List<T> items;
+
+    @Schema(description = "Cursor opaco da próxima página; nulo na última página", example = "MjAyNS0wMS0xNVQxMDozMDowMHwzZmE4NWY2NC01NzE3LTQ1NjItYjNmYy0yYzk2M2Y2NmFmYTZ8YQ")
+    private String nextCursor;
+
+    public KeysetPageDTO() {
+    }
+
+    public KeysetPageDTO(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    public List<T> getItems() {
+        return items;
+    }
+
+    public void setItems(List<T> items) {
+        this.items = items;
+    }
+
+    public String getNextCursor() {
+        return nextCursor;
+    }
+
+    public void setNextCursor(String nextCursor) {
+        this.nextCursor = nextCursor;
+    }
+}
@@ -0,0 +1,42 @@
+package br.com.consultdg.credential_portals_service.api.model;
+
+import java.util.UUID;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO de um item da verificação de senhas em lote.
+ */
+@Schema(description = "Credencial e senha a verificar")
+public class PasswordVerificationItemDTO {
+
+    @Schema(description = "ID da credencial", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6", required = true)
+    private UUID id;
+
+    @Schema(description = "Senha em texto plano", example = "minhasenha123", required = true)
+    private String password;
+
+    public PasswordVerificationItemDTO() {
+    }
+
+    public PasswordVerificationItemDTO(UUID id, String password) {
+        this.id = id;
+        this.password = password;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getPassword() {
+        return password;
+    }
+
+    public void setPassword(String password) {
+        this.password = password;
+    }
+}
@@ -0,0 +1,67 @@
+package br.com.consultdg.credential_portals_service.api.model;
+
+import java.util.UUID;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * DTO com o resultado da verificação de um item do lote. Os resultados chegam na ordem em que
+ * terminam; {@code index} indica a posição do item na requisição.
+ */
+@Schema(description = "Resultado da verificação de senha de um item do lote")
+public class PasswordVerificationResultDTO {
+
+    @Schema(description = "Posição do item na requisição", example = "0")
+    private int index;
+
+    @Schema(description = "ID da credencial", example = "3fa85f64-5717-4562-b3fc-2c963f66afa6")
+    private UUID id;
+
+    @Schema(description = "Se a credencial existe e está ativa", example = "true")
+    private boolean found;
+
+    @Schema(description = "Se a senha corresponde à senha armazenada", example = "true")
+    private boolean valid;
+
+    public PasswordVerificationResultDTO() {
+    }
+
+    public PasswordVerificationResultDTO(int index, UUID id, boolean found, boolean valid) {
+        this.index = index;
+        this.id = id;
+        this.found = found;
+        this.valid = valid;
+    }
+
+    public int getIndex() {
+        return index;
+    }
+
+    public void setIndex(int index) {
+        this.index = index;
+    }
+
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public boolean isFound() {
+        return found;
+    }
+
+    public void setFound(boolean found) {
+        this.found = found;
+    }
+
+    public boolean isValid() {
+        return valid;
+    }
+
+    public void setValid(boolean valid) {
+        this.valid = valid;
+    }
+}
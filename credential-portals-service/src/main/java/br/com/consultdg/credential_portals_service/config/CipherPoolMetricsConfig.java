@@ -0,0 +1,30 @@
+package br.com.consultdg.credential_portals_service.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.consultdg.credential_portals_service.service.CipherPool;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+@Configuration
+public class CipherPoolMetricsConfig {
+
+    @Bean
+    public MeterBinder cipherPoolMetrics() {
+        CipherPool cipherPool = CipherPool.shared();
+        return registry -> {
+            FunctionCounter.builder("crypto.cipher.pool.requests", cipherPool, CipherPool::getHits)
+                .tag("result", "hit")
+                .description("Cipher reaproveitado do pool da thread")
+                .register(registry);
+            FunctionCounter.builder("crypto.cipher.pool.requests", cipherPool, CipherPool::getMisses)
+                .tag("result", "miss")
+                .description("Cipher criado no provedor (Cipher.getInstance)")
+                .register(registry);
+            FunctionCounter.builder("crypto.cipher.pool.initializations", cipherPool, CipherPool::getInitializations)
+                .description("Chamadas a Cipher.init feitas pelo pool")
+                .register(registry);
+        };
+    }
+}
@@ -0,0 +1,22 @@
+package br.com.consultdg.credential_portals_service.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import br.com.consultdg.credential_portals_service.service.InternalEncryptionService;
+import br.com.consultdg.credential_portals_service.service.InternalKeyRing;
+
+@Configuration
+public class InternalEncryptionConfig {
+
+    /**
+     * Chaves mestras da criptografia interna, carregadas uma única vez.
+     * Sem chaves configuradas, usa a chave fixa como versão 1.
+     */
+    @Bean
+    public InternalKeyRing internalKeyRing(@Value("${credentials.internal-encryption.keys:}") String keys,
+                                           @Value("${credentials.internal-encryption.active-key-id:1}") int activeKeyId) {
+        return keys.isBlank() ? InternalEncryptionService.defaultKeyRing() : InternalKeyRing.parse(keys, activeKeyId);
+    }
+}
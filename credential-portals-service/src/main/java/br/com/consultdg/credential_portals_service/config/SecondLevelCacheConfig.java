@@ -0,0 +1,84 @@
+package br.com.consultdg.credential_portals_service.config;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.OptionalLong;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+
+/**
+ * Cache de segundo nível do Hibernate (JCache sobre Caffeine) para {@code Credentials} e
+ * {@code ConsumerPublicKey}, com regiões declaradas aqui e limite de tamanho e expiração para cada uma.
+ * Uma região não declarada falha na inicialização, em vez de virar um cache sem limite.
+ * <p>
+ * As alterações feitas pela aplicação (inclusive os UPDATEs em lote dos repositórios) invalidam as
+ * entradas pelo próprio Hibernate; a expiração só limita por quanto tempo uma alteração feita direto
+ * no banco pode passar despercebida. A validade das chaves dos consumidores ({@code expiresAt})
+ * continua sendo conferida a cada leitura, nunca pelo cache.
+ */
+@Configuration
+public class SecondLevelCacheConfig {
+
+    public static final String CREDENTIALS_REGION = "credentials";
+    public static final String CONSUMER_PUBLIC_KEYS_REGION = "consumer-public-keys";
+    // Nomes padrão do Hibernate para as regiões do cache de consultas
+    public static final String QUERY_RESULTS_REGION = "default-query-results-region";
+    public static final String UPDATE_TIMESTAMPS_REGION = "default-update-timestamps-region";
+
+    // Um gerenciador por contexto (os testes mantêm vários contextos abertos na mesma JVM)
+    private static final AtomicInteger managers = new AtomicInteger();
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(
+            @Value("${credentials.second-level-cache.credentials.maximum-size:50000}") long credentialsMaximumSize,
+            @Value("${credentials.second-level-cache.credentials.expire-after-write:1h}") Duration credentialsExpireAfterWrite,
+            @Value("${credentials.second-level-cache.consumer-public-keys.maximum-size:1000}") long consumerKeysMaximumSize,
+            @Value("${credentials.second-level-cache.consumer-public-keys.expire-after-write:10m}") Duration consumerKeysExpireAfterWrite,
+            @Value("${credentials.second-level-cache.query-results.maximum-size:1000}") long queryResultsMaximumSize,
+            @Value("${credentials.second-level-cache.query-results.expire-after-write:5m}") Duration queryResultsExpireAfterWrite) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("hibernate-second-level-cache-" + managers.incrementAndGet()), getClass().getClassLoader());
+
+        cacheManager.createCache(CREDENTIALS_REGION, region(credentialsMaximumSize, credentialsExpireAfterWrite));
+        cacheManager.createCache(CONSUMER_PUBLIC_KEYS_REGION, region(consumerKeysMaximumSize, consumerKeysExpireAfterWrite));
+        cacheManager.createCache(QUERY_RESULTS_REGION, region(queryResultsMaximumSize, queryResultsExpireAfterWrite));
+        // Sem limite nem expiração: uma entrada por tabela, e perder uma delas liberaria consultas desatualizadas
+        cacheManager.createCache(UPDATE_TIMESTAMPS_REGION, region(-1, null));
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    private static CaffeineConfiguration<Object, Object> region(long maximumSize, Duration expireAfterWrite) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        // O Hibernate já guarda o estado desmontado da entidade; não há por que copiá-lo de novo
+        configuration.setStoreByValue(false);
+        configuration.setStatisticsEnabled(true);
+        if (maximumSize >= 0) {
+            configuration.setMaximumSize(OptionalLong.of(maximumSize));
+        }
+        if (expireAfterWrite != null) {
+            configuration.setExpireAfterWrite(OptionalLong.of(expireAfterWrite.toNanos()));
+        }
+        return configuration;
+    }
+}
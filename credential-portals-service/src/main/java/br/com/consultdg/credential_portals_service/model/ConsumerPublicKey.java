@@ -2,6 +2,9 @@ package br.com.consultdg.credential_portals_service.model;
 
 import jakarta.persistence.*;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.UuidGenerator;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -11,11 +14,16 @@ import java.util.UUID;
  * Cada consumidor autorizado possui uma chave pública registrada para receber senhas criptografadas.
  */
 @Entity
-@Table(name = "consumer_public_keys")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "consumer-public-keys")
+@Table(name = "consumer_public_keys", indexes = {
+    @Index(name = "idx_consumer_public_keys_fingerprint", columnList = "public_key_fingerprint"),
+    @Index(name = "idx_consumer_public_keys_active_created_at_id", columnList = "active, created_at, id")
+})
 public class ConsumerPublicKey {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidGenerator(algorithm = UuidV7Generator.class) // ordenado pelo tempo de criação
     @EqualsAndHashCode.Include
     @Column(name = "id", nullable = false, updatable = false)
     private UUID id;
@@ -29,6 +37,14 @@ public class ConsumerPublicKey {
     @Column(name = "public_key", nullable = false, columnDefinition = "TEXT")
     private String publicKey;
 
+    // Chave normalizada no registro (X.509/DER), lida diretamente ao carregar a chave
+    @Column(name = "public_key_der", length = 1024)
+    private byte[] publicKeyDer;
+
+    // SHA-256 do DER em hexadecimal, usado para localizar a chave e detectar duplicidade
+    @Column(name = "public_key_fingerprint", length = 64)
+    private String publicKeyFingerprint;
+
     @Column(name = "key_algorithm", nullable = false, length = 20)
     private String keyAlgorithm = "RSA";
 
@@ -103,6 +119,22 @@ public class ConsumerPublicKey {
         this.publicKey = publicKey;
     }
 
+    public byte[] getPublicKeyDer() {
+        return publicKeyDer;
+    }
+
+    public void setPublicKeyDer(byte[] publicKeyDer) {
+        this.publicKeyDer = publicKeyDer;
+    }
+
+    public String getPublicKeyFingerprint() {
+        return publicKeyFingerprint;
+    }
+
+    public void setPublicKeyFingerprint(String publicKeyFingerprint) {
+        this.publicKeyFingerprint = publicKeyFingerprint;
+    }
+
     public String getKeyAlgorithm() {
         return keyAlgorithm;
     }
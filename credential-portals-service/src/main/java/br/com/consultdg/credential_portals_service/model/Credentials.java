@@ -3,11 +3,16 @@ package br.com.consultdg.credential_portals_service.model;
 import java.time.LocalDateTime;
 import java.util.UUID;
 
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.DynamicUpdate;
+import org.hibernate.annotations.UuidGenerator;
+
+import jakarta.persistence.Cacheable;
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
-import jakarta.persistence.GeneratedValue;
-import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
 import jakarta.persistence.PrePersist;
 import jakarta.persistence.PreUpdate;
 import jakarta.persistence.Table;
@@ -15,11 +20,16 @@ import jakarta.persistence.Transient;
 import lombok.EqualsAndHashCode;
 
 @Entity
-@Table(name = "credentials")
+@DynamicUpdate // UPDATE apenas com as colunas alteradas
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "credentials")
+@Table(name = "credentials", indexes = {
+    @Index(name = "idx_credentials_active_created_at_id", columnList = "active, created_at, id")
+})
 public class Credentials {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.AUTO)
+    @UuidGenerator(algorithm = UuidV7Generator.class) // ordenado pelo tempo de criação
     @EqualsAndHashCode.Include
     @Column(name = "id", nullable = false, updatable = false)
     private UUID id;
@@ -57,9 +67,16 @@ public class Credentials {
     @Column(name = "password_of_invoice", nullable = true, length = 255)
     private String passwordOfInvoice;
 
+    // Valor da coluna password enquanto o hash BCrypt é calculado em segundo plano
+    public static final String PENDING_PASSWORD_HASH = "{bcrypt-pending}";
+
     @Transient
     private boolean passwordChanged = false;
 
+    // Recriptografia da senha interna ou novo hash da mesma senha: não altera a credencial, então não atualiza updatedAt
+    @Transient
+    private boolean contentUnchanged = false;
+
     @PrePersist
     protected void onCreate() {
         this.createdAt = LocalDateTime.now();
@@ -68,7 +85,9 @@ public class Credentials {
 
     @PreUpdate
     protected void onUpdate() {
-        this.updatedAt = LocalDateTime.now();
+        if (!this.contentUnchanged) {
+            this.updatedAt = LocalDateTime.now();
+        }
     }
 
     // Getters and Setters
@@ -139,6 +158,25 @@ public class Credentials {
         this.originalPasswordEncrypted = originalPasswordEncrypted;
     }
 
+    /**
+     * Substitui a senha interna pela mesma senha criptografada com outra chave.
+     * Como o conteúdo não muda, a data de atualização é preservada.
+     */
+    public void reEncryptOriginalPassword(String originalPasswordEncrypted) {
+        this.originalPasswordEncrypted = originalPasswordEncrypted;
+        this.contentUnchanged = true;
+    }
+
+    /**
+     * Substitui o hash BCrypt por outro da mesma senha (hash calculado em segundo plano ou com
+     * outro custo). Como a senha não muda, a data de atualização é preservada.
+     */
+    public void replacePasswordHash(String passwordHash) {
+        this.password = passwordHash;
+        this.passwordChanged = false;
+        this.contentUnchanged = true;
+    }
+
     public LocalDateTime getCreatedAt() {
         return createdAt;
     }
@@ -202,4 +240,20 @@ public class Credentials {
     public void markPasswordAsProcessed() {
         this.passwordChanged = false;
     }
+
+    /**
+     * Marca a senha como processada com o hash BCrypt pendente; a coluna password recebe
+     * {@link #PENDING_PASSWORD_HASH} até o {@code PasswordHashQueue} gravar o hash.
+     */
+    public void markPasswordHashPending() {
+        this.password = PENDING_PASSWORD_HASH;
+        this.passwordChanged = false;
+    }
+
+    /**
+     * Verifica se o hash BCrypt da senha ainda está sendo calculado.
+     */
+    public boolean isPasswordHashPending() {
+        return PENDING_PASSWORD_HASH.equals(this.password);
+    }
 }
@@ -0,0 +1,97 @@
+package br.com.consultdg.credential_portals_service.model;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Chave de dados AES usada na criptografia interna das senhas (criptografia envelope).
+ * A chave só é armazenada protegida pela chave mestra; trocar a chave mestra exige apenas
+ * proteger novamente as linhas desta tabela.
+ */
+@Entity
+@Table(name = "data_keys")
+public class DataKey {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.AUTO)
+    @EqualsAndHashCode.Include
+    @Column(name = "id", nullable = false, updatable = false)
+    private UUID id;
+
+    // Chave de dados criptografada com a chave mestra, no formato v<versão>:Base64(...)
+    @Column(name = "wrapped_key", nullable = false, length = 255)
+    private String wrappedKey;
+
+    // Versão da chave mestra que protege a chave de dados
+    @Column(name = "master_key_version", nullable = false)
+    private Integer masterKeyVersion;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.createdAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public DataKey() {}
+
+    public DataKey(String wrappedKey, Integer masterKeyVersion) {
+        this.wrappedKey = wrappedKey;
+        this.masterKeyVersion = masterKeyVersion;
+    }
+
+    // Getters and Setters
+    public UUID getId() {
+        return id;
+    }
+
+    public void setId(UUID id) {
+        this.id = id;
+    }
+
+    public String getWrappedKey() {
+        return wrappedKey;
+    }
+
+    public void setWrappedKey(String wrappedKey) {
+        this.wrappedKey = wrappedKey;
+    }
+
+    public Integer getMasterKeyVersion() {
+        return masterKeyVersion;
+    }
+
+    public void setMasterKeyVersion(Integer masterKeyVersion) {
+        this.masterKeyVersion = masterKeyVersion;
+    }
+
+    public LocalDateTime getCreatedAt() {
+        return createdAt;
+    }
+
+    public void setCreatedAt(LocalDateTime createdAt) {
+        this.createdAt = createdAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,117 @@
+package br.com.consultdg.credential_portals_service.model;
+
+import jakarta.persistence.*;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Progresso da recriptografia das senhas internas para uma versão de chave.
+ * Gravado junto com cada lote, permite retomar o processo do ponto em que parou.
+ */
+@Entity
+@Table(name = "re_encryption_checkpoints")
+public class ReEncryptionCheckpoint {
+
+    @Id
+    @Column(name = "target_key_version", nullable = false, updatable = false)
+    private Integer targetKeyVersion;
+
+    // Última credencial processada, na ordem do identificador
+    @Column(name = "last_credential_id")
+    private UUID lastCredentialId;
+
+    @Column(name = "processed_count", nullable = false)
+    private Long processedCount = 0L;
+
+    @Column(name = "failed_count", nullable = false)
+    private Long failedCount = 0L;
+
+    @Column(name = "started_at", nullable = false, updatable = false)
+    private LocalDateTime startedAt;
+
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        this.startedAt = LocalDateTime.now();
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    @PreUpdate
+    protected void onUpdate() {
+        this.updatedAt = LocalDateTime.now();
+    }
+
+    // Constructors
+    public ReEncryptionCheckpoint() {}
+
+    public ReEncryptionCheckpoint(Integer targetKeyVersion) {
+        this.targetKeyVersion = targetKeyVersion;
+    }
+
+    // Getters and Setters
+    public Integer getTargetKeyVersion() {
+        return targetKeyVersion;
+    }
+
+    public void setTargetKeyVersion(Integer targetKeyVersion) {
+        this.targetKeyVersion = targetKeyVersion;
+    }
+
+    public UUID getLastCredentialId() {
+        return lastCredentialId;
+    }
+
+    public void setLastCredentialId(UUID lastCredentialId) {
+        this.lastCredentialId = lastCredentialId;
+    }
+
+    public Long getProcessedCount() {
+        return processedCount;
+    }
+
+    public void setProcessedCount(Long processedCount) {
+        this.processedCount = processedCount;
+    }
+
+    public Long getFailedCount() {
+        return failedCount;
+    }
+
+    public void setFailedCount(Long failedCount) {
+        this.failedCount = failedCount;
+    }
+
+    public LocalDateTime getStartedAt() {
+        return startedAt;
+    }
+
+    public void setStartedAt(LocalDateTime startedAt) {
+        this.startedAt = startedAt;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+
+    public LocalDateTime getCompletedAt() {
+        return completedAt;
+    }
+
+    public void setCompletedAt(LocalDateTime completedAt) {
+        this.completedAt = completedAt;
+    }
+
+    public boolean isCompleted() {
+        return completedAt != null;
+    }
+}
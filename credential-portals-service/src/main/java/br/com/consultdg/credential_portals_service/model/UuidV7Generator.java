@@ -0,0 +1,66 @@
+package br.com.consultdg.credential_portals_service.model;
+
+import java.security.SecureRandom;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.uuid.UuidValueGenerator;
+
+/**
+ * Gera UUIDs versão 7 (RFC 9562): os 48 bits iniciais são o instante em milissegundos, seguidos
+ * de um contador de 12 bits e 62 bits aleatórios.
+ * <p>
+ * Como o início do valor cresce com o tempo, as inserções vão para o fim do índice clusterizado do
+ * InnoDB ({@code BINARY(16)}, na ordem dos bytes) em vez de espalhadas pelas páginas, como acontece
+ * com os UUIDs aleatórios (versão 4). Os valores gerados por esta JVM são estritamente crescentes:
+ * no mesmo milissegundo o contador avança, e se o relógio voltar o último instante é mantido.
+ * <p>
+ * Uso nas entidades: {@code @UuidGenerator(algorithm = UuidV7Generator.class)}.
+ */
+public class UuidV7Generator implements UuidValueGenerator {
+
+    private static final SecureRandom random = new SecureRandom();
+
+    // Último valor gerado: instante em milissegundos (48 bits) seguido do contador (12 bits)
+    private static final AtomicLong lastTimestampAndCounter = new AtomicLong();
+
+    @Override
+    public UUID generateUuid(SharedSessionContractImplementor session) {
+        return next();
+    }
+
+    /**
+     * Próximo UUID versão 7.
+     */
+    public static UUID next() {
+        long timestampAndCounter = nextTimestampAndCounter(System.currentTimeMillis());
+        long mostSignificantBits = (timestampAndCounter >>> 12) << 16 // unix_ts_ms
+                | 0x7000L                                               // versão
+                | (timestampAndCounter & 0x0FFFL);                      // rand_a (contador)
+        long leastSignificantBits = (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L; // variante RFC
+        return new UUID(mostSignificantBits, leastSignificantBits);
+    }
+
+    /**
+     * Instante em milissegundos de um UUID versão 7.
+     */
+    public static long timestampOf(UUID uuid) {
+        if (uuid.version() != 7) {
+            throw new IllegalArgumentException("UUID não é da versão 7: " + uuid);
+        }
+        return uuid.getMostSignificantBits() >>> 16;
+    }
+
+    private static long nextTimestampAndCounter(long currentTimeMillis) {
+        long candidate = currentTimeMillis << 12;
+        while (true) {
+            long last = lastTimestampAndCounter.get();
+            // Mesmo milissegundo ou relógio atrasado: segue do último valor (o contador estoura para o próximo ms)
+            long next = candidate > last ? candidate : last + 1;
+            if (lastTimestampAndCounter.compareAndSet(last, next)) {
+                return next;
+            }
+        }
+    }
+}
@@ -1,11 +1,16 @@
 package br.com.consultdg.credential_portals_service.repository;
 
 import br.com.consultdg.credential_portals_service.model.ConsumerPublicKey;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,10 +23,12 @@ public interface ConsumerPublicKeyRepository extends JpaRepository<ConsumerPubli
 
     /**
      * Busca uma chave pública por identificador do consumidor.
+     * O resultado fica no cache de consultas até a próxima alteração na tabela.
      * 
      * @param consumerIdentifier O identificador único do consumidor
      * @return Optional contendo a chave pública se encontrada
      */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT cpk FROM ConsumerPublicKey cpk WHERE cpk.consumerIdentifier = :consumerIdentifier AND cpk.active = true")
     Optional<ConsumerPublicKey> findByConsumerIdentifierAndActive(@Param("consumerIdentifier") String consumerIdentifier);
 
@@ -33,6 +40,32 @@ public interface ConsumerPublicKeyRepository extends JpaRepository<ConsumerPubli
     @Query("SELECT cpk FROM ConsumerPublicKey cpk WHERE cpk.active = true")
     List<ConsumerPublicKey> findAllActive();
 
+    /**
+     * Primeira página das chaves públicas ativas, em ordem de (createdAt, id).
+     */
+    @Query("SELECT cpk FROM ConsumerPublicKey cpk WHERE cpk.active = true ORDER BY cpk.createdAt, cpk.id")
+    List<ConsumerPublicKey> findActivePage(Limit limit);
+
+    /**
+     * Página seguinte à posição (createdAt, id) informada, em ordem crescente.
+     */
+    @Query("SELECT cpk FROM ConsumerPublicKey cpk WHERE cpk.active = true " +
+           "AND (cpk.createdAt > :createdAt OR (cpk.createdAt = :createdAt AND cpk.id > :id)) ORDER BY cpk.createdAt, cpk.id")
+    List<ConsumerPublicKey> findActivePageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
+
+    /**
+     * Primeira página das chaves públicas ativas, em ordem decrescente de (createdAt, id).
+     */
+    @Query("SELECT cpk FROM ConsumerPublicKey cpk WHERE cpk.active = true ORDER BY cpk.createdAt DESC, cpk.id DESC")
+    List<ConsumerPublicKey> findActivePageDesc(Limit limit);
+
+    /**
+     * Página seguinte à posição (createdAt, id) informada, em ordem decrescente.
+     */
+    @Query("SELECT cpk FROM ConsumerPublicKey cpk WHERE cpk.active = true " +
+           "AND (cpk.createdAt < :createdAt OR (cpk.createdAt = :createdAt AND cpk.id < :id)) ORDER BY cpk.createdAt DESC, cpk.id DESC")
+    List<ConsumerPublicKey> findActivePageBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
+
     /**
      * Busca chaves públicas por nome do consumidor.
      * 
@@ -60,10 +93,34 @@ public interface ConsumerPublicKeyRepository extends JpaRepository<ConsumerPubli
 
     /**
      * Busca chave pública válida por identificador do consumidor.
+     * Fora do cache de consultas: o resultado depende do horário ({@code expiresAt}), não só da tabela.
      * 
      * @param consumerIdentifier O identificador único do consumidor
      * @return Optional contendo a chave pública válida se encontrada
      */
     @Query("SELECT cpk FROM ConsumerPublicKey cpk WHERE cpk.consumerIdentifier = :consumerIdentifier AND cpk.active = true AND (cpk.expiresAt IS NULL OR cpk.expiresAt > CURRENT_TIMESTAMP)")
     Optional<ConsumerPublicKey> findValidKeyByConsumerIdentifier(@Param("consumerIdentifier") String consumerIdentifier);
+
+    /**
+     * Busca uma chave pública pela impressão digital SHA-256 do DER.
+     * 
+     * @param publicKeyFingerprint Impressão digital em hexadecimal
+     * @return Optional contendo a chave pública se encontrada
+     */
+    Optional<ConsumerPublicKey> findFirstByPublicKeyFingerprintAndActive(String publicKeyFingerprint, Boolean active);
+
+    /**
+     * Verifica se existe uma chave ativa com a impressão digital informada.
+     * 
+     * @param publicKeyFingerprint Impressão digital em hexadecimal
+     * @return true se existe, false caso contrário
+     */
+    boolean existsByPublicKeyFingerprintAndActive(String publicKeyFingerprint, Boolean active);
+
+    /**
+     * Busca as chaves ainda sem DER e impressão digital (registradas antes da normalização).
+     * 
+     * @return Lista de chaves a normalizar
+     */
+    List<ConsumerPublicKey> findByPublicKeyFingerprintIsNull();
 }
@@ -1,27 +1,186 @@
 package br.com.consultdg.credential_portals_service.repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import br.com.consultdg.credential_portals_service.api.model.CredentialsResponseDTO;
 import br.com.consultdg.credential_portals_service.model.Credentials;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
 
 @Repository
 public interface CredentialsRepository extends JpaRepository<Credentials, UUID> {
 
+    /**
+     * Início das consultas de listagem: seleciona só as colunas de {@link CredentialsResponseDTO}, sem
+     * as senhas. O resultado não é entidade, então não entra no contexto de persistência.
+     */
+    String RESPONSE_PROJECTION = "SELECT new br.com.consultdg.credential_portals_service.api.model.CredentialsResponseDTO(" +
+            "c.id, c.nameMall, c.cnpj, c.urlPortal, c.username, c.passwordOfInvoice, " +
+            "c.createdAt, c.updatedAt, c.deletedAt, c.active) FROM Credentials c ";
+
+    /**
+     * Credenciais ativas completas (listagens dos robôs). O resultado fica no cache de consultas e as
+     * entidades no cache de segundo nível, até a próxima alteração na tabela.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT c FROM Credentials c WHERE c.active = true")
     List<Credentials> findAllActive();
 
-    @Query("SELECT c FROM Credentials c WHERE c.cnpj = :cnpj AND c.active = true")
-    Optional<Credentials> findByCnpjAndActive(@Param("cnpj") String cnpj);
+    /**
+     * Credenciais ativas para a listagem, sem as colunas de senha.
+     */
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "WHERE c.active = true")
+    List<CredentialsResponseDTO> findAllActiveResponses();
+
+    /**
+     * Credenciais ativas lidas sob demanda, para respostas em fluxo. Exige uma transação aberta
+     * durante o consumo; no MySQL, o fetch size só é respeitado com {@code useCursorFetch=true}.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT c FROM Credentials c WHERE c.active = true ORDER BY c.id")
+    Stream<Credentials> streamAllActive();
+
+    /**
+     * Primeira página das credenciais ativas, em ordem de (createdAt, id).
+     */
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "WHERE c.active = true ORDER BY c.createdAt, c.id")
+    List<CredentialsResponseDTO> findActivePage(Limit limit);
+
+    /**
+     * Página seguinte à posição (createdAt, id) informada, em ordem crescente.
+     */
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "WHERE c.active = true " +
+           "AND (c.createdAt > :createdAt OR (c.createdAt = :createdAt AND c.id > :id)) ORDER BY c.createdAt, c.id")
+    List<CredentialsResponseDTO> findActivePageAfter(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
+
+    /**
+     * Primeira página das credenciais ativas, em ordem decrescente de (createdAt, id).
+     */
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "WHERE c.active = true ORDER BY c.createdAt DESC, c.id DESC")
+    List<CredentialsResponseDTO> findActivePageDesc(Limit limit);
+
+    /**
+     * Página seguinte à posição (createdAt, id) informada, em ordem decrescente.
+     */
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "WHERE c.active = true " +
+           "AND (c.createdAt < :createdAt OR (c.createdAt = :createdAt AND c.id < :id)) ORDER BY c.createdAt DESC, c.id DESC")
+    List<CredentialsResponseDTO> findActivePageBefore(@Param("createdAt") LocalDateTime createdAt, @Param("id") UUID id, Limit limit);
+
+    /**
+     * Identificador e data de atualização das credenciais ativas, para calcular a versão da listagem
+     * sem carregar as entidades.
+     */
+    @Query("SELECT c.id, c.updatedAt FROM Credentials c WHERE c.active = true ORDER BY c.id")
+    List<Object[]> findActiveVersions();
+
+    /**
+     * Próximo lote, em ordem de identificador, de credenciais cuja senha interna não está na versão
+     * de chave informada. As linhas ficam bloqueadas até o fim da transação do lote.
+     *
+     * @param lastId Última credencial já processada
+     * @param currentVersionPrefix Padrão LIKE do prefixo da versão atual (ex.: "v2:%")
+     * @param limit Tamanho do lote
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "100"))
+    @Query("SELECT c FROM Credentials c WHERE c.id > :lastId AND c.originalPasswordEncrypted IS NOT NULL " +
+           "AND c.originalPasswordEncrypted NOT LIKE :currentVersionPrefix ORDER BY c.id")
+    Stream<Credentials> streamForReEncryption(@Param("lastId") UUID lastId,
+                                             @Param("currentVersionPrefix") String currentVersionPrefix,
+                                             Limit limit);
+
+    /**
+     * Quantidade de senhas internas fora do formato informado.
+     */
+    long countByOriginalPasswordEncryptedNotLike(String currentVersionPrefix);
+
+    /**
+     * Credencial bloqueada até o fim da transação, para alterações condicionais.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM Credentials c WHERE c.id = :id")
+    Optional<Credentials> findByIdForUpdate(@Param("id") UUID id);
+
+    /**
+     * Grava o hash BCrypt calculado em segundo plano, desde que a senha não tenha sido alterada
+     * depois do agendamento. Não altera updatedAt.
+     * <p>
+     * A alteração passa pela entidade, e não por um UPDATE em lote, para que o cache de segundo
+     * nível atualize apenas esta credencial em vez de esvaziar a região inteira.
+     *
+     * @return Quantidade de linhas atualizadas (0 se a senha mudou ou o hash já foi gravado)
+     */
+    @Transactional
+    default int completePasswordHash(UUID id, String originalPasswordEncrypted, String passwordHash) {
+        return findByIdForUpdate(id)
+                .filter(credential -> credential.isPasswordHashPending()
+                        && originalPasswordEncrypted.equals(credential.getOriginalPasswordEncrypted()))
+                .map(credential -> {
+                    credential.replacePasswordHash(passwordHash);
+                    return 1;
+                })
+                .orElse(0);
+    }
+
+    /**
+     * Troca o hash BCrypt por outro da mesma senha (ex.: com outro custo), desde que o hash
+     * atual não tenha mudado. Não altera updatedAt nem esvazia o cache de segundo nível.
+     *
+     * @return Quantidade de linhas atualizadas
+     */
+    @Transactional
+    default int replacePasswordHash(UUID id, String currentHash, String newHash) {
+        return findByIdForUpdate(id)
+                .filter(credential -> currentHash.equals(credential.getPassword()))
+                .map(credential -> {
+                    credential.replacePasswordHash(newHash);
+                    return 1;
+                })
+                .orElse(0);
+    }
+
+    /**
+     * Quantidade de hashes BCrypt por custo (os dois dígitos após {@code $2a$}).
+     */
+    @Query("SELECT SUBSTRING(c.password, 5, 2), COUNT(c) FROM Credentials c " +
+           "WHERE c.password LIKE '$2%' GROUP BY SUBSTRING(c.password, 5, 2)")
+    List<Object[]> countPasswordHashesByCost();
+
+    /**
+     * Credenciais com o hash BCrypt ainda pendente, retomadas na inicialização.
+     */
+    @Query("SELECT c FROM Credentials c WHERE c.password = '" + Credentials.PENDING_PASSWORD_HASH + "'")
+    List<Credentials> findWithPendingPasswordHash();
+
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "WHERE c.cnpj = :cnpj AND c.active = true")
+    Optional<CredentialsResponseDTO> findByCnpjAndActive(@Param("cnpj") String cnpj);
 
-    @Query("SELECT c FROM Credentials c WHERE c.nameMall = :nameMall AND c.active = true")
-    List<Credentials> findByNameMallAndActive(@Param("nameMall") String nameMall);
+    @Transactional(readOnly = true)
+    @Query(RESPONSE_PROJECTION + "WHERE c.nameMall = :nameMall AND c.active = true")
+    List<CredentialsResponseDTO> findByNameMallAndActive(@Param("nameMall") String nameMall);
 
     @Query("SELECT c FROM Credentials c WHERE c.username = :username AND c.active = true")
     Optional<Credentials> findByUsernameAndActive(@Param("username") String username);
@@ -0,0 +1,26 @@
+package br.com.consultdg.credential_portals_service.repository;
+
+import br.com.consultdg.credential_portals_service.model.DataKey;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * Repositório das chaves de dados da criptografia envelope.
+ */
+@Repository
+public interface DataKeyRepository extends JpaRepository<DataKey, UUID> {
+
+    /**
+     * Chave de dados criada mais recentemente, candidata a continuar ativa.
+     */
+    Optional<DataKey> findFirstByOrderByCreatedAtDesc();
+
+    /**
+     * Chaves de dados protegidas por uma versão da chave mestra diferente da informada.
+     */
+    List<DataKey> findByMasterKeyVersionNot(Integer masterKeyVersion);
+}
@@ -0,0 +1,12 @@
+package br.com.consultdg.credential_portals_service.repository;
+
+import br.com.consultdg.credential_portals_service.model.ReEncryptionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repositório do progresso da recriptografia, indexado pela versão de chave de destino.
+ */
+@Repository
+public interface ReEncryptionCheckpointRepository extends JpaRepository<ReEncryptionCheckpoint, Integer> {
+}
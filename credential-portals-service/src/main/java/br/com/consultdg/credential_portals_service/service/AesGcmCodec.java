@@ -0,0 +1,89 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Formato {@code <cabeçalho>Base64(IV || texto cifrado || tag)} com AES-GCM, usado na criptografia interna.
+ * O cabeçalho identifica a chave e é autenticado como AAD, então não pode ser trocado sem invalidar a tag.
+ */
+final class AesGcmCodec {
+
+    static final String TRANSFORMATION = "AES/GCM/NoPadding";
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private static final SecureRandom SECURE_RANDOM = new SecureRandom();
+    private static final CipherPool CIPHER_POOL = CipherPool.shared();
+
+    private AesGcmCodec() {
+    }
+
+    static String seal(String header, SecretKey key, byte[] plainBytes) throws GeneralSecurityException {
+        return seal(header, key, ByteBuffer.wrap(plainBytes));
+    }
+
+    /**
+     * Criptografa o conteúdo restante do buffer, que pode ser direto (ex.: {@link SecretBuffer#contents()}).
+     */
+    static String seal(String header, SecretKey key, ByteBuffer plain) throws GeneralSecurityException {
+        byte[] iv = new byte[IV_LENGTH];
+        SECURE_RANDOM.nextBytes(iv);
+
+        byte[] payload = CIPHER_POOL.execute(TRANSFORMATION, cipher -> {
+            cipher.init(Cipher.ENCRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+            cipher.updateAAD(header.getBytes(StandardCharsets.US_ASCII));
+
+            byte[] output = new byte[IV_LENGTH + cipher.getOutputSize(plain.remaining())];
+            System.arraycopy(iv, 0, output, 0, IV_LENGTH);
+            cipher.doFinal(plain, ByteBuffer.wrap(output, IV_LENGTH, output.length - IV_LENGTH));
+            return output;
+        });
+        return header + Base64.getEncoder().encodeToString(payload);
+    }
+
+    static byte[] open(String header, SecretKey key, String value) throws GeneralSecurityException {
+        byte[] payload = Base64.getDecoder().decode(value.substring(header.length()));
+        if (payload.length <= IV_LENGTH) {
+            throw new IllegalArgumentException("Valor criptografado incompleto");
+        }
+
+        return CIPHER_POOL.execute(TRANSFORMATION, cipher -> {
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, payload, 0, IV_LENGTH));
+            cipher.updateAAD(header.getBytes(StandardCharsets.US_ASCII));
+            return cipher.doFinal(payload, IV_LENGTH, payload.length - IV_LENGTH);
+        });
+    }
+
+    /**
+     * Como {@link #open(String, SecretKey, String)}, mas descriptografa direto em um {@link SecretBuffer}.
+     */
+    static SecretBuffer openToBuffer(String header, SecretKey key, String value) throws GeneralSecurityException {
+        byte[] payload = Base64.getDecoder().decode(value.substring(header.length()));
+        if (payload.length <= IV_LENGTH) {
+            throw new IllegalArgumentException("Valor criptografado incompleto");
+        }
+
+        return CIPHER_POOL.execute(TRANSFORMATION, cipher -> {
+            cipher.init(Cipher.DECRYPT_MODE, key, new GCMParameterSpec(TAG_LENGTH_BITS, payload, 0, IV_LENGTH));
+            cipher.updateAAD(header.getBytes(StandardCharsets.US_ASCII));
+
+            ByteBuffer encrypted = ByteBuffer.wrap(payload, IV_LENGTH, payload.length - IV_LENGTH);
+            SecretBuffer plain = SecretBuffer.allocate(cipher.getOutputSize(encrypted.remaining()));
+            try {
+                cipher.doFinal(encrypted, plain.buffer());
+                plain.buffer().flip();
+                return plain;
+            } catch (GeneralSecurityException | RuntimeException e) {
+                plain.close();
+                throw e;
+            }
+        });
+    }
+}
@@ -0,0 +1,132 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Executa as verificações BCrypt de um lote em um pool dedicado e limitado, entregando cada
+ * resultado assim que fica pronto.
+ * <p>
+ * Cada lote tem no máximo {@code max-in-flight} verificações agendadas ao mesmo tempo, para que
+ * um lote grande não ocupe a fila inteira, e o tamanho do lote é limitado por {@code max-batch-size}.
+ * Com a fila cheia, a verificação roda na thread chamadora.
+ */
+@Component
+public class BatchPasswordVerifier {
+
+    private final int maxBatchSize;
+    private final int maxInFlight;
+    private final ThreadPoolExecutor executor;
+
+    private volatile Timer batchTimer;
+
+    public BatchPasswordVerifier(@Value("${credentials.password-verify.pool-size:0}") int poolSize,
+                                 @Value("${credentials.password-verify.queue-capacity:1000}") int queueCapacity,
+                                 @Value("${credentials.password-verify.max-batch-size:1000}") int maxBatchSize,
+                                 @Value("${credentials.password-verify.max-in-flight:0}") int maxInFlight) {
+        // Por padrão metade dos núcleos, como o pool de hashes, para o BCrypt não disputar todos com as requisições
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.maxBatchSize = Math.max(1, maxBatchSize);
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : threads * 2;
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "password-verify-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Autowired(required = false)
+    void bindMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("credentials.password-verify.queue.depth", executor.getQueue(), BlockingQueue::size)
+                .description("Verificações de senha em lote aguardando uma thread do pool")
+                .register(meterRegistry);
+        batchTimer = Timer.builder("credentials.password-verify.batch.duration")
+                .description("Tempo de verificação de um lote de senhas")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Valida o tamanho do lote antes de iniciar a resposta.
+     *
+     * @throws IllegalArgumentException se o lote estiver vazio ou exceder o limite
+     */
+    public void checkBatchSize(int size) {
+        if (size == 0) {
+            throw new IllegalArgumentException("Lote de verificação vazio");
+        }
+        if (size > maxBatchSize) {
+            throw new IllegalArgumentException("Lote com " + size + " itens excede o limite de " + maxBatchSize);
+        }
+    }
+
+    /**
+     * Executa as verificações em paralelo e entrega cada resultado na ordem em que termina.
+     * O {@code onResult} é chamado sempre na thread chamadora. Se ele falhar (ex.: cliente
+     * desconectado), as verificações restantes são canceladas.
+     *
+     * @param verifications Verificações do lote; falhas por item devem ser tratadas dentro delas
+     * @param onResult Destino de cada resultado
+     */
+    public <T> void forEachCompleted(List<Callable<T>> verifications, Consumer<T> onResult) {
+        checkBatchSize(verifications.size());
+        long start = System.nanoTime();
+        CompletionService<T> completionService = new ExecutorCompletionService<>(executor);
+        List<Future<T>> futures = new ArrayList<>(verifications.size());
+        int completed = 0;
+        try {
+            while (completed < verifications.size()) {
+                while (futures.size() < verifications.size() && futures.size() - completed < maxInFlight) {
+                    futures.add(completionService.submit(verifications.get(futures.size())));
+                }
+                T result = completionService.take().get();
+                completed++;
+                onResult.accept(result);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Verificação de senhas em lote interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro na verificação de senhas em lote: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            futures.forEach(future -> future.cancel(true)); // Sem efeito nas já concluídas
+            if (batchTimer != null) {
+                batchTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public int getMaxInFlight() {
+        return maxInFlight;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,224 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Motor de criptografia em lote. Divide a lista em blocos e os processa em paralelo
+ * em um pool dedicado e limitado, preservando a ordem original dos itens.
+ * <p>
+ * A thread chamadora sempre participa do processamento; as threads auxiliares do pool
+ * são limitadas por consumidor, para que um único consumidor não ocupe o pool inteiro.
+ * A fila do pool também é limitada: com ela cheia, a thread chamadora executa a tarefa.
+ */
+@Component
+public class BulkEncryptionEngine {
+
+    /**
+     * Operação aplicada a cada item do lote.
+     */
+    @FunctionalInterface
+    public interface ItemMapper<S, T> {
+        T map(S item) throws Exception;
+    }
+
+    /**
+     * Tratamento de erro de um item. O valor retornado ocupa a posição do item no resultado.
+     */
+    @FunctionalInterface
+    public interface ItemErrorHandler<S, T> {
+        T onError(S item, Exception error);
+    }
+
+    private final int poolSize;
+    private final int maxParallelismPerConsumer;
+    private final int chunkSize;
+    private final ExecutorService executor;
+    private final ConcurrentMap<String, Semaphore> consumerPermits = new ConcurrentHashMap<>();
+
+    public BulkEncryptionEngine(
+            @Value("${credentials.bulk-encryption.pool-size:0}") int poolSize,
+            @Value("${credentials.bulk-encryption.max-parallelism-per-consumer:4}") int maxParallelismPerConsumer,
+            @Value("${credentials.bulk-encryption.chunk-size:32}") int chunkSize,
+            @Value("${credentials.bulk-encryption.queue-capacity:256}") int queueCapacity) {
+        this.poolSize = poolSize > 0 ? poolSize : Runtime.getRuntime().availableProcessors();
+        this.maxParallelismPerConsumer = Math.max(1, maxParallelismPerConsumer);
+        this.chunkSize = Math.max(1, chunkSize);
+
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(this.poolSize, this.poolSize, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "bulk-encryption-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * Aplica a operação a todos os itens, em paralelo, mantendo a ordem de entrada.
+     * Uma falha em um item não interrompe o lote: o tratador de erro define o valor daquela posição.
+     *
+     * @param consumerIdentifier Consumidor dono da requisição, usado para limitar o paralelismo
+     * @param items Itens a processar
+     * @param mapper Operação aplicada a cada item
+     * @param errorHandler Tratamento de erro por item
+     * @return Resultados na mesma ordem dos itens
+     */
+    public <S, T> List<T> map(String consumerIdentifier, List<S> items,
+                              ItemMapper<S, T> mapper, ItemErrorHandler<S, T> errorHandler) {
+        int size = items.size();
+        Object[] results = new Object[size];
+        int chunkCount = (size + chunkSize - 1) / chunkSize;
+        AtomicInteger nextChunk = new AtomicInteger();
+        Runnable worker = () -> {
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < chunkCount) {
+                int end = Math.min(size, (chunk + 1) * chunkSize);
+                for (int i = chunk * chunkSize; i < end; i++) {
+                    results[i] = mapItem(items.get(i), mapper, errorHandler);
+                }
+            }
+        };
+
+        Semaphore permits = permitsOf(consumerIdentifier);
+        int helpers = 0;
+        int wantedHelpers = Math.min(chunkCount, maxParallelismPerConsumer) - 1;
+        while (helpers < wantedHelpers && permits.tryAcquire()) {
+            helpers++;
+        }
+
+        List<AtomicBoolean> claims = new ArrayList<>(helpers);
+        List<Future<?>> futures = new ArrayList<>(helpers);
+        try {
+            for (int i = 0; i < helpers; i++) {
+                AtomicBoolean claim = new AtomicBoolean();
+                claims.add(claim);
+                futures.add(executor.submit(() -> {
+                    if (claim.compareAndSet(false, true)) {
+                        worker.run();
+                    }
+                }));
+            }
+            worker.run();
+            for (int i = 0; i < helpers; i++) {
+                // Auxiliares que ainda não começaram são descartados; os demais precisam terminar
+                if (!claims.get(i).compareAndSet(false, true)) {
+                    futures.get(i).get();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futures.forEach(future -> future.cancel(true));
+            throw new IllegalStateException("Criptografia em lote interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro na criptografia em lote: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            permits.release(helpers);
+        }
+
+        @SuppressWarnings("unchecked")
+        List<T> ordered = (List<T>) Arrays.asList(results);
+        return ordered;
+    }
+
+    /**
+     * Aplica a operação aos itens de um fluxo, em paralelo, entregando os resultados na ordem de
+     * entrada assim que ficam prontos. Só uma janela limitada de itens fica em processamento, então
+     * a memória usada não depende do tamanho do fluxo. A thread chamadora lê os itens e entrega os
+     * resultados; sem threads auxiliares disponíveis para o consumidor, processa ela mesma.
+     * Resultados nulos (itens descartados pelo tratador de erro) não são entregues.
+     *
+     * @param consumerIdentifier Consumidor dono da requisição, usado para limitar o paralelismo
+     * @param items Itens a processar, lidos sob demanda
+     * @param mapper Operação aplicada a cada item
+     * @param errorHandler Tratamento de erro por item
+     * @param sink Destino dos resultados, chamado na thread chamadora
+     */
+    public <S, T> void forEachOrdered(String consumerIdentifier, Iterator<S> items, ItemMapper<S, T> mapper,
+                                      ItemErrorHandler<S, T> errorHandler, Consumer<? super T> sink) {
+        Semaphore permits = permitsOf(consumerIdentifier);
+        int helpers = 0;
+        while (helpers < maxParallelismPerConsumer - 1 && permits.tryAcquire()) {
+            helpers++;
+        }
+
+        Deque<Future<T>> inFlight = new ArrayDeque<>(Math.max(1, helpers));
+        try {
+            while (items.hasNext()) {
+                S item = items.next();
+                if (helpers == 0) {
+                    deliver(mapItem(item, mapper, errorHandler), sink);
+                    continue;
+                }
+                if (inFlight.size() == helpers) {
+                    deliver(inFlight.poll().get(), sink);
+                }
+                inFlight.add(executor.submit(() -> mapItem(item, mapper, errorHandler)));
+            }
+            while (!inFlight.isEmpty()) {
+                deliver(inFlight.poll().get(), sink);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Criptografia em fluxo interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro na criptografia em fluxo: " + e.getCause().getMessage(), e.getCause());
+        } finally {
+            // Após uma falha (ex.: cliente desconectado), descarta o que ainda está na janela
+            inFlight.forEach(future -> future.cancel(true));
+            permits.release(helpers);
+        }
+    }
+
+    private static <T> void deliver(T result, Consumer<? super T> sink) {
+        if (result != null) {
+            sink.accept(result);
+        }
+    }
+
+    private Semaphore permitsOf(String consumerIdentifier) {
+        return consumerPermits.computeIfAbsent(String.valueOf(consumerIdentifier),
+                key -> new Semaphore(maxParallelismPerConsumer - 1));
+    }
+
+    private static <S, T> T mapItem(S item, ItemMapper<S, T> mapper, ItemErrorHandler<S, T> errorHandler) {
+        try {
+            return mapper.map(item);
+        } catch (Exception e) {
+            return errorHandler.onError(item, e);
+        }
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getMaxParallelismPerConsumer() {
+        return maxParallelismPerConsumer;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
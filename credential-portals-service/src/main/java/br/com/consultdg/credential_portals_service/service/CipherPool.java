@@ -0,0 +1,128 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import javax.crypto.Cipher;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de instâncias de {@link Cipher} confinadas por thread.
+ * <p>
+ * Cada thread mantém um {@code Cipher} por transformação e modo, evitando a busca no provedor
+ * ({@code Cipher.getInstance}) a cada chamada. Quando a mesma chave é usada novamente, a
+ * reinicialização também é evitada, já que o {@code Cipher} volta ao estado inicial após {@code doFinal}.
+ * Os serviços usam a instância compartilhada {@link #shared()}, o que mantém o construtor padrão deles.
+ */
+public final class CipherPool {
+
+    /**
+     * Operação executada com um {@code Cipher} do pool.
+     */
+    @FunctionalInterface
+    public interface CipherCallback<T> {
+        T doWithCipher(Cipher cipher) throws GeneralSecurityException;
+    }
+
+    private static final CipherPool SHARED = new CipherPool();
+
+    private final ThreadLocal<Map<String, PooledCipher>> ciphers = ThreadLocal.withInitial(HashMap::new);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder initializations = new LongAdder();
+
+    public static CipherPool shared() {
+        return SHARED;
+    }
+
+    /**
+     * Executa a operação com um {@code Cipher} já inicializado no modo e com a chave informados.
+     * Se a operação falhar, a instância é descartada para não reaproveitar um estado inconsistente.
+     *
+     * @param transformation Transformação do {@code Cipher} (ex.: "RSA/ECB/PKCS1Padding")
+     * @param mode Modo de operação ({@link Cipher#ENCRYPT_MODE} ou {@link Cipher#DECRYPT_MODE})
+     * @param key Chave da operação
+     * @param callback Operação a executar
+     * @return Resultado da operação
+     * @throws GeneralSecurityException se houver erro na criptografia
+     */
+    public <T> T execute(String transformation, int mode, Key key, CipherCallback<T> callback) throws GeneralSecurityException {
+        String slot = transformation + '#' + mode;
+        PooledCipher pooled = acquire(slot, transformation);
+        try {
+            if (pooled.key != key) {
+                pooled.cipher.init(mode, key);
+                pooled.key = key;
+                initializations.increment();
+            }
+            return callback.doWithCipher(pooled.cipher);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            ciphers.get().remove(slot);
+            throw e;
+        }
+    }
+
+    /**
+     * Executa a operação com um {@code Cipher} da transformação informada, sem inicializá-lo.
+     * Usado quando cada operação exige parâmetros próprios (ex.: IV do AES-GCM).
+     *
+     * @param transformation Transformação do {@code Cipher}
+     * @param callback Operação a executar, responsável por chamar {@code init}
+     * @return Resultado da operação
+     * @throws GeneralSecurityException se houver erro na criptografia
+     */
+    public <T> T execute(String transformation, CipherCallback<T> callback) throws GeneralSecurityException {
+        PooledCipher pooled = acquire(transformation, transformation);
+        try {
+            return callback.doWithCipher(pooled.cipher);
+        } catch (GeneralSecurityException | RuntimeException e) {
+            ciphers.get().remove(transformation);
+            throw e;
+        }
+    }
+
+    private PooledCipher acquire(String slot, String transformation) throws GeneralSecurityException {
+        Map<String, PooledCipher> threadCiphers = ciphers.get();
+        PooledCipher pooled = threadCiphers.get(slot);
+        if (pooled != null) {
+            hits.increment();
+            return pooled;
+        }
+        misses.increment();
+        pooled = new PooledCipher(Cipher.getInstance(transformation));
+        threadCiphers.put(slot, pooled);
+        return pooled;
+    }
+
+    /**
+     * Quantidade de vezes em que um {@code Cipher} da thread foi reaproveitado.
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * Quantidade de vezes em que foi necessário criar um {@code Cipher} no provedor.
+     */
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    /**
+     * Quantidade de chamadas a {@code init} feitas pelo pool (troca de chave ou instância nova).
+     */
+    public long getInitializations() {
+        return initializations.sum();
+    }
+
+    private static final class PooledCipher {
+
+        private final Cipher cipher;
+        private Key key;
+
+        private PooledCipher(Cipher cipher) {
+            this.cipher = cipher;
+        }
+    }
+}
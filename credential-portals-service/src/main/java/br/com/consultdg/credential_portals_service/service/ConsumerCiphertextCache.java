@@ -0,0 +1,139 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import br.com.consultdg.credential_portals_service.model.Credentials;
+import br.com.consultdg.credential_portals_service.service.ConsumerKeyRegistry.RegisteredKey;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Cache das senhas já criptografadas com a chave pública de cada consumidor.
+ * <p>
+ * A chave do cache inclui a data de atualização da credencial e da chave do consumidor,
+ * de modo que qualquer alteração gera uma nova entrada; as remoções explícitas apenas
+ * liberam a memória das entradas antigas. O tamanho é limitado (despejo W-TinyLFU do Caffeine).
+ */
+@Component
+public class ConsumerCiphertextCache {
+
+    private final Cache<CacheKey, EncryptedPasswords> cache;
+
+    public ConsumerCiphertextCache(
+            @Value("${credentials.ciphertext-cache.maximum-size:50000}") long maximumSize,
+            @Value("${credentials.ciphertext-cache.expire-after-access:12h}") Duration expireAfterAccess) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterAccess(expireAfterAccess)
+                .recordStats()
+                .build();
+    }
+
+    @Autowired(required = false)
+    void bindMetrics(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "consumer-ciphertext");
+    }
+
+    /**
+     * Retorna as senhas criptografadas da credencial para o consumidor, calculando-as apenas na ausência no cache.
+     *
+     * @param consumerKey Chave do consumidor
+     * @param credential Credencial
+     * @param loader Criptografia executada em caso de ausência no cache
+     * @return Senhas criptografadas para o consumidor
+     */
+    public EncryptedPasswords get(RegisteredKey consumerKey, Credentials credential, Supplier<EncryptedPasswords> loader) {
+        CacheKey key = new CacheKey(consumerKey.getConsumerIdentifier(), credential.getId(),
+                credential.getUpdatedAt(), consumerKey.getUpdatedAt());
+        return cache.get(key, ignored -> loader.get());
+    }
+
+    /**
+     * Remove as entradas de uma credencial para todos os consumidores.
+     */
+    public void invalidateCredential(UUID credentialId) {
+        cache.asMap().keySet().removeIf(key -> Objects.equals(key.credentialId, credentialId));
+    }
+
+    /**
+     * Remove todas as entradas de um consumidor (ex.: troca ou remoção da chave pública).
+     */
+    public void invalidateConsumer(String consumerIdentifier) {
+        cache.asMap().keySet().removeIf(key -> Objects.equals(key.consumerIdentifier, consumerIdentifier));
+    }
+
+    public void invalidateAll() {
+        cache.invalidateAll();
+    }
+
+    public long size() {
+        cache.cleanUp();
+        return cache.estimatedSize();
+    }
+
+    /**
+     * Senha e senha da nota fiscal criptografadas para um consumidor.
+     */
+    public static final class EncryptedPasswords {
+
+        private final String password;
+        private final String passwordOfInvoice;
+
+        public EncryptedPasswords(String password, String passwordOfInvoice) {
+            this.password = password;
+            this.passwordOfInvoice = passwordOfInvoice;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public String getPasswordOfInvoice() {
+            return passwordOfInvoice;
+        }
+    }
+
+    private static final class CacheKey {
+
+        private final String consumerIdentifier;
+        private final UUID credentialId;
+        private final LocalDateTime credentialUpdatedAt;
+        private final LocalDateTime keyUpdatedAt;
+
+        private CacheKey(String consumerIdentifier, UUID credentialId, LocalDateTime credentialUpdatedAt, LocalDateTime keyUpdatedAt) {
+            this.consumerIdentifier = consumerIdentifier;
+            this.credentialId = credentialId;
+            this.credentialUpdatedAt = credentialUpdatedAt;
+            this.keyUpdatedAt = keyUpdatedAt;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CacheKey)) {
+                return false;
+            }
+            CacheKey other = (CacheKey) o;
+            return Objects.equals(consumerIdentifier, other.consumerIdentifier)
+                    && Objects.equals(credentialId, other.credentialId)
+                    && Objects.equals(credentialUpdatedAt, other.credentialUpdatedAt)
+                    && Objects.equals(keyUpdatedAt, other.keyUpdatedAt);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(consumerIdentifier, credentialId, credentialUpdatedAt, keyUpdatedAt);
+        }
+    }
+}
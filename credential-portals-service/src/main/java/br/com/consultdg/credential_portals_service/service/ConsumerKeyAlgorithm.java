@@ -0,0 +1,95 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import java.security.Key;
+import java.util.Locale;
+
+/**
+ * Algoritmos de chave pública aceitos para os consumidores da API.
+ * O nome é o valor persistido em {@code ConsumerPublicKey.keyAlgorithm}.
+ */
+public enum ConsumerKeyAlgorithm {
+
+    RSA("RSA", "RSA", "RSA", RSAEncryptionService.RSA_TRANSFORMATION),
+    X25519("X25519", "XDH", "ECIES-X25519", EciesEncryptionService.schemeName("X25519")),
+    P256("P-256", "EC", "ECIES-P256", EciesEncryptionService.schemeName("P-256"));
+
+    private final String keyAlgorithm;
+    private final String jcaAlgorithm;
+    private final String encryptionAlgorithm;
+    private final String keyEncryptionTransformation;
+
+    ConsumerKeyAlgorithm(String keyAlgorithm, String jcaAlgorithm, String encryptionAlgorithm, String keyEncryptionTransformation) {
+        this.keyAlgorithm = keyAlgorithm;
+        this.jcaAlgorithm = jcaAlgorithm;
+        this.encryptionAlgorithm = encryptionAlgorithm;
+        this.keyEncryptionTransformation = keyEncryptionTransformation;
+    }
+
+    /**
+     * Nome do algoritmo persistido na chave do consumidor (ex.: "RSA", "X25519", "P-256").
+     */
+    public String getKeyAlgorithm() {
+        return keyAlgorithm;
+    }
+
+    /**
+     * Nome do algoritmo no JCA, usado no {@code KeyFactory}.
+     */
+    public String getJcaAlgorithm() {
+        return jcaAlgorithm;
+    }
+
+    /**
+     * Algoritmo informado ao consumidor nas senhas criptografadas individualmente.
+     */
+    public String getEncryptionAlgorithm() {
+        return encryptionAlgorithm;
+    }
+
+    /**
+     * Transformação usada para proteger a chave de sessão no modo híbrido.
+     */
+    public String getKeyEncryptionTransformation() {
+        return keyEncryptionTransformation;
+    }
+
+    /**
+     * Converte o nome persistido/informado no algoritmo correspondente. Nome vazio equivale a RSA.
+     *
+     * @throws IllegalArgumentException se o algoritmo não for suportado
+     */
+    public static ConsumerKeyAlgorithm fromName(String name) {
+        if (name == null || name.trim().isEmpty()) {
+            return RSA;
+        }
+        String normalized = name.trim().toUpperCase(Locale.ROOT).replace("_", "-");
+        for (ConsumerKeyAlgorithm algorithm : values()) {
+            if (algorithm.keyAlgorithm.equals(normalized) || algorithm.name().equals(normalized)) {
+                return algorithm;
+            }
+        }
+        if ("SECP256R1".equals(normalized) || "EC".equals(normalized)) {
+            return P256;
+        }
+        throw new IllegalArgumentException("Algoritmo de chave não suportado: " + name);
+    }
+
+    /**
+     * Identifica o algoritmo a partir de uma chave já convertida.
+     *
+     * @throws IllegalArgumentException se o tipo de chave não for suportado
+     */
+    public static ConsumerKeyAlgorithm fromKey(Key key) {
+        switch (key.getAlgorithm()) {
+            case "RSA":
+                return RSA;
+            case "XDH":
+            case "X25519":
+                return X25519;
+            case "EC":
+                return P256;
+            default:
+                throw new IllegalArgumentException("Tipo de chave não suportado: " + key.getAlgorithm());
+        }
+    }
+}
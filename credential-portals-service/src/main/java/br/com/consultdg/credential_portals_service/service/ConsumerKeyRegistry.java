@@ -0,0 +1,189 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import br.com.consultdg.credential_portals_service.model.ConsumerPublicKey;
+import br.com.consultdg.credential_portals_service.repository.ConsumerPublicKeyRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.security.PublicKey;
+import java.time.LocalDateTime;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro em memória das chaves públicas dos consumidores.
+ * Mantém a chave já convertida em {@link PublicKey}, evitando consulta ao banco
+ * e parsing da chave a cada requisição dos robôs.
+ */
+@Component
+public class ConsumerKeyRegistry {
+
+    @Autowired
+    private ConsumerPublicKeyRepository consumerPublicKeyRepository;
+
+    @Autowired
+    private RSAEncryptionService rsaEncryptionService;
+
+    @Autowired
+    private EciesEncryptionService eciesEncryptionService;
+
+    private final ConcurrentMap<String, RegisteredKey> keys = new ConcurrentHashMap<>();
+
+    // Incrementado a cada invalidação para descartar cargas concorrentes com dados antigos
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Busca a chave válida do consumidor, carregando do banco apenas na primeira vez.
+     * Entradas expiradas ou inativas são removidas no momento da consulta.
+     *
+     * @param consumerIdentifier Identificador do consumidor
+     * @return Optional com a chave registrada, vazio se não houver chave válida
+     */
+    public Optional<RegisteredKey> findValidKey(String consumerIdentifier) {
+        if (consumerIdentifier == null) {
+            return Optional.empty();
+        }
+
+        RegisteredKey registeredKey = keys.get(consumerIdentifier);
+        if (registeredKey != null) {
+            if (registeredKey.isValid()) {
+                return Optional.of(registeredKey);
+            }
+            keys.remove(consumerIdentifier, registeredKey);
+            return Optional.empty();
+        }
+
+        long loadGeneration = generation.get();
+        return consumerPublicKeyRepository.findValidKeyByConsumerIdentifier(consumerIdentifier)
+                .map(this::toRegisteredKey)
+                .filter(RegisteredKey::isValid)
+                .map(loadedKey -> cacheIfCurrent(consumerIdentifier, loadedKey, loadGeneration));
+    }
+
+    private RegisteredKey cacheIfCurrent(String consumerIdentifier, RegisteredKey loadedKey, long loadGeneration) {
+        RegisteredKey cached = keys.compute(consumerIdentifier, (identifier, current) -> {
+            if (current != null) {
+                return current;
+            }
+            // Houve invalidação durante a carga: a chave é usada apenas nesta requisição
+            return generation.get() == loadGeneration ? loadedKey : null;
+        });
+        return cached != null ? cached : loadedKey;
+    }
+
+    /**
+     * Remove a chave do consumidor do registro. Deve ser chamado sempre que a chave
+     * for registrada, atualizada ou removida.
+     *
+     * @param consumerIdentifier Identificador do consumidor
+     */
+    public void invalidate(String consumerIdentifier) {
+        if (consumerIdentifier != null) {
+            generation.incrementAndGet();
+            keys.remove(consumerIdentifier);
+        }
+    }
+
+    /**
+     * Remove todas as chaves do registro.
+     */
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        keys.clear();
+    }
+
+    /**
+     * Quantidade de chaves atualmente em memória.
+     */
+    public int size() {
+        return keys.size();
+    }
+
+    private RegisteredKey toRegisteredKey(ConsumerPublicKey entity) {
+        try {
+            ConsumerKeyAlgorithm algorithm = ConsumerKeyAlgorithm.fromName(entity.getKeyAlgorithm());
+            PublicKey publicKey = entity.getPublicKeyDer() != null
+                    ? bytesToPublicKey(entity.getPublicKeyDer(), algorithm)
+                    : stringToPublicKey(entity.getPublicKey(), algorithm);
+            return new RegisteredKey(
+                    entity.getConsumerIdentifier(),
+                    publicKey,
+                    algorithm,
+                    entity.getExpiresAt(),
+                    Boolean.TRUE.equals(entity.getActive()),
+                    entity.getUpdatedAt()
+            );
+        } catch (Exception e) {
+            throw new IllegalStateException("Chave pública armazenada inválida para o consumidor: " + entity.getConsumerIdentifier(), e);
+        }
+    }
+
+    private PublicKey bytesToPublicKey(byte[] encodedKey, ConsumerKeyAlgorithm algorithm) throws Exception {
+        return algorithm == ConsumerKeyAlgorithm.RSA
+                ? rsaEncryptionService.bytesToPublicKey(encodedKey)
+                : eciesEncryptionService.bytesToPublicKey(encodedKey, algorithm);
+    }
+
+    // Chaves registradas antes da normalização em DER
+    private PublicKey stringToPublicKey(String publicKey, ConsumerKeyAlgorithm algorithm) throws Exception {
+        return algorithm == ConsumerKeyAlgorithm.RSA
+                ? rsaEncryptionService.stringToPublicKey(publicKey)
+                : eciesEncryptionService.stringToPublicKey(publicKey, algorithm);
+    }
+
+    /**
+     * Chave pública de um consumidor já convertida e pronta para uso.
+     */
+    public static final class RegisteredKey {
+
+        private final String consumerIdentifier;
+        private final PublicKey publicKey;
+        private final ConsumerKeyAlgorithm keyAlgorithm;
+        private final LocalDateTime expiresAt;
+        private final boolean active;
+        private final LocalDateTime updatedAt;
+
+        public RegisteredKey(String consumerIdentifier, PublicKey publicKey, ConsumerKeyAlgorithm keyAlgorithm,
+                             LocalDateTime expiresAt, boolean active, LocalDateTime updatedAt) {
+            this.consumerIdentifier = consumerIdentifier;
+            this.publicKey = publicKey;
+            this.keyAlgorithm = keyAlgorithm;
+            this.expiresAt = expiresAt;
+            this.active = active;
+            this.updatedAt = updatedAt;
+        }
+
+        public String getConsumerIdentifier() {
+            return consumerIdentifier;
+        }
+
+        public PublicKey getPublicKey() {
+            return publicKey;
+        }
+
+        public ConsumerKeyAlgorithm getKeyAlgorithm() {
+            return keyAlgorithm;
+        }
+
+        public LocalDateTime getExpiresAt() {
+            return expiresAt;
+        }
+
+        public boolean isActive() {
+            return active;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        /**
+         * Verifica se a chave ainda está válida (ativa e não expirada).
+         */
+        public boolean isValid() {
+            return active && (expiresAt == null || expiresAt.isAfter(LocalDateTime.now()));
+        }
+    }
+}
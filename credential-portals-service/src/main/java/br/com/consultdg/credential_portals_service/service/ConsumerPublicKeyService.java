@@ -2,12 +2,26 @@ package br.com.consultdg.credential_portals_service.service;
 
 import br.com.consultdg.credential_portals_service.api.model.ConsumerPublicKeyRequestDTO;
 import br.com.consultdg.credential_portals_service.api.model.ConsumerPublicKeyResponseDTO;
+import br.com.consultdg.credential_portals_service.api.model.KeysetPageDTO;
 import br.com.consultdg.credential_portals_service.model.ConsumerPublicKey;
 import br.com.consultdg.credential_portals_service.repository.ConsumerPublicKeyRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.security.PublicKey;
+import java.security.interfaces.RSAKey;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Locale;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.stream.Collectors;
@@ -18,12 +32,29 @@ import java.util.stream.Collectors;
 @Service
 public class ConsumerPublicKeyService {
 
+    private static final Logger log = LoggerFactory.getLogger(ConsumerPublicKeyService.class);
+
     @Autowired
     private ConsumerPublicKeyRepository consumerPublicKeyRepository;
 
     @Autowired
     private RSAEncryptionService rsaEncryptionService;
 
+    @Autowired
+    private EciesEncryptionService eciesEncryptionService;
+
+    @Autowired
+    private RSAKeyPairPool rsaKeyPairPool;
+
+    @Autowired
+    private ConsumerKeyRegistry consumerKeyRegistry;
+
+    @Autowired
+    private ConsumerCiphertextCache consumerCiphertextCache;
+
+    @Autowired
+    private KeysetPagination keysetPagination;
+
     /**
      * Lista todas as chaves públicas ativas.
      */
@@ -34,6 +65,27 @@ public class ConsumerPublicKeyService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Lista as chaves públicas ativas paginadas por cursor, em ordem de criação.
+     *
+     * @throws IllegalArgumentException se o cursor, o tamanho ou a ordem forem inválidos
+     */
+    public KeysetPageDTO<ConsumerPublicKeyResponseDTO> findPage(String cursor, Integer size, String sort) {
+        return keysetPagination.page(cursor, size, sort, new KeysetPagination.PageQueries<ConsumerPublicKey>() {
+            @Override
+            public List<ConsumerPublicKey> first(boolean descending, Limit limit) {
+                return descending ? consumerPublicKeyRepository.findActivePageDesc(limit) : consumerPublicKeyRepository.findActivePage(limit);
+            }
+
+            @Override
+            public List<ConsumerPublicKey> after(boolean descending, LocalDateTime createdAt, UUID id, Limit limit) {
+                return descending
+                        ? consumerPublicKeyRepository.findActivePageBefore(createdAt, id, limit)
+                        : consumerPublicKeyRepository.findActivePageAfter(createdAt, id, limit);
+            }
+        }, ConsumerPublicKey::getCreatedAt, ConsumerPublicKey::getId, this::toResponseDTO);
+    }
+
     /**
      * Busca uma chave pública por ID.
      */
@@ -58,22 +110,36 @@ public class ConsumerPublicKeyService {
         return consumerPublicKeyRepository.findValidKeyByConsumerIdentifier(consumerIdentifier);
     }
 
+    /**
+     * Busca a chave pública ativa pela impressão digital SHA-256 (DER, hexadecimal).
+     */
+    public Optional<ConsumerPublicKeyResponseDTO> findByFingerprint(String fingerprint) {
+        return consumerPublicKeyRepository.findFirstByPublicKeyFingerprintAndActive(fingerprint.toLowerCase(Locale.ROOT), true)
+                .map(this::toResponseDTO);
+    }
+
     /**
      * Registra uma nova chave pública para um consumidor.
      */
     public ConsumerPublicKeyResponseDTO registerPublicKey(ConsumerPublicKeyRequestDTO requestDTO) {
-        // Valida se a chave pública é válida
-        if (!rsaEncryptionService.isValidPublicKey(requestDTO.getPublicKey())) {
-            throw new IllegalArgumentException("Chave pública RSA inválida");
-        }
+        // Valida se a chave pública é válida para o algoritmo informado
+        ConsumerKeyAlgorithm algorithm = ConsumerKeyAlgorithm.fromName(requestDTO.getKeyAlgorithm());
+        PublicKey publicKey = parseValidPublicKey(requestDTO.getPublicKey(), algorithm);
 
         // Verifica se já existe uma chave para este consumidor
         if (consumerPublicKeyRepository.existsByConsumerIdentifierAndActive(requestDTO.getConsumerIdentifier(), true)) {
             throw new IllegalArgumentException("Já existe uma chave ativa para este consumidor: " + requestDTO.getConsumerIdentifier());
         }
 
-        ConsumerPublicKey consumerPublicKey = toEntity(requestDTO);
+        // Uma mesma chave não pode estar ativa para dois consumidores
+        if (consumerPublicKeyRepository.existsByPublicKeyFingerprintAndActive(fingerprint(publicKey), true)) {
+            throw new IllegalArgumentException("Chave pública já registrada para outro consumidor");
+        }
+
+        ConsumerPublicKey consumerPublicKey = toEntity(requestDTO, algorithm, publicKey);
         consumerPublicKey = consumerPublicKeyRepository.save(consumerPublicKey);
+        consumerKeyRegistry.invalidate(consumerPublicKey.getConsumerIdentifier());
+        consumerCiphertextCache.invalidateConsumer(consumerPublicKey.getConsumerIdentifier());
         
         return toResponseDTO(consumerPublicKey);
     }
@@ -85,13 +151,21 @@ public class ConsumerPublicKeyService {
         return consumerPublicKeyRepository.findById(id)
                 .filter(key -> key.getActive())
                 .map(existingKey -> {
-                    // Valida se a nova chave pública é válida
-                    if (!rsaEncryptionService.isValidPublicKey(requestDTO.getPublicKey())) {
-                        throw new IllegalArgumentException("Chave pública RSA inválida");
-                    }
+                    // Valida se a nova chave pública é válida; sem algoritmo informado, mantém o atual
+                    ConsumerKeyAlgorithm algorithm = ConsumerKeyAlgorithm.fromName(requestDTO.getKeyAlgorithm() != null
+                            ? requestDTO.getKeyAlgorithm() : existingKey.getKeyAlgorithm());
+                    PublicKey publicKey = parseValidPublicKey(requestDTO.getPublicKey(), algorithm);
+                    consumerPublicKeyRepository.findFirstByPublicKeyFingerprintAndActive(fingerprint(publicKey), true)
+                            .filter(other -> !other.getId().equals(existingKey.getId()))
+                            .ifPresent(other -> {
+                                throw new IllegalArgumentException("Chave pública já registrada para outro consumidor");
+                            });
 
-                    updateEntityFromDTO(existingKey, requestDTO);
-                    return consumerPublicKeyRepository.save(existingKey);
+                    updateEntityFromDTO(existingKey, requestDTO, algorithm, publicKey);
+                    ConsumerPublicKey savedKey = consumerPublicKeyRepository.save(existingKey);
+                    consumerKeyRegistry.invalidate(savedKey.getConsumerIdentifier());
+                    consumerCiphertextCache.invalidateConsumer(savedKey.getConsumerIdentifier());
+                    return savedKey;
                 })
                 .map(this::toResponseDTO);
     }
@@ -105,6 +179,8 @@ public class ConsumerPublicKeyService {
                 .map(key -> {
                     key.setActive(false);
                     consumerPublicKeyRepository.save(key);
+                    consumerKeyRegistry.invalidate(key.getConsumerIdentifier());
+                    consumerCiphertextCache.invalidateConsumer(key.getConsumerIdentifier());
                     return true;
                 })
                 .orElse(false);
@@ -118,6 +194,8 @@ public class ConsumerPublicKeyService {
                 .map(key -> {
                     key.setActive(false);
                     consumerPublicKeyRepository.save(key);
+                    consumerKeyRegistry.invalidate(key.getConsumerIdentifier());
+                    consumerCiphertextCache.invalidateConsumer(key.getConsumerIdentifier());
                     return true;
                 })
                 .orElse(false);
@@ -127,7 +205,7 @@ public class ConsumerPublicKeyService {
      * Verifica se um consumidor possui uma chave pública válida.
      */
     public boolean hasValidPublicKey(String consumerIdentifier) {
-        return consumerPublicKeyRepository.findValidKeyByConsumerIdentifier(consumerIdentifier)
+        return consumerKeyRegistry.findValidKey(consumerIdentifier)
                 .isPresent();
     }
 
@@ -145,44 +223,139 @@ public class ConsumerPublicKeyService {
      * Gera um novo par de chaves RSA para demonstração.
      */
     public String generateKeyPairExample() {
+        return generateKeyPairExample(ConsumerKeyAlgorithm.RSA.getKeyAlgorithm());
+    }
+
+    /**
+     * Gera um novo par de chaves do algoritmo informado (RSA, X25519 ou P-256) para demonstração.
+     *
+     * @throws IllegalArgumentException se o algoritmo não for suportado
+     */
+    public String generateKeyPairExample(String keyAlgorithm) {
+        ConsumerKeyAlgorithm algorithm = ConsumerKeyAlgorithm.fromName(keyAlgorithm);
         try {
-            var keyPair = rsaEncryptionService.generateKeyPair();
-            String publicKey = rsaEncryptionService.publicKeyToString(keyPair.getPublic());
-            String privateKey = rsaEncryptionService.privateKeyToString(keyPair.getPrivate());
+            String publicKey;
+            String privateKey;
+            if (algorithm == ConsumerKeyAlgorithm.RSA) {
+                KeyPair keyPair = rsaKeyPairPool.take();
+                publicKey = rsaEncryptionService.publicKeyToString(keyPair.getPublic());
+                privateKey = rsaEncryptionService.privateKeyToString(keyPair.getPrivate());
+            } else {
+                KeyPair keyPair = eciesEncryptionService.generateKeyPair(algorithm);
+                publicKey = eciesEncryptionService.publicKeyToString(keyPair.getPublic());
+                privateKey = eciesEncryptionService.privateKeyToString(keyPair.getPrivate());
+            }
             
             return String.format(
-                "# Par de Chaves RSA Gerado\n\n" +
-                "## Chave Pública (registre na API):\n%s\n\n" +
+                "# Par de Chaves %s Gerado\n\n" +
+                "## Chave Pública (registre na API com keyAlgorithm=%s):\n%s\n\n" +
                 "## Chave Privada (mantenha em segredo):\n%s\n\n" +
                 "## Como usar:\n" +
                 "1. Registre a chave pública na API usando POST /api/consumer-keys\n" +
-                "2. Use a chave privada para descriptografar senhas recebidas da API\n" +
+                "2. Use a chave privada para descriptografar senhas recebidas da API (%s)\n" +
                 "3. Mantenha a chave privada segura e nunca a compartilhe",
-                publicKey, privateKey
+                algorithm.getKeyAlgorithm(), algorithm.getKeyAlgorithm(), publicKey, privateKey,
+                algorithm.getKeyEncryptionTransformation()
             );
         } catch (Exception e) {
             throw new RuntimeException("Erro ao gerar par de chaves: " + e.getMessage(), e);
         }
     }
 
-    private ConsumerPublicKey toEntity(ConsumerPublicKeyRequestDTO requestDTO) {
+    /**
+     * Converte e valida a chave pública conforme o algoritmo.
+     *
+     * @throws IllegalArgumentException se a chave não for válida para o algoritmo
+     */
+    private PublicKey parseValidPublicKey(String publicKeyString, ConsumerKeyAlgorithm algorithm) {
+        try {
+            if (algorithm == ConsumerKeyAlgorithm.RSA) {
+                return rsaEncryptionService.stringToPublicKey(publicKeyString);
+            }
+            if (eciesEncryptionService.isValidPublicKey(publicKeyString, algorithm)) {
+                return eciesEncryptionService.stringToPublicKey(publicKeyString, algorithm);
+            }
+        } catch (Exception e) {
+            throw new IllegalArgumentException("Chave pública " + algorithm.getKeyAlgorithm() + " inválida", e);
+        }
+        throw new IllegalArgumentException("Chave pública " + algorithm.getKeyAlgorithm() + " inválida");
+    }
+
+    /**
+     * Normaliza as chaves registradas antes da coluna DER, preenchendo DER e impressão digital.
+     * Executado na inicialização; chaves que não puderem ser convertidas permanecem no formato texto.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillPublicKeyFingerprints() {
+        for (ConsumerPublicKey key : consumerPublicKeyRepository.findByPublicKeyFingerprintIsNull()) {
+            try {
+                ConsumerKeyAlgorithm algorithm = ConsumerKeyAlgorithm.fromName(key.getKeyAlgorithm());
+                normalizePublicKey(key, parseValidPublicKey(key.getPublicKey(), algorithm));
+                consumerPublicKeyRepository.save(key);
+                consumerKeyRegistry.invalidate(key.getConsumerIdentifier());
+                consumerCiphertextCache.invalidateConsumer(key.getConsumerIdentifier());
+            } catch (RuntimeException e) {
+                log.warn("Não foi possível normalizar a chave pública do consumidor {}: {}", key.getConsumerIdentifier(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Grava a chave em DER (e em Base64 na coluna texto) junto com sua impressão digital.
+     */
+    private void normalizePublicKey(ConsumerPublicKey entity, PublicKey publicKey) {
+        byte[] encodedKey = publicKey.getEncoded();
+        entity.setPublicKey(Base64.getEncoder().encodeToString(encodedKey));
+        entity.setPublicKeyDer(encodedKey);
+        entity.setPublicKeyFingerprint(fingerprint(publicKey));
+    }
+
+    /**
+     * Impressão digital SHA-256 da chave em DER, em hexadecimal minúsculo.
+     */
+    private String fingerprint(PublicKey publicKey) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(publicKey.getEncoded()));
+        } catch (Exception e) {
+            throw new IllegalStateException("SHA-256 indisponível", e);
+        }
+    }
+
+    /**
+     * Tamanho da chave em bits: módulo no RSA, tamanho da curva nas chaves EC.
+     */
+    private int keySize(ConsumerKeyAlgorithm algorithm, PublicKey publicKey) {
+        switch (algorithm) {
+            case RSA:
+                return ((RSAKey) publicKey).getModulus().bitLength();
+            case X25519:
+                return 255;
+            default:
+                return 256;
+        }
+    }
+
+    private ConsumerPublicKey toEntity(ConsumerPublicKeyRequestDTO requestDTO, ConsumerKeyAlgorithm algorithm, PublicKey publicKey) {
         ConsumerPublicKey entity = new ConsumerPublicKey();
         entity.setConsumerName(requestDTO.getConsumerName());
         entity.setConsumerIdentifier(requestDTO.getConsumerIdentifier());
-        entity.setPublicKey(requestDTO.getPublicKey());
+        normalizePublicKey(entity, publicKey);
         entity.setExpiresAt(requestDTO.getExpiresAt());
         entity.setDescription(requestDTO.getDescription());
-        entity.setKeyAlgorithm("RSA");
-        entity.setKeySize(2048);
+        entity.setKeyAlgorithm(algorithm.getKeyAlgorithm());
+        entity.setKeySize(keySize(algorithm, publicKey));
         entity.setActive(true);
         return entity;
     }
 
-    private void updateEntityFromDTO(ConsumerPublicKey entity, ConsumerPublicKeyRequestDTO requestDTO) {
+    private void updateEntityFromDTO(ConsumerPublicKey entity, ConsumerPublicKeyRequestDTO requestDTO,
+                                     ConsumerKeyAlgorithm algorithm, PublicKey publicKey) {
         entity.setConsumerName(requestDTO.getConsumerName());
-        entity.setPublicKey(requestDTO.getPublicKey());
+        normalizePublicKey(entity, publicKey);
         entity.setExpiresAt(requestDTO.getExpiresAt());
         entity.setDescription(requestDTO.getDescription());
+        entity.setKeyAlgorithm(algorithm.getKeyAlgorithm());
+        entity.setKeySize(keySize(algorithm, publicKey));
     }
 
     private ConsumerPublicKeyResponseDTO toResponseDTO(ConsumerPublicKey entity) {
@@ -192,6 +365,7 @@ public class ConsumerPublicKeyService {
                 entity.getConsumerIdentifier(),
                 entity.getKeyAlgorithm(),
                 entity.getKeySize(),
+                entity.getPublicKeyFingerprint(),
                 entity.getCreatedAt(),
                 entity.getUpdatedAt(),
                 entity.getExpiresAt(),
@@ -0,0 +1,438 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import br.com.consultdg.credential_portals_service.api.model.CredentialImportEventDTO;
+import br.com.consultdg.credential_portals_service.api.model.CredentialsRequestDTO;
+import br.com.consultdg.credential_portals_service.model.Credentials;
+import br.com.consultdg.credential_portals_service.repository.CredentialsRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+/**
+ * Importa credenciais em lote a partir de CSV ou JSON Lines, lidos em fluxo.
+ * <p>
+ * As linhas são agrupadas em lotes de {@code chunk-size}. Em cada lote, a validação, a cópia AES e o
+ * hash BCrypt de cada linha rodam em paralelo em um pool dedicado e limitado (com a fila cheia, na
+ * thread chamadora); as linhas válidas são gravadas em uma única transação, com os INSERTs agrupados
+ * pelo batching JDBC do Hibernate. Apenas um lote fica em memória por vez. Linhas inválidas, e as de
+ * um lote cuja gravação falhou, viram eventos de erro sem interromper a importação.
+ */
+@Component
+public class CredentialImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(CredentialImportService.class);
+
+    private static final List<String> REQUIRED_CSV_COLUMNS = List.of("nameMall", "urlPortal", "username", "password");
+
+    /**
+     * Formato da entrada. No CSV, a primeira linha é o cabeçalho com os nomes dos campos de
+     * {@link CredentialsRequestDTO}; no JSON Lines, cada linha é um {@link CredentialsRequestDTO}.
+     */
+    public enum Format {
+        CSV, JSON_LINES
+    }
+
+    private final CredentialsRepository credentialsRepository;
+    private final PasswordEncryptionService passwordEncryptionService;
+    private final InternalEncryptionService internalEncryptionService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final int chunkSize;
+    private final ThreadPoolExecutor executor;
+
+    private volatile Counter importedCounter;
+    private volatile Counter failedCounter;
+    private volatile Timer chunkTimer;
+
+    public CredentialImportService(CredentialsRepository credentialsRepository,
+                                   PasswordEncryptionService passwordEncryptionService,
+                                   InternalEncryptionService internalEncryptionService,
+                                   ObjectMapper objectMapper,
+                                   PlatformTransactionManager transactionManager,
+                                   @Value("${credentials.import.pool-size:0}") int poolSize,
+                                   @Value("${credentials.import.chunk-size:500}") int chunkSize) {
+        this.credentialsRepository = credentialsRepository;
+        this.passwordEncryptionService = passwordEncryptionService;
+        this.internalEncryptionService = internalEncryptionService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.chunkSize = Math.max(1, chunkSize);
+
+        // Por padrão metade dos núcleos, como os demais pools de BCrypt, para não disputar todos com as requisições
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(this.chunkSize), runnable -> {
+                    Thread thread = new Thread(runnable, "credential-import-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Autowired(required = false)
+    void bindMetrics(MeterRegistry meterRegistry) {
+        importedCounter = Counter.builder("credentials.import.rows")
+                .tag("result", "imported")
+                .description("Credenciais gravadas pela importação em lote")
+                .register(meterRegistry);
+        failedCounter = Counter.builder("credentials.import.rows")
+                .tag("result", "failed")
+                .description("Linhas rejeitadas pela importação em lote")
+                .register(meterRegistry);
+        chunkTimer = Timer.builder("credentials.import.chunk.duration")
+                .description("Tempo de preparo e gravação de um lote da importação")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Importa as credenciais da entrada, entregando um evento de erro por linha rejeitada, um de
+     * progresso por lote e o resumo ao final. Os eventos são entregues na thread chamadora.
+     *
+     * @param input Entrada em UTF-8, lida até o fim
+     * @param format Formato da entrada
+     * @param onEvent Destino dos eventos
+     * @return Resumo da importação (o mesmo do último evento)
+     */
+    public CredentialImportEventDTO importCredentials(Reader input, Format format, Consumer<CredentialImportEventDTO> onEvent) {
+        Progress progress = new Progress();
+        List<ImportRow> chunk = new ArrayList<>(chunkSize);
+        try (BufferedReader reader = new BufferedReader(input)) {
+            CsvHeader header = null;
+            int lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                if (format == Format.CSV && header == null) {
+                    try {
+                        header = parseHeader(line);
+                        continue;
+                    } catch (IllegalArgumentException e) {
+                        onEvent.accept(CredentialImportEventDTO.error(lineNumber, e.getMessage()));
+                        break;
+                    }
+                }
+                chunk.add(new ImportRow(lineNumber, line, header));
+                if (chunk.size() == chunkSize) {
+                    importChunk(chunk, format, progress, onEvent);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                importChunk(chunk, format, progress, onEvent);
+            }
+        } catch (IOException e) {
+            throw new RuntimeException("Erro ao ler a entrada da importação: " + e.getMessage(), e);
+        }
+
+        CredentialImportEventDTO summary = progress.event(CredentialImportEventDTO.SUMMARY);
+        log.info("Importação em lote concluída: {} linhas, {} credenciais gravadas, {} com erro",
+                summary.getProcessed(), summary.getImported(), summary.getFailed());
+        onEvent.accept(summary);
+        return summary;
+    }
+
+    private void importChunk(List<ImportRow> chunk, Format format, Progress progress, Consumer<CredentialImportEventDTO> onEvent) {
+        long start = System.nanoTime();
+        List<Callable<PreparedRow>> preparations = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            preparations.add(() -> prepare(row, format));
+        }
+
+        List<PreparedRow> prepared = new ArrayList<>(chunk.size());
+        try {
+            for (Future<PreparedRow> future : executor.invokeAll(preparations)) {
+                prepared.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Importação de credenciais interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Erro no preparo do lote da importação: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        List<Credentials> valid = new ArrayList<>(prepared.size());
+        for (PreparedRow row : prepared) {
+            if (row.error != null) {
+                onEvent.accept(CredentialImportEventDTO.error(row.line, row.error));
+                progress.failed++;
+            } else {
+                valid.add(row.credentials);
+            }
+        }
+
+        if (!valid.isEmpty()) {
+            try {
+                transactionTemplate.executeWithoutResult(status -> credentialsRepository.saveAll(valid));
+                progress.imported += valid.size();
+                increment(importedCounter, valid.size());
+            } catch (RuntimeException e) {
+                log.warn("Lote da importação não gravado ({} linhas): {}", valid.size(), e.getMessage());
+                for (PreparedRow row : prepared) {
+                    if (row.error == null) {
+                        onEvent.accept(CredentialImportEventDTO.error(row.line, "Erro ao gravar o lote: " + e.getMessage()));
+                        progress.failed++;
+                    }
+                }
+            }
+        }
+        increment(failedCounter, prepared.size() - valid.size());
+
+        progress.processed += chunk.size();
+        if (chunkTimer != null) {
+            chunkTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+        onEvent.accept(progress.event(CredentialImportEventDTO.PROGRESS));
+    }
+
+    /**
+     * Converte, valida e criptografa uma linha. Erros da linha são devolvidos, não lançados.
+     */
+    private PreparedRow prepare(ImportRow row, Format format) {
+        CredentialsRequestDTO request;
+        try {
+            request = format == Format.CSV ? parseCsvRow(row) : objectMapper.readValue(row.content, CredentialsRequestDTO.class);
+        } catch (JsonProcessingException e) {
+            // A mensagem do Jackson cita o trecho inválido, que pode conter parte da senha
+            return PreparedRow.failed(row.line, e.getLocation() != null
+                    ? "JSON inválido na coluna " + e.getLocation().getColumnNr()
+                    : "JSON inválido");
+        } catch (IllegalArgumentException e) {
+            return PreparedRow.failed(row.line, e.getMessage());
+        }
+
+        String error = validate(request);
+        if (error != null) {
+            return PreparedRow.failed(row.line, error);
+        }
+
+        try {
+            Credentials credentials = new Credentials();
+            credentials.setNameMall(request.getNameMall());
+            credentials.setCnpj(request.getCnpj());
+            credentials.setUrlPortal(request.getUrlPortal());
+            credentials.setUsername(request.getUsername());
+            credentials.setPasswordOfInvoice(request.getPasswordOfInvoice());
+            credentials.setActive(request.getActive() != null ? request.getActive() : true);
+            credentials.setOriginalPasswordEncrypted(internalEncryptionService.encrypt(request.getPassword()));
+            credentials.setPassword(passwordEncryptionService.encryptPassword(request.getPassword()));
+            credentials.markPasswordAsProcessed();
+            return new PreparedRow(row.line, credentials, null);
+        } catch (RuntimeException e) {
+            return PreparedRow.failed(row.line, "Erro ao criptografar a senha: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Mesmas regras das colunas de {@link Credentials}.
+     */
+    private static String validate(CredentialsRequestDTO request) {
+        if (isBlank(request.getNameMall())) {
+            return "Campo obrigatório ausente: nameMall";
+        }
+        if (isBlank(request.getUrlPortal())) {
+            return "Campo obrigatório ausente: urlPortal";
+        }
+        if (isBlank(request.getUsername())) {
+            return "Campo obrigatório ausente: username";
+        }
+        if (isBlank(request.getPassword())) {
+            return "Campo obrigatório ausente: password";
+        }
+        if (request.getNameMall().length() > 255) {
+            return "nameMall excede 255 caracteres";
+        }
+        if (request.getCnpj() != null && request.getCnpj().length() > 18) {
+            return "cnpj excede 18 caracteres";
+        }
+        if (request.getUrlPortal().length() > 500) {
+            return "urlPortal excede 500 caracteres";
+        }
+        if (request.getUsername().length() > 100) {
+            return "username excede 100 caracteres";
+        }
+        if (request.getPasswordOfInvoice() != null && request.getPasswordOfInvoice().length() > 255) {
+            return "passwordOfInvoice excede 255 caracteres";
+        }
+        return null;
+    }
+
+    private static CsvHeader parseHeader(String line) {
+        // Planilhas exportadas costumam iniciar o arquivo com o BOM do UTF-8
+        List<String> columns = splitCsv(line.startsWith("\uFEFF") ? line.substring(1) : line);
+        Map<String, Integer> indexes = new HashMap<>();
+        for (int i = 0; i < columns.size(); i++) {
+            String name = columns.get(i).trim();
+            if (indexes.putIfAbsent(name.toLowerCase(Locale.ROOT), i) != null) {
+                throw new IllegalArgumentException("Coluna duplicada no cabeçalho: " + name);
+            }
+        }
+        for (String required : REQUIRED_CSV_COLUMNS) {
+            if (!indexes.containsKey(required.toLowerCase(Locale.ROOT))) {
+                throw new IllegalArgumentException("Coluna obrigatória ausente no cabeçalho: " + required);
+            }
+        }
+        return new CsvHeader(indexes, columns.size());
+    }
+
+    private static CredentialsRequestDTO parseCsvRow(ImportRow row) {
+        List<String> values = splitCsv(row.content);
+        if (values.size() != row.header.columnCount) {
+            throw new IllegalArgumentException("Linha com " + values.size() + " colunas; o cabeçalho tem " + row.header.columnCount);
+        }
+        CredentialsRequestDTO request = new CredentialsRequestDTO();
+        request.setNameMall(column(values, row.header, "namemall"));
+        request.setCnpj(column(values, row.header, "cnpj"));
+        request.setUrlPortal(column(values, row.header, "urlportal"));
+        request.setUsername(column(values, row.header, "username"));
+        request.setPassword(column(values, row.header, "password"));
+        request.setPasswordOfInvoice(column(values, row.header, "passwordofinvoice"));
+        String active = column(values, row.header, "active");
+        if (active != null) {
+            if (!active.equalsIgnoreCase("true") && !active.equalsIgnoreCase("false")) {
+                throw new IllegalArgumentException("Valor inválido para active: " + active);
+            }
+            request.setActive(Boolean.parseBoolean(active));
+        }
+        return request;
+    }
+
+    private static String column(List<String> values, CsvHeader header, String name) {
+        Integer index = header.indexes.get(name);
+        if (index == null) {
+            return null;
+        }
+        String value = values.get(index);
+        return value.isEmpty() ? null : value;
+    }
+
+    /**
+     * Divide uma linha CSV (RFC 4180, sem quebras de linha dentro dos campos): campos entre aspas
+     * podem conter vírgulas e aspas duplicadas ({@code ""}).
+     */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        if (quoted) {
+            throw new IllegalArgumentException("Aspas não fechadas na linha");
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+
+    private static void increment(Counter counter, int amount) {
+        if (counter != null && amount > 0) {
+            counter.increment(amount);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static final class ImportRow {
+        final int line;
+        final String content;
+        final CsvHeader header;
+
+        ImportRow(int line, String content, CsvHeader header) {
+            this.line = line;
+            this.content = content;
+            this.header = header;
+        }
+    }
+
+    /**
+     * Cabeçalho do CSV: posição de cada coluna (pelo nome em minúsculas) e quantidade de colunas.
+     */
+    private static final class CsvHeader {
+        final Map<String, Integer> indexes;
+        final int columnCount;
+
+        CsvHeader(Map<String, Integer> indexes, int columnCount) {
+            this.indexes = indexes;
+            this.columnCount = columnCount;
+        }
+    }
+
+    private static final class PreparedRow {
+        final int line;
+        final Credentials credentials;
+        final String error;
+
+        PreparedRow(int line, Credentials credentials, String error) {
+            this.line = line;
+            this.credentials = credentials;
+            this.error = error;
+        }
+
+        static PreparedRow failed(int line, String error) {
+            return new PreparedRow(line, null, error);
+        }
+    }
+
+    private static final class Progress {
+        int processed;
+        int imported;
+        int failed;
+
+        CredentialImportEventDTO event(String type) {
+            return CredentialImportEventDTO.counts(type, processed, imported, failed);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import br.com.consultdg.credential_portals_service.model.Credentials;
+import br.com.consultdg.credential_portals_service.model.ReEncryptionCheckpoint;
+import br.com.consultdg.credential_portals_service.repository.CredentialsRepository;
+import br.com.consultdg.credential_portals_service.repository.ReEncryptionCheckpointRepository;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+/**
+ * Recriptografa em segundo plano as senhas internas ({@code originalPasswordEncrypted}) que não
+ * estão no formato atual ({@link InternalEncryptionService#currentFormatPattern()}): valores legados
+ * ou de versões anteriores da chave mestra passam para a criptografia envelope. Uma rotação da chave
+ * mestra apenas protege novamente as chaves de dados ({@link DataKeyService#rewrapDataKeys()}).
+ * <p>
+ * A tabela é percorrida em lotes, em ordem de identificador, a partir da última credencial
+ * processada; cada lote é confirmado na sua própria transação junto com o {@link ReEncryptionCheckpoint},
+ * de modo que o processo pode ser interrompido e retomado sem repetir trabalho. Apenas um lote
+ * fica em memória por vez. Entre os lotes o processo pausa proporcionalmente ao tempo gasto no
+ * lote anterior, limitando a fração do tempo em que disputa o banco com o tráfego normal.
+ */
+@Component
+public class CredentialReEncryptionJob {
+
+    private static final Logger log = LoggerFactory.getLogger(CredentialReEncryptionJob.class);
+
+    // Menor UUID possível: ponto de partida quando não há progresso salvo
+    private static final UUID FIRST_ID = new UUID(0L, 0L);
+
+    private final CredentialsRepository credentialsRepository;
+    private final ReEncryptionCheckpointRepository checkpointRepository;
+    private final InternalEncryptionService internalEncryptionService;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int chunkSize;
+    private final double maxDutyCycle;
+    private final ExecutorService executor;
+    private final AtomicBoolean running = new AtomicBoolean();
+
+    private volatile boolean stopRequested;
+
+    public CredentialReEncryptionJob(CredentialsRepository credentialsRepository,
+                                     ReEncryptionCheckpointRepository checkpointRepository,
+                                     InternalEncryptionService internalEncryptionService,
+                                     PlatformTransactionManager transactionManager,
+                                     @Value("${credentials.re-encryption.enabled:true}") boolean enabled,
+                                     @Value("${credentials.re-encryption.chunk-size:500}") int chunkSize,
+                                     @Value("${credentials.re-encryption.max-duty-cycle:0.25}") double maxDutyCycle) {
+        this.credentialsRepository = credentialsRepository;
+        this.checkpointRepository = checkpointRepository;
+        this.internalEncryptionService = internalEncryptionService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.chunkSize = Math.max(1, chunkSize);
+        this.maxDutyCycle = Math.min(1.0, Math.max(0.01, maxDutyCycle));
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "credential-re-encryption");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void startOnReady() {
+        if (enabled) {
+            start();
+        }
+    }
+
+    /**
+     * Inicia o processo em segundo plano, se ainda não estiver em execução.
+     *
+     * @return true se o processo foi iniciado por esta chamada
+     */
+    public boolean start() {
+        if (!running.compareAndSet(false, true)) {
+            return false;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    run();
+                } catch (Exception e) {
+                    log.error("Recriptografia das senhas internas interrompida por erro: {}", e.getMessage(), e);
+                } finally {
+                    running.set(false);
+                }
+            });
+            return true;
+        } catch (RuntimeException e) {
+            running.set(false);
+            throw e;
+        }
+    }
+
+    public boolean isRunning() {
+        return running.get();
+    }
+
+    /**
+     * Executa a recriptografia na thread chamadora até concluir ou ser interrompida,
+     * retomando do último lote confirmado para a versão ativa.
+     *
+     * @return Progresso ao final da execução
+     */
+    public ReEncryptionCheckpoint run() {
+        int targetVersion = internalEncryptionService.getKeyRing().getActiveKeyId();
+        String currentVersionPattern = internalEncryptionService.currentFormatPattern();
+
+        ReEncryptionCheckpoint checkpoint = checkpointRepository.findById(targetVersion)
+                .orElseGet(() -> new ReEncryptionCheckpoint(targetVersion));
+        if (checkpoint.isCompleted()) {
+            // O formato atual pode ter mudado desde a conclusão (ex.: criptografia envelope habilitada).
+            // As falhas da última passada continuam no formato antigo e não justificam uma nova passada.
+            if (credentialsRepository.countByOriginalPasswordEncryptedNotLike(currentVersionPattern) <= checkpoint.getFailedCount()) {
+                return checkpoint;
+            }
+            checkpoint.setLastCredentialId(null);
+            checkpoint.setCompletedAt(null);
+            checkpoint.setFailedCount(0L); // Recontadas na nova passada
+        }
+        log.info("Recriptografia das senhas internas para a chave versão {} iniciada (última credencial processada: {})",
+                targetVersion, checkpoint.getLastCredentialId());
+
+        while (!stopRequested && !Thread.currentThread().isInterrupted()) {
+            long start = System.nanoTime();
+            ReEncryptionCheckpoint current = checkpoint;
+            checkpoint = transactionTemplate.execute(status -> processChunk(current, currentVersionPattern));
+            if (checkpoint.isCompleted()) {
+                log.info("Recriptografia para a chave versão {} concluída: {} credenciais, {} falhas",
+                        targetVersion, checkpoint.getProcessedCount(), checkpoint.getFailedCount());
+                break;
+            }
+            if (!throttle(System.nanoTime() - start)) {
+                break;
+            }
+        }
+        return checkpoint;
+    }
+
+    /**
+     * Processa um lote e grava o progresso na mesma transação.
+     * Uma credencial que não pode ser descriptografada é mantida como está e contada como falha.
+     */
+    private ReEncryptionCheckpoint processChunk(ReEncryptionCheckpoint checkpoint, String currentVersionPattern) {
+        UUID lastId = checkpoint.getLastCredentialId() != null ? checkpoint.getLastCredentialId() : FIRST_ID;
+        int size = 0;
+        long processed = 0;
+        long failed = 0;
+
+        try (Stream<Credentials> credentials = credentialsRepository.streamForReEncryption(lastId, currentVersionPattern, Limit.of(chunkSize))) {
+            Iterator<Credentials> iterator = credentials.iterator();
+            while (iterator.hasNext()) {
+                Credentials credential = iterator.next();
+                size++;
+                lastId = credential.getId();
+                try (SecretBuffer originalPassword = internalEncryptionService.decryptToBuffer(credential.getOriginalPasswordEncrypted())) {
+                    credential.reEncryptOriginalPassword(internalEncryptionService.encryptSecret(originalPassword));
+                    processed++;
+                } catch (RuntimeException e) {
+                    failed++;
+                    log.warn("Credencial {} não recriptografada: {}", credential.getId(), e.getMessage());
+                }
+            }
+        }
+
+        if (size > 0) {
+            checkpoint.setLastCredentialId(lastId);
+        }
+        checkpoint.setProcessedCount(checkpoint.getProcessedCount() + processed);
+        checkpoint.setFailedCount(checkpoint.getFailedCount() + failed);
+        if (size < chunkSize) {
+            checkpoint.setCompletedAt(LocalDateTime.now());
+        }
+        return checkpointRepository.save(checkpoint);
+    }
+
+    /**
+     * Pausa de modo que o processo ocupe no máximo a fração configurada do tempo.
+     * Com o banco mais lento por causa do tráfego, os lotes demoram mais e as pausas crescem junto.
+     *
+     * @return false se a thread foi interrompida
+     */
+    private boolean throttle(long chunkNanos) {
+        long pauseNanos = (long) (chunkNanos * (1.0 - maxDutyCycle) / maxDutyCycle);
+        if (pauseNanos <= 0) {
+            return true;
+        }
+        try {
+            TimeUnit.NANOSECONDS.sleep(pauseNanos);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        stopRequested = true;
+        executor.shutdownNow();
+    }
+}
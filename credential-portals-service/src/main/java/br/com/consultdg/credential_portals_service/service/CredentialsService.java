@@ -1,24 +1,54 @@
 package br.com.consultdg.credential_portals_service.service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HexFormat;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import br.com.consultdg.credential_portals_service.api.model.BasicCredentialsResponseDTO;
+import br.com.consultdg.credential_portals_service.api.model.CredentialsPatchRequestDTO;
 import br.com.consultdg.credential_portals_service.api.model.CredentialsRequestDTO;
 import br.com.consultdg.credential_portals_service.api.model.CredentialsResponseDTO;
 import br.com.consultdg.credential_portals_service.api.model.CredentialsWithEncryptedPasswordDTO;
+import br.com.consultdg.credential_portals_service.api.model.HybridCredentialsResponseDTO;
+import br.com.consultdg.credential_portals_service.api.model.KeysetPageDTO;
+import br.com.consultdg.credential_portals_service.api.model.PasswordVerificationItemDTO;
+import br.com.consultdg.credential_portals_service.api.model.PasswordVerificationResultDTO;
 import br.com.consultdg.credential_portals_service.model.Credentials;
-import br.com.consultdg.credential_portals_service.model.ConsumerPublicKey;
 import br.com.consultdg.credential_portals_service.repository.CredentialsRepository;
+import br.com.consultdg.credential_portals_service.service.ConsumerKeyRegistry.RegisteredKey;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 @Service
 public class CredentialsService {
 
+    private static final Logger log = LoggerFactory.getLogger(CredentialsService.class);
+
+    // Motivo devolvido ao consumidor; o erro real fica apenas no log
+    static final String ENCRYPTION_FAILED_MESSAGE = "Não foi possível criptografar as senhas desta credencial";
+
     @Autowired
     private CredentialsRepository credentialsRepository;
 
@@ -29,16 +59,61 @@ public class CredentialsService {
     private RSAEncryptionService rsaEncryptionService;
 
     @Autowired
-    private ConsumerPublicKeyService consumerPublicKeyService;
+    private EciesEncryptionService eciesEncryptionService;
+
+    @Autowired
+    private ConsumerKeyRegistry consumerKeyRegistry;
 
     @Autowired
     private InternalEncryptionService internalEncryptionService;
 
+    @Autowired
+    private HybridEncryptionService hybridEncryptionService;
+
+    @Autowired
+    private BulkEncryptionEngine bulkEncryptionEngine;
+
+    @Autowired
+    private ConsumerCiphertextCache consumerCiphertextCache;
+
+    @Autowired
+    private BatchPasswordVerifier batchPasswordVerifier;
+
+    @Autowired
+    private KeysetPagination keysetPagination;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Autowired(required = false)
+    private PasswordHashQueue passwordHashQueue;
+
     public List<CredentialsResponseDTO> findAll() {
-        return credentialsRepository.findAllActive()
-                .stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+        return credentialsRepository.findAllActiveResponses();
+    }
+
+    /**
+     * Lista as credenciais ativas paginadas por cursor, em ordem de criação.
+     *
+     * @param cursor Cursor da página anterior; nulo para a primeira página
+     * @param size Tamanho da página; nulo para o padrão
+     * @param sort "asc" ou "desc"; nulo para "asc"
+     * @throws IllegalArgumentException se o cursor, o tamanho ou a ordem forem inválidos
+     */
+    public KeysetPageDTO<CredentialsResponseDTO> findPage(String cursor, Integer size, String sort) {
+        return keysetPagination.page(cursor, size, sort, new KeysetPagination.PageQueries<CredentialsResponseDTO>() {
+            @Override
+            public List<CredentialsResponseDTO> first(boolean descending, Limit limit) {
+                return descending ? credentialsRepository.findActivePageDesc(limit) : credentialsRepository.findActivePage(limit);
+            }
+
+            @Override
+            public List<CredentialsResponseDTO> after(boolean descending, LocalDateTime createdAt, UUID id, Limit limit) {
+                return descending
+                        ? credentialsRepository.findActivePageBefore(createdAt, id, limit)
+                        : credentialsRepository.findActivePageAfter(createdAt, id, limit);
+            }
+        }, CredentialsResponseDTO::getCreatedAt, CredentialsResponseDTO::getId, Function.identity());
     }
 
     public Optional<CredentialsResponseDTO> findById(UUID id) {
@@ -49,8 +124,9 @@ public class CredentialsService {
 
     public CredentialsResponseDTO create(CredentialsRequestDTO requestDTO) {
         Credentials credentials = toEntity(requestDTO);
-        encryptPasswordIfNeeded(credentials);
+        boolean hashDeferred = encryptPasswordIfNeeded(credentials);
         credentials = credentialsRepository.save(credentials);
+        submitPasswordHash(credentials, hashDeferred);
         return toResponseDTO(credentials);
     }
 
@@ -59,8 +135,33 @@ public class CredentialsService {
                 .filter(credential -> credential.getActive())
                 .map(existingCredentials -> {
                     updateEntityFromDTO(existingCredentials, requestDTO);
-                    encryptPasswordIfNeeded(existingCredentials);
-                    return credentialsRepository.save(existingCredentials);
+                    boolean hashDeferred = encryptPasswordIfNeeded(existingCredentials);
+                    Credentials savedCredentials = credentialsRepository.save(existingCredentials);
+                    submitPasswordHash(savedCredentials, hashDeferred);
+                    consumerCiphertextCache.invalidateCredential(id);
+                    return savedCredentials;
+                })
+                .map(this::toResponseDTO);
+    }
+
+    /**
+     * Atualização parcial: aplica apenas os campos informados que diferem dos atuais.
+     * A senha só passa pela criptografia (AES e BCrypt) se for diferente da atual, comparada com a
+     * cópia AES; sem nenhuma alteração, nada é gravado. Com {@code @DynamicUpdate} na entidade,
+     * o UPDATE inclui apenas as colunas alteradas.
+     */
+    public Optional<CredentialsResponseDTO> patch(UUID id, CredentialsPatchRequestDTO patchDTO) {
+        return credentialsRepository.findById(id)
+                .filter(credential -> credential.getActive())
+                .map(existingCredentials -> {
+                    if (!applyPatch(existingCredentials, patchDTO)) {
+                        return existingCredentials;
+                    }
+                    boolean hashDeferred = existingCredentials.isPasswordChanged() && encryptPasswordIfNeeded(existingCredentials);
+                    Credentials savedCredentials = credentialsRepository.save(existingCredentials);
+                    submitPasswordHash(savedCredentials, hashDeferred);
+                    consumerCiphertextCache.invalidateCredential(id);
+                    return savedCredentials;
                 })
                 .map(this::toResponseDTO);
     }
@@ -72,21 +173,18 @@ public class CredentialsService {
                     credentials.setActive(false);
                     credentials.setDeletedAt(LocalDateTime.now());
                     credentialsRepository.save(credentials);
+                    consumerCiphertextCache.invalidateCredential(id);
                     return true;
                 })
                 .orElse(false);
     }
 
     public Optional<CredentialsResponseDTO> findByCnpj(String cnpj) {
-        return credentialsRepository.findByCnpjAndActive(cnpj)
-                .map(this::toResponseDTO);
+        return credentialsRepository.findByCnpjAndActive(cnpj);
     }
 
     public List<CredentialsResponseDTO> findByNameMall(String nameMall) {
-        return credentialsRepository.findByNameMallAndActive(nameMall)
-                .stream()
-                .map(this::toResponseDTO)
-                .collect(Collectors.toList());
+        return credentialsRepository.findByNameMallAndActive(nameMall);
     }
 
     private Credentials toEntity(CredentialsRequestDTO requestDTO) {
@@ -109,7 +207,62 @@ public class CredentialsService {
         credentials.setUsername(requestDTO.getUsername());
         credentials.setPassword(requestDTO.getPassword());
         credentials.setPasswordOfInvoice(requestDTO.getPasswordOfInvoice());
-        credentials.setActive(requestDTO.getActive() != null ? requestDTO.getActive() : credentials.getActive());
+        if (requestDTO.getActive() != null) {
+            changeActive(credentials, requestDTO.getActive());
+        }
+    }
+
+    /**
+     * Aplica os campos informados na atualização parcial.
+     *
+     * @return true se algum campo foi alterado
+     */
+    private boolean applyPatch(Credentials credentials, CredentialsPatchRequestDTO patchDTO) {
+        boolean changed = patchField(patchDTO.getNameMall(), credentials.getNameMall(), credentials::setNameMall);
+        changed |= patchField(patchDTO.getCnpj(), credentials.getCnpj(), credentials::setCnpj);
+        changed |= patchField(patchDTO.getUrlPortal(), credentials.getUrlPortal(), credentials::setUrlPortal);
+        changed |= patchField(patchDTO.getUsername(), credentials.getUsername(), credentials::setUsername);
+        changed |= patchField(patchDTO.getPasswordOfInvoice(), credentials.getPasswordOfInvoice(), credentials::setPasswordOfInvoice);
+        changed |= patchField(patchDTO.getActive(), credentials.getActive(), active -> changeActive(credentials, active));
+
+        if (patchDTO.getPassword() != null && !isCurrentPassword(credentials, patchDTO.getPassword())) {
+            credentials.setPassword(patchDTO.getPassword());
+            credentials.markPasswordAsChanged();
+            changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * Ativa ou desativa a credencial mantendo {@code deletedAt} coerente com {@link #delete(UUID)}:
+     * preenchido ao desativar e limpo ao reativar.
+     */
+    private static void changeActive(Credentials credentials, boolean active) {
+        if (active == Boolean.TRUE.equals(credentials.getActive())) {
+            return;
+        }
+        credentials.setActive(active);
+        credentials.setDeletedAt(active ? null : LocalDateTime.now());
+    }
+
+    private static <T> boolean patchField(T value, T current, Consumer<T> setter) {
+        if (value == null || value.equals(current)) {
+            return false;
+        }
+        setter.accept(value);
+        return true;
+    }
+
+    /**
+     * Compara a senha informada com a atual usando a cópia AES; sem ela, recorre ao hash BCrypt.
+     */
+    private boolean isCurrentPassword(Credentials credentials, String plainPassword) {
+        if (credentials.getOriginalPasswordEncrypted() != null) {
+            try (SecretBuffer currentPassword = internalEncryptionService.decryptToBuffer(credentials.getOriginalPasswordEncrypted())) {
+                return currentPassword.matches(plainPassword);
+            }
+        }
+        return passwordEncryptionService.verifyPassword(plainPassword, passwordHashOf(credentials));
     }
 
     private CredentialsResponseDTO toResponseDTO(Credentials credentials) {
@@ -129,22 +282,36 @@ public class CredentialsService {
 
     /**
      * Criptografa a senha se necessário antes de salvar no banco de dados.
+     * Com o {@link PasswordHashQueue} disponível, o hash BCrypt fica pendente e é calculado em segundo plano.
      * 
      * @param credentials A entidade de credenciais
+     * @return true se o hash BCrypt deve ser agendado após salvar
      */
-    private void encryptPasswordIfNeeded(Credentials credentials) {
+    private boolean encryptPasswordIfNeeded(Credentials credentials) {
         if (credentials.getPassword() != null && 
-            (credentials.isPasswordChanged() || !credentials.isPasswordEncrypted())) {
+            (credentials.isPasswordChanged() || (!credentials.isPasswordEncrypted() && !credentials.isPasswordHashPending()))) {
             
             // Salva uma cópia da senha original criptografada com AES (reversível)
             String originalPasswordEncrypted = internalEncryptionService.encrypt(credentials.getPassword());
             credentials.setOriginalPasswordEncrypted(originalPasswordEncrypted);
+
+            if (passwordHashQueue != null) {
+                credentials.markPasswordHashPending();
+                return true;
+            }
             
             // Criptografa a senha com BCrypt (irreversível para verificação)
             String encryptedPassword = passwordEncryptionService.encryptPassword(credentials.getPassword());
             credentials.setPassword(encryptedPassword);
             credentials.markPasswordAsProcessed();
         }
+        return false;
+    }
+
+    private void submitPasswordHash(Credentials credentials, boolean hashDeferred) {
+        if (hashDeferred) {
+            passwordHashQueue.submit(credentials.getId(), credentials.getOriginalPasswordEncrypted());
+        }
     }
 
     /**
@@ -157,10 +324,94 @@ public class CredentialsService {
     public boolean verifyPassword(UUID id, String plainPassword) {
         return credentialsRepository.findById(id)
                 .filter(credential -> credential.getActive())
-                .map(credential -> passwordEncryptionService.verifyPassword(plainPassword, credential.getPassword()))
+                .map(credential -> verifyPassword(credential, plainPassword))
                 .orElse(false);
     }
 
+    /**
+     * Verifica várias senhas de uma vez. As credenciais são carregadas em uma única consulta
+     * ({@code IN}) e as verificações BCrypt rodam em paralelo no {@link BatchPasswordVerifier};
+     * cada resultado é entregue assim que termina, na thread chamadora.
+     *
+     * @param items Pares (ID da credencial, senha em texto plano)
+     * @param onResult Destino de cada resultado
+     * @throws IllegalArgumentException se o lote estiver vazio ou exceder o limite
+     */
+    public void verifyPasswords(List<PasswordVerificationItemDTO> items, Consumer<PasswordVerificationResultDTO> onResult) {
+        checkPasswordVerificationBatch(items);
+        Set<UUID> ids = items.stream()
+                .map(PasswordVerificationItemDTO::getId)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toSet());
+        Map<UUID, Credentials> credentialsById = credentialsRepository.findAllById(ids).stream()
+                .filter(credential -> credential.getActive())
+                .collect(Collectors.toMap(Credentials::getId, Function.identity()));
+
+        List<Callable<PasswordVerificationResultDTO>> verifications = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            int index = i;
+            PasswordVerificationItemDTO item = items.get(i);
+            Credentials credential = item.getId() != null ? credentialsById.get(item.getId()) : null;
+            verifications.add(() -> {
+                if (credential == null) {
+                    return new PasswordVerificationResultDTO(index, item.getId(), false, false);
+                }
+                boolean valid;
+                try {
+                    valid = item.getPassword() != null && verifyPassword(credential, item.getPassword());
+                } catch (RuntimeException e) {
+                    log.warn("Erro ao verificar senha da credencial {}: {}", credential.getId(), e.getMessage());
+                    valid = false;
+                }
+                return new PasswordVerificationResultDTO(index, item.getId(), true, valid);
+            });
+        }
+        batchPasswordVerifier.forEachCompleted(verifications, onResult);
+    }
+
+    /**
+     * Valida o lote de verificação antes de iniciar a resposta.
+     *
+     * @throws IllegalArgumentException se o lote estiver vazio ou exceder o limite
+     */
+    public void checkPasswordVerificationBatch(List<PasswordVerificationItemDTO> items) {
+        batchPasswordVerifier.checkBatchSize(items == null ? 0 : items.size());
+    }
+
+    /**
+     * Verifica a senha contra o hash da credencial, regravando o hash se o custo do BCrypt mudou.
+     */
+    private boolean verifyPassword(Credentials credential, String plainPassword) {
+        String passwordHash = passwordHashOf(credential);
+        boolean valid = passwordEncryptionService.verifyPassword(plainPassword, passwordHash);
+        if (valid && passwordEncryptionService.needsRehash(passwordHash)) {
+            upgradePasswordHash(credential, passwordHash, plainPassword);
+        }
+        return valid;
+    }
+
+    /**
+     * Hash BCrypt da credencial, esperando ou calculando na hora se ainda estiver pendente.
+     */
+    private String passwordHashOf(Credentials credential) {
+        if (credential.isPasswordHashPending() && passwordHashQueue != null) {
+            return passwordHashQueue.awaitHash(credential);
+        }
+        return credential.getPassword();
+    }
+
+    /**
+     * Regrava o hash com o custo atual do BCrypt, em segundo plano quando o {@link PasswordHashQueue} está disponível.
+     * A fila recebe a cópia AES da senha; sem ela, o hash é recalculado na hora.
+     */
+    private void upgradePasswordHash(Credentials credential, String currentHash, String plainPassword) {
+        if (passwordHashQueue != null && credential.getOriginalPasswordEncrypted() != null) {
+            passwordHashQueue.submitRehash(credential.getId(), currentHash, credential.getOriginalPasswordEncrypted());
+            return;
+        }
+        credentialsRepository.replacePasswordHash(credential.getId(), currentHash, passwordEncryptionService.encryptPassword(plainPassword));
+    }
+
     /**
      * Busca uma credencial por ID e retorna com a senha criptografada para o consumidor especificado.
      * 
@@ -171,67 +422,125 @@ public class CredentialsService {
      */
     public Optional<CredentialsWithEncryptedPasswordDTO> findByIdWithEncryptedPassword(UUID id, String consumerIdentifier) {
         // Busca a chave pública válida do consumidor
-        Optional<ConsumerPublicKey> consumerKey = consumerPublicKeyService.findValidKeyByConsumerIdentifier(consumerIdentifier);
-        
-        if (consumerKey.isEmpty()) {
-            throw new IllegalArgumentException("Consumidor não possui chave pública válida: " + consumerIdentifier);
-        }
+        RegisteredKey consumerKey = findValidConsumerKey(consumerIdentifier);
 
         return credentialsRepository.findById(id)
                 .filter(credential -> credential.getActive())
-                .map(credential -> {
-                    try {
-                        // Descriptografa a senha original armazenada e criptografa com RSA para o consumidor
-                        String originalPassword = internalEncryptionService.decrypt(credential.getOriginalPasswordEncrypted());
-                        String encryptedForConsumer = rsaEncryptionService.encrypt(originalPassword, consumerKey.get().getPublicKey());
-                        
-                        // Criptografa também a senha da nota fiscal se ela existir
-                        String encryptedPasswordOfInvoiceForConsumer = null;
-                        if (credential.getPasswordOfInvoice() != null && !credential.getPasswordOfInvoice().isEmpty()) {
-                            encryptedPasswordOfInvoiceForConsumer = rsaEncryptionService.encrypt(credential.getPasswordOfInvoice(), consumerKey.get().getPublicKey());
-                        }
-                        
-                        return toEncryptedPasswordDTO(credential, encryptedForConsumer, encryptedPasswordOfInvoiceForConsumer, consumerIdentifier);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Erro ao criptografar senha para consumidor: " + e.getMessage(), e);
-                    }
-                });
+                .map(credential -> encryptForConsumer(credential, consumerKey));
     }
 
     /**
      * Lista todas as credenciais com senhas criptografadas para o consumidor especificado.
+     * A criptografia é distribuída entre os núcleos pelo {@link BulkEncryptionEngine}, mantendo a ordem;
+     * credenciais que falham vêm sem as senhas e com o motivo em {@code error}.
      * 
      * @param consumerIdentifier Identificador do consumidor autorizado
      * @return Lista de credenciais com senhas criptografadas
      */
     public List<CredentialsWithEncryptedPasswordDTO> findAllWithEncryptedPassword(String consumerIdentifier) {
         // Busca a chave pública válida do consumidor
-        Optional<ConsumerPublicKey> consumerKey = consumerPublicKeyService.findValidKeyByConsumerIdentifier(consumerIdentifier);
-        
-        if (consumerKey.isEmpty()) {
-            throw new IllegalArgumentException("Consumidor não possui chave pública válida: " + consumerIdentifier);
+        RegisteredKey consumerKey = findValidConsumerKey(consumerIdentifier);
+
+        return bulkEncryptionEngine.map(consumerIdentifier, credentialsRepository.findAllActive(),
+                credential -> encryptForConsumer(credential, consumerKey),
+                (credential, error) -> failedCredential(credential, consumerKey, error));
+    }
+
+    /**
+     * Lista todas as credenciais ativas no formato básico dos robôs, com as senhas criptografadas
+     * para o consumidor especificado.
+     *
+     * @param consumerIdentifier Identificador do consumidor autorizado
+     * @return Lista de credenciais básicas com senhas criptografadas
+     * @throws IllegalArgumentException se o consumidor não possui chave pública válida
+     */
+    public List<BasicCredentialsResponseDTO> findAllBasicWithEncryptedPassword(String consumerIdentifier) {
+        RegisteredKey consumerKey = findValidConsumerKey(consumerIdentifier);
+
+        return bulkEncryptionEngine.map(consumerIdentifier, credentialsRepository.findAllActive(),
+                credential -> toBasicDTO(encryptForConsumer(credential, consumerKey)),
+                this::failedBasicCredential);
+    }
+
+    /**
+     * Entrega as credenciais ativas, com as senhas criptografadas para o consumidor, uma a uma e na
+     * ordem da leitura. As linhas são lidas do banco sob demanda e criptografadas em paralelo em uma
+     * janela limitada, então nem a lista completa nem a resposta inteira ficam em memória.
+     *
+     * @param consumerIdentifier Identificador do consumidor autorizado
+     * @param sink Destino de cada credencial
+     * @throws IllegalArgumentException se o consumidor não possui chave pública válida
+     */
+    @Transactional(readOnly = true)
+    public void streamWithEncryptedPassword(String consumerIdentifier, Consumer<BasicCredentialsResponseDTO> sink) {
+        RegisteredKey consumerKey = findValidConsumerKey(consumerIdentifier);
+
+        try (Stream<Credentials> credentials = credentialsRepository.streamAllActive()) {
+            // Fora do contexto de persistência, as entidades já lidas podem ser coletadas
+            Iterator<Credentials> detached = credentials.peek(entityManager::detach).iterator();
+            bulkEncryptionEngine.forEachOrdered(consumerIdentifier, detached,
+                    credential -> toBasicDTO(encryptForConsumer(credential, consumerKey)),
+                    this::failedBasicCredential, sink);
         }
+    }
 
-        return credentialsRepository.findAllActive()
-                .stream()
-                .map(credential -> {
-                    try {
-                        // Descriptografa a senha original armazenada e criptografa com RSA para o consumidor
-                        String originalPassword = internalEncryptionService.decrypt(credential.getOriginalPasswordEncrypted());
-                        String encryptedForConsumer = rsaEncryptionService.encrypt(originalPassword, consumerKey.get().getPublicKey());
-                        
-                        // Criptografa também a senha da nota fiscal se ela existir
-                        String encryptedPasswordOfInvoiceForConsumer = null;
-                        if (credential.getPasswordOfInvoice() != null && !credential.getPasswordOfInvoice().isEmpty()) {
-                            encryptedPasswordOfInvoiceForConsumer = rsaEncryptionService.encrypt(credential.getPasswordOfInvoice(), consumerKey.get().getPublicKey());
-                        }
-                        
-                        return toEncryptedPasswordDTO(credential, encryptedForConsumer, encryptedPasswordOfInvoiceForConsumer, consumerIdentifier);
-                    } catch (Exception e) {
-                        throw new RuntimeException("Erro ao criptografar senha para consumidor: " + e.getMessage(), e);
-                    }
-                })
-                .collect(Collectors.toList());
+    /**
+     * Lista todas as credenciais no modo de criptografia híbrida para o consumidor especificado.
+     * Uma única operação com a chave do consumidor (RSA ou ECIES) protege a chave de sessão;
+     * as senhas são criptografadas com AES-GCM.
+     * 
+     * @param consumerIdentifier Identificador do consumidor autorizado
+     * @return Resposta com a chave de sessão protegida e as credenciais criptografadas
+     * @throws IllegalArgumentException se o consumidor não possui chave pública válida
+     */
+    public HybridCredentialsResponseDTO findAllWithHybridEncryption(String consumerIdentifier) {
+        RegisteredKey consumerKey = findValidConsumerKey(consumerIdentifier);
+
+        HybridEncryptionService.Session session;
+        try {
+            session = hybridEncryptionService.openSession(consumerKey.getPublicKey());
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao gerar chave de sessão para consumidor: " + e.getMessage(), e);
+        }
+
+        List<BasicCredentialsResponseDTO> credentials = bulkEncryptionEngine.map(consumerIdentifier, credentialsRepository.findAllActive(),
+                credential -> encryptWithSession(credential, session),
+                this::failedBasicCredential);
+
+        return new HybridCredentialsResponseDTO(
+                HybridEncryptionService.ENCRYPTION_MODE,
+                consumerKey.getKeyAlgorithm().getKeyEncryptionTransformation(),
+                HybridEncryptionService.DATA_TRANSFORMATION,
+                session.getWrappedKey(),
+                credentials
+        );
+    }
+
+    /**
+     * Calcula a versão (ETag) da listagem de credenciais para o consumidor, sem criptografar nada.
+     * Muda quando uma credencial ativa é criada, alterada ou removida, ou quando a chave do consumidor muda.
+     *
+     * @param consumerIdentifier Identificador do consumidor autorizado
+     * @param encryptionMode Modo de criptografia da resposta
+     * @return ETag forte, entre aspas
+     * @throws IllegalArgumentException se o consumidor não possui chave pública válida
+     */
+    public String credentialsETag(String consumerIdentifier, String encryptionMode) {
+        RegisteredKey consumerKey = findValidConsumerKey(consumerIdentifier);
+
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException("Erro ao calcular versão da listagem: " + e.getMessage(), e);
+        }
+        digest.update((consumerIdentifier + '|' + encryptionMode.toLowerCase() + '|' + consumerKey.getUpdatedAt() + '|')
+                .getBytes(StandardCharsets.UTF_8));
+        digest.update(consumerKey.getPublicKey().getEncoded());
+        for (Object[] version : credentialsRepository.findActiveVersions()) {
+            digest.update(('|' + String.valueOf(version[0]) + '@' + version[1]).getBytes(StandardCharsets.UTF_8));
+        }
+        return '"' + HexFormat.of().formatHex(digest.digest(), 0, 16) + '"';
     }
 
     /**
@@ -243,20 +552,132 @@ public class CredentialsService {
      * @return Senha criptografada com a chave pública do consumidor
      */
     public String encryptPasswordForConsumer(String plainPassword, String consumerIdentifier) {
-        Optional<ConsumerPublicKey> consumerKey = consumerPublicKeyService.findValidKeyByConsumerIdentifier(consumerIdentifier);
-        
-        if (consumerKey.isEmpty()) {
-            throw new IllegalArgumentException("Consumidor não possui chave pública válida: " + consumerIdentifier);
-        }
+        RegisteredKey consumerKey = findValidConsumerKey(consumerIdentifier);
 
         try {
-            return rsaEncryptionService.encrypt(plainPassword, consumerKey.get().getPublicKey());
+            return encryptForKey(plainPassword, consumerKey);
         } catch (Exception e) {
             throw new RuntimeException("Erro ao criptografar senha para consumidor: " + e.getMessage(), e);
         }
     }
 
-    private CredentialsWithEncryptedPasswordDTO toEncryptedPasswordDTO(Credentials credentials, String encryptedPassword, String encryptedPasswordOfInvoice, String consumerIdentifier) {
+    /**
+     * Retorna a credencial com as senhas criptografadas para o consumidor, reaproveitando
+     * os textos cifrados do {@link ConsumerCiphertextCache} enquanto credencial e chave não mudarem.
+     */
+    private CredentialsWithEncryptedPasswordDTO encryptForConsumer(Credentials credential, RegisteredKey consumerKey) {
+        ConsumerCiphertextCache.EncryptedPasswords encrypted = consumerCiphertextCache.get(consumerKey, credential,
+                () -> encryptPasswordsForConsumer(credential, consumerKey));
+        return toEncryptedPasswordDTO(credential, encrypted.getPassword(), encrypted.getPasswordOfInvoice(), consumerKey);
+    }
+
+    /**
+     * Descriptografa a senha original armazenada e a criptografa com a chave pública do consumidor,
+     * junto com a senha da nota fiscal, quando existir.
+     */
+    private ConsumerCiphertextCache.EncryptedPasswords encryptPasswordsForConsumer(Credentials credential, RegisteredKey consumerKey) {
+        // A senha original fica fora do heap e é zerada ao final, sem virar String
+        try (SecretBuffer originalPassword = internalEncryptionService.decryptToBuffer(credential.getOriginalPasswordEncrypted())) {
+            String encryptedForConsumer = encryptForKey(originalPassword, consumerKey);
+
+            // Criptografa também a senha da nota fiscal se ela existir
+            String encryptedPasswordOfInvoiceForConsumer = null;
+            if (credential.getPasswordOfInvoice() != null && !credential.getPasswordOfInvoice().isEmpty()) {
+                encryptedPasswordOfInvoiceForConsumer = encryptForKey(credential.getPasswordOfInvoice(), consumerKey);
+            }
+
+            return new ConsumerCiphertextCache.EncryptedPasswords(encryptedForConsumer, encryptedPasswordOfInvoiceForConsumer);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao criptografar senha para consumidor: " + e.getMessage(), e);
+        }
+    }
+
+    /**
+     * Criptografa um valor com a chave do consumidor, conforme o algoritmo registrado (RSA ou ECIES).
+     */
+    private String encryptForKey(String data, RegisteredKey consumerKey) throws Exception {
+        if (consumerKey.getKeyAlgorithm() == ConsumerKeyAlgorithm.RSA) {
+            return rsaEncryptionService.encrypt(data, consumerKey.getPublicKey());
+        }
+        return eciesEncryptionService.encrypt(data, consumerKey.getPublicKey());
+    }
+
+    private String encryptForKey(SecretBuffer data, RegisteredKey consumerKey) throws Exception {
+        if (consumerKey.getKeyAlgorithm() == ConsumerKeyAlgorithm.RSA) {
+            return rsaEncryptionService.encryptSecret(data, consumerKey.getPublicKey());
+        }
+        return eciesEncryptionService.encryptSecret(data, consumerKey.getPublicKey());
+    }
+
+    /**
+     * Descriptografa a senha original armazenada e a criptografa com a chave de sessão da resposta.
+     */
+    private BasicCredentialsResponseDTO encryptWithSession(Credentials credential, HybridEncryptionService.Session session) {
+        try (SecretBuffer originalPassword = internalEncryptionService.decryptToBuffer(credential.getOriginalPasswordEncrypted())) {
+            String encryptedPassword = session.encryptSecret(originalPassword);
+
+            String encryptedPasswordOfInvoice = null;
+            if (credential.getPasswordOfInvoice() != null && !credential.getPasswordOfInvoice().isEmpty()) {
+                encryptedPasswordOfInvoice = session.encrypt(credential.getPasswordOfInvoice());
+            }
+
+            return new BasicCredentialsResponseDTO(
+                    credential.getUrlPortal(),
+                    credential.getUsername(),
+                    encryptedPassword,
+                    encryptedPasswordOfInvoice,
+                    credential.getNameMall()
+            );
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao criptografar senha para consumidor: " + e.getMessage(), e);
+        }
+    }
+
+    private static BasicCredentialsResponseDTO toBasicDTO(CredentialsWithEncryptedPasswordDTO credential) {
+        return new BasicCredentialsResponseDTO(
+                credential.getUrlPortal(),
+                credential.getUsername(),
+                credential.getEncryptedPassword(),
+                credential.getEncryptedPasswordOfInvoice(),
+                credential.getNameMall()
+        );
+    }
+
+    /**
+     * Uma credencial que falha na criptografia continua na listagem em lote, sem as senhas e com o
+     * motivo em {@code error}: o consumidor distingue a falha de um portal inexistente, e a listagem
+     * continua coerente com a versão (ETag), que inclui todas as credenciais ativas.
+     */
+    private CredentialsWithEncryptedPasswordDTO failedCredential(Credentials credential, RegisteredKey consumerKey, Exception error) {
+        logFailedCredential(credential, error);
+        CredentialsWithEncryptedPasswordDTO failed = toEncryptedPasswordDTO(credential, null, null, consumerKey);
+        failed.setError(ENCRYPTION_FAILED_MESSAGE);
+        return failed;
+    }
+
+    private BasicCredentialsResponseDTO failedBasicCredential(Credentials credential, Exception error) {
+        logFailedCredential(credential, error);
+        BasicCredentialsResponseDTO failed = new BasicCredentialsResponseDTO(
+                credential.getUrlPortal(), credential.getUsername(), null, null, credential.getNameMall());
+        failed.setError(ENCRYPTION_FAILED_MESSAGE);
+        return failed;
+    }
+
+    private static void logFailedCredential(Credentials credential, Exception error) {
+        log.warn("Credencial {} listada sem senhas: erro na criptografia: {}", credential.getId(), error.getMessage());
+    }
+
+    /**
+     * Obtém a chave pública válida do consumidor a partir do registro em memória.
+     *
+     * @throws IllegalArgumentException se o consumidor não possui chave pública válida
+     */
+    private RegisteredKey findValidConsumerKey(String consumerIdentifier) {
+        return consumerKeyRegistry.findValidKey(consumerIdentifier)
+                .orElseThrow(() -> new IllegalArgumentException("Consumidor não possui chave pública válida: " + consumerIdentifier));
+    }
+
+    private CredentialsWithEncryptedPasswordDTO toEncryptedPasswordDTO(Credentials credentials, String encryptedPassword, String encryptedPasswordOfInvoice, RegisteredKey consumerKey) {
         return new CredentialsWithEncryptedPasswordDTO(
                 credentials.getId(),
                 credentials.getNameMall(),
@@ -265,8 +686,8 @@ public class CredentialsService {
                 credentials.getUsername(),
                 encryptedPassword,
                 encryptedPasswordOfInvoice,
-                consumerIdentifier,
-                "RSA",
+                consumerKey.getConsumerIdentifier(),
+                consumerKey.getKeyAlgorithm().getEncryptionAlgorithm(),
                 credentials.getCreatedAt(),
                 credentials.getUpdatedAt(),
                 credentials.getDeletedAt(),
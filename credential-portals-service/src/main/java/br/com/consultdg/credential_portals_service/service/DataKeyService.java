@@ -0,0 +1,222 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import br.com.consultdg.credential_portals_service.model.DataKey;
+import br.com.consultdg.credential_portals_service.repository.DataKeyRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gerencia as chaves de dados da criptografia envelope das senhas internas.
+ * <p>
+ * Novos valores são criptografados com a chave de dados ativa, trocada após um número máximo de
+ * usos ou uma idade máxima. Cada chave de dados é guardada protegida pela chave mestra do
+ * {@link InternalKeyRing}; as chaves já abertas ficam em cache por tempo limitado, de modo que a
+ * leitura normalmente não acessa o banco nem a chave mestra.
+ * <p>
+ * Uma nova chave de dados é gravada na sua própria transação, confirmada antes de a chave ser
+ * usada: se a transação de quem pediu a chave for desfeita, a chave continua no banco e os valores
+ * criptografados com ela continuam legíveis.
+ */
+@Service
+public class DataKeyService {
+
+    private static final Logger log = LoggerFactory.getLogger(DataKeyService.class);
+
+    private static final int DATA_KEY_SIZE = 256;
+
+    private final DataKeyRepository dataKeyRepository;
+    private final InternalKeyRing keyRing;
+    private final TransactionTemplate newTransaction;
+    private final long maxUsesPerKey;
+    private final Duration maxKeyAge;
+    private final Cache<UUID, SecretKey> unwrappedKeys;
+
+    private volatile ActiveDataKey activeKey;
+
+    public DataKeyService(DataKeyRepository dataKeyRepository, InternalKeyRing keyRing,
+                          PlatformTransactionManager transactionManager,
+                          @Value("${credentials.data-keys.max-uses:100000}") long maxUsesPerKey,
+                          @Value("${credentials.data-keys.max-age:30d}") Duration maxKeyAge,
+                          @Value("${credentials.data-keys.cache.maximum-size:10000}") long cacheMaximumSize,
+                          @Value("${credentials.data-keys.cache.expire-after-write:1h}") Duration cacheExpireAfterWrite) {
+        this.dataKeyRepository = dataKeyRepository;
+        this.keyRing = keyRing;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.maxUsesPerKey = Math.max(1, maxUsesPerKey);
+        this.maxKeyAge = maxKeyAge;
+        this.unwrappedKeys = Caffeine.newBuilder()
+                .maximumSize(cacheMaximumSize)
+                .expireAfterWrite(cacheExpireAfterWrite)
+                .recordStats()
+                .build();
+    }
+
+    @Autowired(required = false)
+    void bindMetrics(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, unwrappedKeys, "internal-data-keys");
+    }
+
+    /**
+     * Chave de dados para criptografar um novo valor. Cada chamada conta como um uso da chave.
+     */
+    public ActiveDataKey activeKey() {
+        ActiveDataKey current = activeKey;
+        if (current != null && current.tryUse(maxUsesPerKey) && !isExpired(current.getCreatedAt())) {
+            return current;
+        }
+        return rollOver(current);
+    }
+
+    /**
+     * Chave de dados de um valor já criptografado.
+     *
+     * @throws IllegalArgumentException se a chave de dados não existir
+     */
+    public SecretKey getKey(UUID dataKeyId) {
+        return unwrappedKeys.get(dataKeyId, id -> unwrap(dataKeyRepository.findById(id)
+                .orElseThrow(() -> new IllegalArgumentException("Chave de dados não encontrada: " + id))));
+    }
+
+    /**
+     * Protege novamente com a chave mestra ativa as chaves de dados protegidas por versões anteriores.
+     * As senhas criptografadas com essas chaves de dados não são alteradas.
+     *
+     * @return Quantidade de chaves de dados atualizadas
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public int rewrapDataKeys() {
+        List<DataKey> outdated = dataKeyRepository.findByMasterKeyVersionNot(keyRing.getActiveKeyId());
+        int rewrapped = 0;
+        for (DataKey dataKey : outdated) {
+            try {
+                byte[] keyMaterial = keyRing.unwrap(dataKey.getWrappedKey());
+                dataKey.setWrappedKey(keyRing.wrap(keyMaterial));
+                dataKey.setMasterKeyVersion(keyRing.getActiveKeyId());
+                dataKeyRepository.save(dataKey);
+                rewrapped++;
+            } catch (Exception e) {
+                log.warn("Chave de dados {} não protegida novamente: {}", dataKey.getId(), e.getMessage());
+            }
+        }
+        if (rewrapped > 0) {
+            log.info("{} chaves de dados protegidas com a chave mestra versão {}", rewrapped, keyRing.getActiveKeyId());
+        }
+        return rewrapped;
+    }
+
+    public InternalKeyRing getKeyRing() {
+        return keyRing;
+    }
+
+    public long cachedKeys() {
+        unwrappedKeys.cleanUp();
+        return unwrappedKeys.estimatedSize();
+    }
+
+    /**
+     * Troca a chave ativa. Na primeira chamada, reaproveita a chave mais recente do banco se ainda estiver dentro da idade máxima.
+     */
+    private synchronized ActiveDataKey rollOver(ActiveDataKey exhausted) {
+        ActiveDataKey current = activeKey;
+        if (current != exhausted && current != null && current.tryUse(maxUsesPerKey) && !isExpired(current.getCreatedAt())) {
+            return current;
+        }
+
+        if (current == null) {
+            DataKey latest = dataKeyRepository.findFirstByOrderByCreatedAtDesc().orElse(null);
+            if (latest != null && !isExpired(latest.getCreatedAt())) {
+                activeKey = new ActiveDataKey(latest.getId(), getKey(latest.getId()), latest.getCreatedAt());
+                activeKey.tryUse(maxUsesPerKey);
+                return activeKey;
+            }
+        }
+
+        activeKey = createDataKey();
+        activeKey.tryUse(maxUsesPerKey);
+        return activeKey;
+    }
+
+    private ActiveDataKey createDataKey() {
+        try {
+            KeyGenerator keyGenerator = KeyGenerator.getInstance("AES");
+            keyGenerator.init(DATA_KEY_SIZE);
+            SecretKey key = keyGenerator.generateKey();
+
+            DataKey newDataKey = new DataKey(keyRing.wrap(key.getEncoded()), keyRing.getActiveKeyId());
+            // Confirmada independentemente da transação de quem chamou (ex.: lote do CredentialReEncryptionJob)
+            DataKey dataKey = newTransaction.execute(status -> dataKeyRepository.save(newDataKey));
+            unwrappedKeys.put(dataKey.getId(), key);
+            LocalDateTime createdAt = dataKey.getCreatedAt() != null ? dataKey.getCreatedAt() : LocalDateTime.now();
+            return new ActiveDataKey(dataKey.getId(), key, createdAt);
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao gerar chave de dados: " + e.getMessage(), e);
+        }
+    }
+
+    private SecretKey unwrap(DataKey dataKey) {
+        try {
+            return new SecretKeySpec(keyRing.unwrap(dataKey.getWrappedKey()), "AES");
+        } catch (Exception e) {
+            throw new RuntimeException("Erro ao abrir chave de dados " + dataKey.getId() + ": " + e.getMessage(), e);
+        }
+    }
+
+    private boolean isExpired(LocalDateTime createdAt) {
+        return createdAt.plus(maxKeyAge).isBefore(LocalDateTime.now());
+    }
+
+    /**
+     * Chave de dados em uso para novos valores.
+     */
+    public static final class ActiveDataKey {
+
+        private final UUID id;
+        private final SecretKey key;
+        private final LocalDateTime createdAt;
+        private final AtomicLong uses = new AtomicLong();
+
+        ActiveDataKey(UUID id, SecretKey key, LocalDateTime createdAt) {
+            this.id = id;
+            this.key = key;
+            this.createdAt = createdAt;
+        }
+
+        public UUID getId() {
+            return id;
+        }
+
+        public SecretKey getKey() {
+            return key;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        boolean tryUse(long maxUses) {
+            return uses.incrementAndGet() <= maxUses;
+        }
+    }
+}
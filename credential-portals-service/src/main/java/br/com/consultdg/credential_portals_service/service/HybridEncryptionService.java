@@ -0,0 +1,171 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Cipher;
+import javax.crypto.KeyGenerator;
+import javax.crypto.SecretKey;
+import javax.crypto.spec.GCMParameterSpec;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Serviço de criptografia híbrida (envelope) para respostas em lote.
+ * Gera uma chave de sessão AES-GCM por resposta, protegida uma única vez com a chave
+ * pública do consumidor (RSA ou ECIES), e criptografa cada senha simetricamente com essa chave.
+ */
+@Service
+public class HybridEncryptionService {
+
+    public static final String ENCRYPTION_MODE = "hybrid";
+    public static final String DATA_TRANSFORMATION = "AES/GCM/NoPadding";
+
+    private static final String AES_ALGORITHM = "AES";
+    private static final int SESSION_KEY_SIZE = 256;
+    private static final int IV_LENGTH = 12;
+    private static final int TAG_LENGTH_BITS = 128;
+
+    private final SecureRandom secureRandom = new SecureRandom();
+    private final CipherPool cipherPool = CipherPool.shared();
+
+    @Autowired
+    private RSAEncryptionService rsaEncryptionService;
+
+    @Autowired
+    private EciesEncryptionService eciesEncryptionService;
+
+    /**
+     * Abre uma nova sessão: gera a chave AES e a criptografa com a chave pública do consumidor.
+     *
+     * @param publicKey Chave pública do consumidor (RSA, X25519 ou P-256)
+     * @return Sessão pronta para criptografar os campos da resposta
+     * @throws Exception se houver erro na geração ou proteção da chave
+     */
+    public Session openSession(PublicKey publicKey) throws Exception {
+        KeyGenerator keyGenerator = KeyGenerator.getInstance(AES_ALGORITHM);
+        keyGenerator.init(SESSION_KEY_SIZE, secureRandom);
+        SecretKey sessionKey = keyGenerator.generateKey();
+
+        String wrappedKey = ConsumerKeyAlgorithm.fromKey(publicKey) == ConsumerKeyAlgorithm.RSA
+                ? rsaEncryptionService.encryptBytes(sessionKey.getEncoded(), publicKey)
+                : eciesEncryptionService.encryptBytes(sessionKey.getEncoded(), publicKey);
+        return new Session(sessionKey, wrappedKey);
+    }
+
+    /**
+     * Recupera a chave de sessão a partir da chave protegida, usando a chave privada do consumidor.
+     *
+     * @param wrappedKey Chave de sessão criptografada com a chave pública do consumidor (Base64)
+     * @param privateKey Chave privada do consumidor
+     * @return Chave de sessão AES
+     * @throws Exception se houver erro na descriptografia
+     */
+    public SecretKey unwrapSessionKey(String wrappedKey, PrivateKey privateKey) throws Exception {
+        byte[] keyBytes = ConsumerKeyAlgorithm.fromKey(privateKey) == ConsumerKeyAlgorithm.RSA
+                ? rsaEncryptionService.decryptBytes(wrappedKey, privateKey)
+                : eciesEncryptionService.decryptBytes(wrappedKey, privateKey);
+        return new SecretKeySpec(keyBytes, AES_ALGORITHM);
+    }
+
+    /**
+     * Descriptografa um campo criptografado com a chave de sessão.
+     *
+     * @param encryptedData IV concatenado ao texto cifrado, em Base64
+     * @param sessionKey Chave de sessão AES
+     * @return Texto original
+     * @throws Exception se houver erro na descriptografia
+     */
+    public String decrypt(String encryptedData, SecretKey sessionKey) throws Exception {
+        if (encryptedData == null || encryptedData.trim().isEmpty()) {
+            throw new IllegalArgumentException("Dados criptografados não podem ser nulos ou vazios");
+        }
+
+        byte[] payload = Base64.getDecoder().decode(encryptedData);
+        byte[] decryptedData = cipherPool.execute(DATA_TRANSFORMATION, cipher -> {
+            cipher.init(Cipher.DECRYPT_MODE, sessionKey, new GCMParameterSpec(TAG_LENGTH_BITS, payload, 0, IV_LENGTH));
+            return cipher.doFinal(payload, IV_LENGTH, payload.length - IV_LENGTH);
+        });
+        return new String(decryptedData, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Sessão de criptografia de uma resposta. Cada campo recebe um IV aleatório próprio.
+     */
+    public final class Session {
+
+        private final SecretKey sessionKey;
+        private final String wrappedKey;
+
+        private Session(SecretKey sessionKey, String wrappedKey) {
+            this.sessionKey = sessionKey;
+            this.wrappedKey = wrappedKey;
+        }
+
+        /**
+         * Chave de sessão criptografada com a chave pública do consumidor (Base64).
+         */
+        public String getWrappedKey() {
+            return wrappedKey;
+        }
+
+        /**
+         * Criptografa um campo com a chave de sessão.
+         *
+         * @param data Texto a ser criptografado
+         * @return IV concatenado ao texto cifrado, em Base64
+         * @throws Exception se houver erro na criptografia
+         */
+        public String encrypt(String data) throws Exception {
+            if (data == null || data.trim().isEmpty()) {
+                throw new IllegalArgumentException("Dados para criptografia não podem ser nulos ou vazios");
+            }
+            return encryptBytes(data.getBytes(StandardCharsets.UTF_8));
+        }
+
+        /**
+         * Criptografa bytes arbitrários com a chave de sessão.
+         *
+         * @param data Bytes a serem criptografados
+         * @return IV concatenado ao texto cifrado, em Base64
+         * @throws Exception se houver erro na criptografia
+         */
+        public String encryptBytes(byte[] data) throws Exception {
+            return encrypt(ByteBuffer.wrap(data));
+        }
+
+        /**
+         * Criptografa um valor secreto com a chave de sessão, sem convertê-lo em String.
+         *
+         * @param data Valor a ser criptografado; não é descartado por este método
+         * @return IV concatenado ao texto cifrado, em Base64
+         * @throws Exception se houver erro na criptografia
+         */
+        public String encryptSecret(SecretBuffer data) throws Exception {
+            if (data == null || data.isEmpty()) {
+                throw new IllegalArgumentException("Dados para criptografia não podem ser nulos ou vazios");
+            }
+            return encrypt(data.contents());
+        }
+
+        private String encrypt(ByteBuffer data) throws Exception {
+            byte[] iv = new byte[IV_LENGTH];
+            secureRandom.nextBytes(iv);
+
+            byte[] payload = cipherPool.execute(DATA_TRANSFORMATION, cipher -> {
+                cipher.init(Cipher.ENCRYPT_MODE, sessionKey, new GCMParameterSpec(TAG_LENGTH_BITS, iv));
+
+                byte[] output = new byte[IV_LENGTH + cipher.getOutputSize(data.remaining())];
+                System.arraycopy(iv, 0, output, 0, IV_LENGTH);
+                cipher.doFinal(data, ByteBuffer.wrap(output, IV_LENGTH, output.length - IV_LENGTH));
+                return output;
+            });
+            return Base64.getEncoder().encodeToString(payload);
+        }
+    }
+}
@@ -1,61 +1,202 @@
 package br.com.consultdg.credential_portals_service.service;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.Cipher;
+import javax.crypto.SecretKey;
 import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.util.Base64;
+import java.util.Map;
+import java.util.UUID;
 
 /**
  * Serviço responsável pela criptografia simétrica interna.
  * Usado para armazenar senhas de forma reversível para posterior criptografia com RSA dos consumidores.
+ * <p>
+ * Formatos (todos com AES-GCM, exceto o legado):
+ * <ul>
+ *   <li>{@code d:<id da chave de dados>:Base64(IV || texto cifrado || tag)} — criptografia envelope com
+ *       uma chave de dados do {@link DataKeyService}; é o formato usado para novos valores na aplicação.</li>
+ *   <li>{@code v<versão>:Base64(...)} — criptografado diretamente com a chave mestra do {@link InternalKeyRing};
+ *       usado quando não há {@link DataKeyService} (ex.: testes unitários).</li>
+ *   <li>Sem prefixo — formato legado (AES/ECB com a chave fixa), apenas para leitura.</li>
+ * </ul>
+ * O prefixo identifica a chave e é autenticado junto com o texto cifrado.
  */
 @Service
 public class InternalEncryptionService {
 
     private static final String ALGORITHM = "AES";
-    private static final String TRANSFORMATION = "AES";
-    
+    private static final String LEGACY_TRANSFORMATION = "AES";
+    public static final String TRANSFORMATION = AesGcmCodec.TRANSFORMATION;
+    public static final String ENVELOPE_PREFIX = "d:";
+
     // Chave fixa para demonstração - em produção, deve ser gerenciada de forma segura
     private static final String INTERNAL_KEY = "MySecretKey12345"; // 16 bytes para AES-128
+    private static final SecretKeySpec LEGACY_KEY = new SecretKeySpec(INTERNAL_KEY.getBytes(StandardCharsets.UTF_8), ALGORITHM);
+
+    private final CipherPool cipherPool = CipherPool.shared();
+    private final InternalKeyRing keyRing;
+
+    private volatile DataKeyService dataKeyService;
+
+    /**
+     * Sem chaves configuradas, a versão 1 usa o mesmo material da chave fixa legada.
+     */
+    public InternalEncryptionService() {
+        this(defaultKeyRing());
+    }
+
+    @Autowired
+    public InternalEncryptionService(InternalKeyRing keyRing) {
+        this.keyRing = keyRing;
+    }
+
+    public InternalEncryptionService(String keys, int activeKeyId) {
+        this(keys.isBlank() ? defaultKeyRing() : InternalKeyRing.parse(keys, activeKeyId));
+    }
+
+    /**
+     * Conjunto de chaves usado quando nenhuma chave é configurada: a chave fixa como versão 1.
+     */
+    public static InternalKeyRing defaultKeyRing() {
+        return new InternalKeyRing(Map.of(1, LEGACY_KEY), 1);
+    }
+
+    @Autowired(required = false)
+    void bindDataKeys(DataKeyService dataKeyService) {
+        this.dataKeyService = dataKeyService;
+    }
 
     /**
-     * Criptografa uma senha usando AES.
-     * 
+     * Criptografa uma senha com AES-GCM, usando a chave de dados ativa (ou a chave mestra ativa,
+     * se não houver chaves de dados).
+     *
      * @param plainPassword A senha em texto plano
-     * @return A senha criptografada em Base64
+     * @return A senha criptografada, com o prefixo que identifica a chave
      */
     public String encrypt(String plainPassword) {
+        try (SecretBuffer plain = SecretBuffer.of(plainPassword)) {
+            return encryptSecret(plain);
+        }
+    }
+
+    /**
+     * Criptografa uma senha guardada em um {@link SecretBuffer}, sem convertê-la em {@code String}.
+     *
+     * @param plainPassword A senha em texto plano; não é descartada por este método
+     * @return A senha criptografada, com o prefixo que identifica a chave
+     */
+    public String encryptSecret(SecretBuffer plainPassword) {
         try {
-            SecretKeySpec secretKey = new SecretKeySpec(INTERNAL_KEY.getBytes(StandardCharsets.UTF_8), ALGORITHM);
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKey);
-            
-            byte[] encryptedBytes = cipher.doFinal(plainPassword.getBytes(StandardCharsets.UTF_8));
-            return Base64.getEncoder().encodeToString(encryptedBytes);
+            DataKeyService dataKeys = dataKeyService;
+            if (dataKeys != null) {
+                DataKeyService.ActiveDataKey dataKey = dataKeys.activeKey();
+                return AesGcmCodec.seal(ENVELOPE_PREFIX + dataKey.getId() + ":", dataKey.getKey(), plainPassword.contents());
+            }
+            return AesGcmCodec.seal(InternalKeyRing.header(keyRing.getActiveKeyId()), keyRing.getActiveKey(), plainPassword.contents());
         } catch (Exception e) {
             throw new RuntimeException("Erro ao criptografar senha internamente: " + e.getMessage(), e);
         }
     }
 
     /**
-     * Descriptografa uma senha usando AES.
-     * 
-     * @param encryptedPassword A senha criptografada em Base64
+     * Descriptografa uma senha em qualquer um dos formatos.
+     * A chave é escolhida pelo prefixo, sem tentativas com outras chaves.
+     *
+     * @param encryptedPassword A senha criptografada
      * @return A senha em texto plano
      */
     public String decrypt(String encryptedPassword) {
+        try (SecretBuffer plain = decryptToBuffer(encryptedPassword)) {
+            return StandardCharsets.UTF_8.decode(plain.contents()).toString();
+        }
+    }
+
+    /**
+     * Descriptografa uma senha para um {@link SecretBuffer}, que deve ser fechado pelo chamador.
+     * Usado quando a senha só passa para outra criptografia e não precisa virar {@code String}.
+     *
+     * @param encryptedPassword A senha criptografada
+     * @return A senha em texto plano, fora do heap
+     */
+    public SecretBuffer decryptToBuffer(String encryptedPassword) {
         try {
-            SecretKeySpec secretKey = new SecretKeySpec(INTERNAL_KEY.getBytes(StandardCharsets.UTF_8), ALGORITHM);
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.DECRYPT_MODE, secretKey);
-            
-            byte[] encryptedBytes = Base64.getDecoder().decode(encryptedPassword);
-            byte[] decryptedBytes = cipher.doFinal(encryptedBytes);
-            return new String(decryptedBytes, StandardCharsets.UTF_8);
+            if (isEnvelope(encryptedPassword)) {
+                return decryptEnvelope(encryptedPassword);
+            }
+
+            int keyId = keyVersionOf(encryptedPassword);
+            if (keyId == 0) {
+                return decryptLegacy(encryptedPassword);
+            }
+
+            return AesGcmCodec.openToBuffer(InternalKeyRing.header(keyId), keyRing.getKey(keyId), encryptedPassword);
         } catch (Exception e) {
             throw new RuntimeException("Erro ao descriptografar senha internamente: " + e.getMessage(), e);
         }
     }
+
+    /**
+     * Versão da chave mestra usada diretamente em um valor criptografado.
+     *
+     * @param encryptedPassword A senha criptografada
+     * @return Versão da chave, ou 0 para valores no formato legado (AES/ECB)
+     * @throws IllegalArgumentException se o prefixo de versão for inválido ou o valor usar chave de dados
+     */
+    public int keyVersionOf(String encryptedPassword) {
+        if (isEnvelope(encryptedPassword)) {
+            throw new IllegalArgumentException("Valor protegido por chave de dados, sem versão de chave mestra");
+        }
+        return InternalKeyRing.versionOf(encryptedPassword);
+    }
+
+    public boolean isEnvelope(String encryptedPassword) {
+        return encryptedPassword.startsWith(ENVELOPE_PREFIX);
+    }
+
+    /**
+     * Padrão LIKE dos valores já no formato usado para novas criptografias.
+     * Valores fora dele são migrados pelo {@link CredentialReEncryptionJob}.
+     */
+    public String currentFormatPattern() {
+        return dataKeyService != null ? ENVELOPE_PREFIX + "%" : InternalKeyRing.header(keyRing.getActiveKeyId()) + "%";
+    }
+
+    public InternalKeyRing getKeyRing() {
+        return keyRing;
+    }
+
+    private SecretBuffer decryptEnvelope(String encryptedPassword) throws Exception {
+        DataKeyService dataKeys = dataKeyService;
+        if (dataKeys == null) {
+            throw new IllegalStateException("Chaves de dados indisponíveis");
+        }
+        int separator = encryptedPassword.indexOf(':', ENVELOPE_PREFIX.length());
+        if (separator < 0) {
+            throw new IllegalArgumentException("Prefixo de chave de dados inválido");
+        }
+        UUID dataKeyId = UUID.fromString(encryptedPassword.substring(ENVELOPE_PREFIX.length(), separator));
+        SecretKey key = dataKeys.getKey(dataKeyId);
+        return AesGcmCodec.openToBuffer(encryptedPassword.substring(0, separator + 1), key, encryptedPassword);
+    }
+
+    private SecretBuffer decryptLegacy(String encryptedPassword) throws Exception {
+        byte[] encryptedBytes = Base64.getDecoder().decode(encryptedPassword);
+        return cipherPool.execute(LEGACY_TRANSFORMATION, Cipher.DECRYPT_MODE, LEGACY_KEY, cipher -> {
+            SecretBuffer plain = SecretBuffer.allocate(cipher.getOutputSize(encryptedBytes.length));
+            try {
+                cipher.doFinal(ByteBuffer.wrap(encryptedBytes), plain.buffer());
+                plain.buffer().flip();
+                return plain;
+            } catch (GeneralSecurityException | RuntimeException e) {
+                plain.close();
+                throw e;
+            }
+        });
+    }
 }
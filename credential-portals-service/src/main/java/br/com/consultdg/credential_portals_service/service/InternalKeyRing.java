@@ -0,0 +1,145 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import javax.crypto.SecretKey;
+import javax.crypto.spec.SecretKeySpec;
+import java.security.GeneralSecurityException;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Conjunto imutável das chaves AES da criptografia interna, indexadas pela versão.
+ * <p>
+ * O material das chaves é convertido uma única vez, na criação. Novos valores são sempre
+ * criptografados com a chave ativa; as demais permanecem apenas para leitura de valores antigos.
+ */
+public final class InternalKeyRing {
+
+    private final Map<Integer, SecretKey> keys;
+    private final int activeKeyId;
+    private final SecretKey activeKey;
+
+    public InternalKeyRing(Map<Integer, SecretKey> keys, int activeKeyId) {
+        SecretKey activeKey = keys.get(activeKeyId);
+        if (activeKey == null) {
+            throw new IllegalArgumentException("Chave interna ativa não encontrada: versão " + activeKeyId);
+        }
+        this.keys = Collections.unmodifiableMap(new TreeMap<>(keys));
+        this.activeKeyId = activeKeyId;
+        this.activeKey = activeKey;
+    }
+
+    /**
+     * Monta o conjunto a partir da configuração no formato {@code <versão>:<chave em Base64>,...}.
+     * Cada chave deve ter 16, 24 ou 32 bytes (AES-128, AES-192 ou AES-256).
+     *
+     * @param spec Chaves configuradas
+     * @param activeKeyId Versão usada para criptografar novos valores
+     * @return Conjunto de chaves
+     * @throws IllegalArgumentException se a configuração for inválida
+     */
+    public static InternalKeyRing parse(String spec, int activeKeyId) {
+        Map<Integer, SecretKey> keys = new TreeMap<>();
+        for (String entry : spec.split(",")) {
+            String trimmed = entry.trim();
+            if (trimmed.isEmpty()) {
+                continue;
+            }
+            int separator = trimmed.indexOf(':');
+            if (separator <= 0) {
+                throw new IllegalArgumentException("Chave interna inválida, formato esperado <versão>:<chave em Base64>");
+            }
+            int keyId = parseKeyId(trimmed.substring(0, separator));
+            byte[] material = Base64.getDecoder().decode(trimmed.substring(separator + 1).trim());
+            if (material.length != 16 && material.length != 24 && material.length != 32) {
+                throw new IllegalArgumentException("Chave interna versão " + keyId + " deve ter 16, 24 ou 32 bytes");
+            }
+            if (keys.putIfAbsent(keyId, new SecretKeySpec(material, "AES")) != null) {
+                throw new IllegalArgumentException("Chave interna versão " + keyId + " configurada mais de uma vez");
+            }
+        }
+        return new InternalKeyRing(keys, activeKeyId);
+    }
+
+    /**
+     * Versão da chave indicada no prefixo {@code v<versão>:} de um valor criptografado.
+     *
+     * @return Versão da chave, ou 0 se o valor não tiver prefixo (formato legado)
+     * @throws IllegalArgumentException se o prefixo de versão for inválido
+     */
+    static int versionOf(String value) {
+        int separator = value.indexOf(':');
+        if (separator < 0) {
+            return 0;
+        }
+        if (separator < 2 || value.charAt(0) != 'v') {
+            throw new IllegalArgumentException("Prefixo de versão inválido");
+        }
+        return parseKeyId(value.substring(1, separator));
+    }
+
+    static String header(int keyId) {
+        return "v" + keyId + ":";
+    }
+
+    /**
+     * Protege uma chave de dados com a chave ativa.
+     *
+     * @param keyMaterial Bytes da chave de dados
+     * @return Chave protegida, no formato {@code v<versão>:Base64(...)}
+     */
+    public String wrap(byte[] keyMaterial) throws GeneralSecurityException {
+        return AesGcmCodec.seal(header(activeKeyId), activeKey, keyMaterial);
+    }
+
+    /**
+     * Recupera uma chave de dados protegida com qualquer versão do conjunto.
+     *
+     * @throws IllegalArgumentException se a versão não estiver configurada ou o formato for inválido
+     */
+    public byte[] unwrap(String wrappedKey) throws GeneralSecurityException {
+        int keyId = versionOf(wrappedKey);
+        if (keyId == 0) {
+            throw new IllegalArgumentException("Chave de dados sem versão da chave mestra");
+        }
+        return AesGcmCodec.open(header(keyId), getKey(keyId), wrappedKey);
+    }
+
+    static int parseKeyId(String value) {
+        try {
+            int keyId = Integer.parseInt(value.trim());
+            if (keyId <= 0) {
+                throw new IllegalArgumentException("Versão de chave interna deve ser positiva: " + value);
+            }
+            return keyId;
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Versão de chave interna inválida: " + value, e);
+        }
+    }
+
+    /**
+     * Chave de uma versão.
+     *
+     * @throws IllegalArgumentException se a versão não estiver configurada
+     */
+    public SecretKey getKey(int keyId) {
+        SecretKey key = keys.get(keyId);
+        if (key == null) {
+            throw new IllegalArgumentException("Chave interna versão " + keyId + " não configurada");
+        }
+        return key;
+    }
+
+    public int getActiveKeyId() {
+        return activeKeyId;
+    }
+
+    public SecretKey getActiveKey() {
+        return activeKey;
+    }
+
+    public boolean contains(int keyId) {
+        return keys.containsKey(keyId);
+    }
+}
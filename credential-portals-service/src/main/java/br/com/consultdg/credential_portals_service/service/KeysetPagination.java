@@ -0,0 +1,141 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import br.com.consultdg.credential_portals_service.api.model.KeysetPageDTO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Paginação por cursor (keyset) das listagens, ordenadas por (createdAt, id).
+ * <p>
+ * Cada página é lida com uma consulta limitada que continua a partir da última linha da página
+ * anterior, sem OFFSET e sem contar a tabela. O cursor é opaco para o cliente: codifica a posição
+ * da última linha e a ordem da listagem, e só vale para a mesma ordem.
+ */
+@Component
+public class KeysetPagination {
+
+    private static final String ASCENDING = "asc";
+    private static final String DESCENDING = "desc";
+
+    /**
+     * Consultas de uma listagem paginada.
+     */
+    public interface PageQueries<E> {
+        List<E> first(boolean descending, Limit limit);
+
+        List<E> after(boolean descending, LocalDateTime createdAt, UUID id, Limit limit);
+    }
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public KeysetPagination(@Value("${credentials.pagination.default-size:50}") int defaultSize,
+                            @Value("${credentials.pagination.max-size:500}") int maxSize) {
+        this.maxSize = Math.max(1, maxSize);
+        this.defaultSize = Math.min(Math.max(1, defaultSize), this.maxSize);
+    }
+
+    /**
+     * Lê uma página.
+     *
+     * @param cursor Cursor recebido na página anterior; nulo ou vazio para a primeira página
+     * @param size Tamanho da página; nulo para o padrão, limitado ao máximo configurado
+     * @param sort "asc" ou "desc" (data de criação); nulo para "asc"
+     * @param queries Consultas da listagem
+     * @param createdAt Data de criação de uma linha
+     * @param id Identificador de uma linha
+     * @param mapper Conversão da linha para o item da página
+     * @throws IllegalArgumentException se o cursor, o tamanho ou a ordem forem inválidos
+     */
+    public <E, T> KeysetPageDTO<T> page(String cursor, Integer size, String sort, PageQueries<E> queries,
+                                        Function<E, LocalDateTime> createdAt, Function<E, UUID> id,
+                                        Function<E, T> mapper) {
+        boolean descending = isDescending(sort);
+        int pageSize = pageSize(size);
+        // Uma linha a mais indica se existe próxima página
+        Limit limit = Limit.of(pageSize + 1);
+
+        List<E> rows;
+        if (cursor == null || cursor.isBlank()) {
+            rows = queries.first(descending, limit);
+        } else {
+            Position position = decode(cursor, descending);
+            rows = queries.after(descending, position.createdAt, position.id, limit);
+        }
+
+        String nextCursor = null;
+        if (rows.size() > pageSize) {
+            rows = rows.subList(0, pageSize);
+            E last = rows.get(pageSize - 1);
+            nextCursor = encode(createdAt.apply(last), id.apply(last), descending);
+        }
+        return new KeysetPageDTO<>(rows.stream().map(mapper).collect(Collectors.toList()), nextCursor);
+    }
+
+    int pageSize(Integer size) {
+        if (size == null) {
+            return defaultSize;
+        }
+        if (size < 1) {
+            throw new IllegalArgumentException("Tamanho de página inválido: " + size);
+        }
+        return Math.min(size, maxSize);
+    }
+
+    static boolean isDescending(String sort) {
+        if (sort == null || sort.isBlank()) {
+            return false;
+        }
+        return switch (sort.trim().toLowerCase(Locale.ROOT)) {
+            case ASCENDING -> false;
+            case DESCENDING -> true;
+            default -> throw new IllegalArgumentException("Ordenação inválida: " + sort + " (use asc ou desc)");
+        };
+    }
+
+    static String encode(LocalDateTime createdAt, UUID id, boolean descending) {
+        String position = createdAt + "|" + id + "|" + (descending ? DESCENDING : ASCENDING);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static Position decode(String cursor, boolean descending) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split("\\|");
+        } catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Cursor inválido");
+        }
+        if (!parts[2].equals(descending ? DESCENDING : ASCENDING)) {
+            throw new IllegalArgumentException("Cursor gerado para outra ordenação");
+        }
+        try {
+            return new Position(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (DateTimeParseException | IllegalArgumentException e) {
+            throw new IllegalArgumentException("Cursor inválido", e);
+        }
+    }
+
+    static final class Position {
+        final LocalDateTime createdAt;
+        final UUID id;
+
+        Position(LocalDateTime createdAt, UUID id) {
+            this.createdAt = createdAt;
+            this.id = id;
+        }
+    }
+}
@@ -1,20 +1,155 @@
 package br.com.consultdg.credential_portals_service.service;
 
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
 /**
  * Serviço responsável pela criptografia e verificação de senhas.
  * Utiliza o algoritmo BCrypt para garantir a segurança das senhas armazenadas.
+ * <p>
+ * O custo do BCrypt é calibrado na inicialização: mede o tempo de um hash no hardware atual e escolhe
+ * o maior custo que cabe na latência alvo, sem ficar abaixo do custo mínimo de segurança. Hashes
+ * gravados com outro custo são recalculados quando a senha é verificada ({@link #needsRehash(String)}).
  */
 @Service
 public class PasswordEncryptionService {
 
-    private final PasswordEncoder passwordEncoder;
+    private static final Logger log = LoggerFactory.getLogger(PasswordEncryptionService.class);
+
+    public static final int DEFAULT_COST = 12;
+    private static final int BCRYPT_MIN_COST = 4;
+    private static final int BCRYPT_MAX_COST = 31;
+    private static final Pattern BCRYPT_HASH = Pattern.compile("^\\$2[abxy]\\$(\\d{2})\\$.{53}$");
+    private static final String CALIBRATION_PASSWORD = "calibracao-do-custo-bcrypt";
+
+    private final boolean calibrateOnStart;
+    private final Duration targetLatency;
+    private final int minCost;
+    private final int maxCost;
+
+    private volatile int cost;
+    private volatile PasswordEncoder passwordEncoder;
 
     public PasswordEncryptionService() {
-        this.passwordEncoder = new BCryptPasswordEncoder(12); // Força 12 (mais seguro)
+        this(DEFAULT_COST); // Força 12 (mais seguro)
+    }
+
+    /**
+     * Custo fixo, sem calibração.
+     */
+    public PasswordEncryptionService(int cost) {
+        this.calibrateOnStart = false;
+        this.targetLatency = null;
+        this.minCost = clampCost(cost);
+        this.maxCost = this.minCost;
+        useCost(this.minCost);
+    }
+
+    /**
+     * @param cost Custo fixo; 0 para calibrar na inicialização
+     * @param targetLatency Tempo máximo desejado para um hash
+     * @param minCost Custo mínimo aceito, mesmo que ultrapasse a latência alvo
+     * @param maxCost Custo máximo, mesmo que o hardware comporte mais
+     */
+    @Autowired
+    public PasswordEncryptionService(@Value("${credentials.bcrypt.cost:0}") int cost,
+                                     @Value("${credentials.bcrypt.target-latency:250ms}") Duration targetLatency,
+                                     @Value("${credentials.bcrypt.min-cost:12}") int minCost,
+                                     @Value("${credentials.bcrypt.max-cost:14}") int maxCost) {
+        this.calibrateOnStart = cost <= 0;
+        this.targetLatency = targetLatency;
+        this.minCost = clampCost(minCost);
+        this.maxCost = Math.max(this.minCost, clampCost(maxCost));
+        useCost(calibrateOnStart ? Math.max(this.minCost, Math.min(DEFAULT_COST, this.maxCost)) : clampCost(cost));
+    }
+
+    @PostConstruct
+    void calibrateOnStart() {
+        if (calibrateOnStart) {
+            calibrate();
+        }
+    }
+
+    /**
+     * Mede o tempo de um hash com o custo mínimo e escolhe o maior custo cuja estimativa
+     * (o tempo dobra a cada unidade de custo) cabe na latência alvo.
+     *
+     * @return Custo escolhido
+     */
+    public int calibrate() {
+        if (targetLatency == null) {
+            return cost;
+        }
+        // Aquecimento, para a medição não incluir carga de classes e compilação
+        new BCryptPasswordEncoder(BCRYPT_MIN_COST).encode(CALIBRATION_PASSWORD);
+
+        BCryptPasswordEncoder encoder = new BCryptPasswordEncoder(minCost);
+        long estimatedNanos = Long.MAX_VALUE;
+        for (int i = 0; i < 2; i++) {
+            long start = System.nanoTime();
+            encoder.encode(CALIBRATION_PASSWORD);
+            estimatedNanos = Math.min(estimatedNanos, System.nanoTime() - start);
+        }
+
+        int chosen = minCost;
+        long budgetNanos = targetLatency.toNanos();
+        while (chosen < maxCost && estimatedNanos * 2 <= budgetNanos) {
+            chosen++;
+            estimatedNanos *= 2;
+        }
+        useCost(chosen);
+        log.info("Custo do BCrypt calibrado em {} (~{} ms por hash, alvo {} ms)", chosen,
+                TimeUnit.NANOSECONDS.toMillis(estimatedNanos), targetLatency.toMillis());
+        return chosen;
+    }
+
+    /**
+     * Custo usado nos novos hashes.
+     */
+    public int getCost() {
+        return cost;
+    }
+
+    /**
+     * Custo de um hash BCrypt.
+     *
+     * @param encryptedPassword Hash BCrypt
+     * @return Custo, ou -1 se o valor não for um hash BCrypt
+     */
+    public int costOf(String encryptedPassword) {
+        if (encryptedPassword == null) {
+            return -1;
+        }
+        Matcher matcher = BCRYPT_HASH.matcher(encryptedPassword);
+        return matcher.matches() ? Integer.parseInt(matcher.group(1)) : -1;
+    }
+
+    /**
+     * Verifica se um hash BCrypt foi gravado com custo diferente do atual e deve ser recalculado.
+     */
+    public boolean needsRehash(String encryptedPassword) {
+        int hashCost = costOf(encryptedPassword);
+        return hashCost > 0 && hashCost != cost;
+    }
+
+    private void useCost(int cost) {
+        this.passwordEncoder = new BCryptPasswordEncoder(cost);
+        this.cost = cost;
+    }
+
+    private static int clampCost(int cost) {
+        return Math.max(BCRYPT_MIN_COST, Math.min(BCRYPT_MAX_COST, cost));
     }
 
     /**
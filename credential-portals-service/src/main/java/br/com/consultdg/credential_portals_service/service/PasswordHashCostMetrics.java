@@ -0,0 +1,79 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import br.com.consultdg.credential_portals_service.repository.CredentialsRepository;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Distribuição dos hashes BCrypt gravados por custo, para acompanhar a migração para o custo atual
+ * após uma calibração ({@code credentials.password-hash.cost.distribution}, com a tag {@code cost}).
+ */
+@Component
+public class PasswordHashCostMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashCostMetrics.class);
+
+    private final CredentialsRepository credentialsRepository;
+    private final PasswordEncryptionService passwordEncryptionService;
+
+    private volatile MultiGauge distribution;
+
+    public PasswordHashCostMetrics(CredentialsRepository credentialsRepository,
+                                   PasswordEncryptionService passwordEncryptionService) {
+        this.credentialsRepository = credentialsRepository;
+        this.passwordEncryptionService = passwordEncryptionService;
+    }
+
+    @Autowired(required = false)
+    void bindMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("credentials.password-hash.cost.target", passwordEncryptionService, PasswordEncryptionService::getCost)
+                .description("Custo do BCrypt usado nos novos hashes")
+                .register(meterRegistry);
+        distribution = MultiGauge.builder("credentials.password-hash.cost.distribution")
+                .description("Hashes BCrypt gravados por custo")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Quantidade de hashes gravados por custo.
+     */
+    public Map<Integer, Long> costDistribution() {
+        Map<Integer, Long> counts = new TreeMap<>();
+        for (Object[] row : credentialsRepository.countPasswordHashesByCost()) {
+            try {
+                counts.merge(Integer.parseInt(String.valueOf(row[0])), ((Number) row[1]).longValue(), Long::sum);
+            } catch (NumberFormatException e) {
+                // Valor com prefixo de BCrypt sem custo válido
+            }
+        }
+        return counts;
+    }
+
+    @Scheduled(initialDelayString = "${credentials.bcrypt.metrics-refresh:1m}", fixedDelayString = "${credentials.bcrypt.metrics-refresh:1m}")
+    public void refresh() {
+        MultiGauge gauge = distribution;
+        if (gauge == null) {
+            return;
+        }
+        try {
+            List<MultiGauge.Row<?>> rows = costDistribution().entrySet().stream()
+                    .map(entry -> MultiGauge.Row.of(Tags.of("cost", String.valueOf(entry.getKey())), entry.getValue()))
+                    .collect(Collectors.toList());
+            gauge.register(rows, true);
+        } catch (RuntimeException e) {
+            log.warn("Erro ao atualizar a distribuição de custos do BCrypt: {}", e.getMessage());
+        }
+    }
+}
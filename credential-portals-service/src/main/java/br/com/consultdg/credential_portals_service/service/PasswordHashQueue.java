@@ -0,0 +1,261 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import br.com.consultdg.credential_portals_service.model.Credentials;
+import br.com.consultdg.credential_portals_service.repository.CredentialsRepository;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Calcula em segundo plano o hash BCrypt das senhas gravadas, para que as requisições de escrita
+ * não fiquem presas no custo do BCrypt.
+ * <p>
+ * A credencial é salva com {@link Credentials#PENDING_PASSWORD_HASH} e a cópia AES da senha; o pool
+ * dedicado e limitado calcula o hash a partir dessa cópia e o grava se a senha não mudou nesse meio
+ * tempo. Com a fila cheia, o hash é calculado na thread chamadora. Uma verificação de senha com hash
+ * pendente espera o cálculo em andamento ou o executa na hora. Hashes pendentes de uma execução
+ * anterior são retomados na inicialização. O mesmo pool recalcula os hashes gravados com um custo
+ * diferente do atual ({@link PasswordEncryptionService#needsRehash(String)}).
+ */
+@Component
+public class PasswordHashQueue {
+
+    private static final Logger log = LoggerFactory.getLogger(PasswordHashQueue.class);
+
+    private final CredentialsRepository credentialsRepository;
+    private final PasswordEncryptionService passwordEncryptionService;
+    private final InternalEncryptionService internalEncryptionService;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentMap<UUID, HashTask> tasks = new ConcurrentHashMap<>();
+    private final Set<UUID> rehashing = ConcurrentHashMap.newKeySet();
+    private final LongAdder rehashes = new LongAdder();
+
+    private volatile Timer hashTimer;
+    private volatile Timer delayTimer;
+
+    public PasswordHashQueue(CredentialsRepository credentialsRepository,
+                             PasswordEncryptionService passwordEncryptionService,
+                             InternalEncryptionService internalEncryptionService,
+                             @Value("${credentials.password-hash.pool-size:0}") int poolSize,
+                             @Value("${credentials.password-hash.queue-capacity:1000}") int queueCapacity) {
+        this.credentialsRepository = credentialsRepository;
+        this.passwordEncryptionService = passwordEncryptionService;
+        this.internalEncryptionService = internalEncryptionService;
+
+        // Por padrão metade dos núcleos, para o BCrypt não disputar todos com as requisições
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadCounter = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadCounter.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    @Autowired(required = false)
+    void bindMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("credentials.password-hash.queue.depth", executor.getQueue(), BlockingQueue::size)
+                .description("Hashes BCrypt aguardando uma thread do pool")
+                .register(meterRegistry);
+        Gauge.builder("credentials.password-hash.pending", tasks, ConcurrentMap::size)
+                .description("Hashes BCrypt agendados e ainda não concluídos")
+                .register(meterRegistry);
+        FunctionCounter.builder("credentials.password-hash.rehashes", rehashes, LongAdder::sum)
+                .description("Hashes BCrypt recalculados com o custo atual após uma verificação")
+                .register(meterRegistry);
+        hashTimer = Timer.builder("credentials.password-hash.duration")
+                .description("Tempo de cálculo do hash BCrypt")
+                .register(meterRegistry);
+        delayTimer = Timer.builder("credentials.password-hash.delay")
+                .description("Tempo entre o agendamento e a gravação do hash BCrypt")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Agenda o cálculo do hash de uma credencial já salva com o hash pendente.
+     * Um agendamento anterior da mesma credencial que ainda não começou é cancelado.
+     *
+     * @param credentialId ID da credencial
+     * @param originalPasswordEncrypted Cópia AES da senha gravada junto com o hash pendente
+     */
+    public void submit(UUID credentialId, String originalPasswordEncrypted) {
+        HashTask task = new HashTask(credentialId, originalPasswordEncrypted);
+        HashTask previous = tasks.put(credentialId, task);
+        if (previous != null) {
+            previous.cancel(false);
+        }
+        executor.execute(task);
+    }
+
+    /**
+     * Agenda a troca de um hash gravado com custo diferente do atual, após uma verificação bem-sucedida.
+     * Chamadas repetidas para a mesma credencial enquanto a troca não termina são ignoradas.
+     *
+     * A fila guarda apenas a cópia AES da senha, descriptografada pela thread do pool no momento do cálculo.
+     *
+     * @param credentialId ID da credencial
+     * @param currentHash Hash atualmente gravado
+     * @param originalPasswordEncrypted Cópia AES da senha já verificada contra o hash atual
+     */
+    public void submitRehash(UUID credentialId, String currentHash, String originalPasswordEncrypted) {
+        if (executor.isShutdown() || !rehashing.add(credentialId)) {
+            return;
+        }
+        try {
+            executor.execute(() -> {
+                try {
+                    long start = System.nanoTime();
+                    String newHash = passwordEncryptionService.encryptPassword(internalEncryptionService.decrypt(originalPasswordEncrypted));
+                    record(hashTimer, System.nanoTime() - start);
+                    if (credentialsRepository.replacePasswordHash(credentialId, currentHash, newHash) > 0) {
+                        rehashes.increment();
+                    }
+                } catch (RuntimeException e) {
+                    log.warn("Erro ao recalcular hash da senha da credencial {}: {}", credentialId, e.getMessage());
+                } finally {
+                    rehashing.remove(credentialId);
+                }
+            });
+        } catch (RuntimeException e) {
+            rehashing.remove(credentialId);
+            throw e;
+        }
+    }
+
+    /**
+     * Hash BCrypt de uma credencial com o hash pendente. Espera o cálculo agendado, se já estiver
+     * em andamento; caso contrário, calcula na thread chamadora.
+     *
+     * @param credential Credencial lida do banco com o hash pendente
+     * @return Hash BCrypt da senha da credencial
+     */
+    public String awaitHash(Credentials credential) {
+        HashTask task = tasks.get(credential.getId());
+        if (task == null || task.isCancelled()
+                || !task.originalPasswordEncrypted.equals(credential.getOriginalPasswordEncrypted())) {
+            task = new HashTask(credential.getId(), credential.getOriginalPasswordEncrypted());
+        }
+
+        task.run(); // Sem efeito se o pool já iniciou ou concluiu a tarefa
+        try {
+            return task.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Erro ao calcular hash da senha: " + cause.getMessage(), cause);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Cálculo do hash da senha interrompido", e);
+        }
+    }
+
+    /**
+     * Agenda novamente os hashes que ficaram pendentes em uma execução anterior.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumePending() {
+        List<Credentials> pending = credentialsRepository.findWithPendingPasswordHash();
+        if (!pending.isEmpty()) {
+            log.info("Retomando o cálculo de {} hashes de senha pendentes", pending.size());
+        }
+        for (Credentials credential : pending) {
+            if (credential.getOriginalPasswordEncrypted() != null) {
+                submit(credential.getId(), credential.getOriginalPasswordEncrypted());
+            }
+        }
+    }
+
+    /**
+     * Quantidade de hashes agendados e ainda não concluídos.
+     */
+    public int pendingCount() {
+        return tasks.size();
+    }
+
+    /**
+     * Quantidade de hashes aguardando uma thread do pool.
+     */
+    public int queueDepth() {
+        return executor.getQueue().size();
+    }
+
+    private String hash(UUID credentialId, String originalPasswordEncrypted, long submittedAt) {
+        long start = System.nanoTime();
+        String passwordHash = passwordEncryptionService.encryptPassword(internalEncryptionService.decrypt(originalPasswordEncrypted));
+        record(hashTimer, System.nanoTime() - start);
+
+        if (credentialsRepository.completePasswordHash(credentialId, originalPasswordEncrypted, passwordHash) == 0) {
+            log.debug("Hash da senha da credencial {} descartado: senha alterada ou hash já gravado", credentialId);
+        }
+        record(delayTimer, System.nanoTime() - submittedAt);
+        return passwordHash;
+    }
+
+    private static void record(Timer timer, long nanos) {
+        if (timer != null) {
+            timer.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Hashes não concluídos continuam pendentes no banco e são retomados na próxima inicialização
+        executor.shutdownNow();
+    }
+
+    /**
+     * Cálculo do hash de uma versão da senha. Ao terminar, sai do mapa de tarefas se ainda for a mais recente.
+     */
+    private final class HashTask extends FutureTask<String> {
+
+        private final UUID credentialId;
+        private final String originalPasswordEncrypted;
+
+        HashTask(UUID credentialId, String originalPasswordEncrypted) {
+            this(credentialId, originalPasswordEncrypted, System.nanoTime());
+        }
+
+        private HashTask(UUID credentialId, String originalPasswordEncrypted, long submittedAt) {
+            super(() -> hash(credentialId, originalPasswordEncrypted, submittedAt));
+            this.credentialId = credentialId;
+            this.originalPasswordEncrypted = originalPasswordEncrypted;
+        }
+
+        @Override
+        protected void done() {
+            tasks.remove(credentialId, this);
+            if (!isCancelled()) {
+                try {
+                    get();
+                } catch (ExecutionException e) {
+                    log.warn("Erro ao calcular hash da senha da credencial {}: {}", credentialId, e.getCause().getMessage());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+    }
+}
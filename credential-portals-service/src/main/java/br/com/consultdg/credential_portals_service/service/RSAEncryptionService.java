@@ -16,9 +16,11 @@ import java.util.Base64;
 public class RSAEncryptionService {
 
     private static final String RSA_ALGORITHM = "RSA";
-    private static final String RSA_TRANSFORMATION = "RSA/ECB/PKCS1Padding";
+    public static final String RSA_TRANSFORMATION = "RSA/ECB/PKCS1Padding";
     private static final int KEY_SIZE = 2048;
 
+    private final CipherPool cipherPool = CipherPool.shared();
+
     /**
      * Gera um par de chaves RSA (pública e privada).
      * 
@@ -66,7 +68,18 @@ public class RSAEncryptionService {
                 .replaceAll("\\s+", ""); // Remove todos os espaços, quebras de linha, etc.
         
         byte[] keyBytes = Base64.getDecoder().decode(cleanKey);
-        X509EncodedKeySpec spec = new X509EncodedKeySpec(keyBytes);
+        return bytesToPublicKey(keyBytes);
+    }
+
+    /**
+     * Converte os bytes DER (X.509) em chave pública, sem processamento de texto.
+     * 
+     * @param encodedKey Chave pública codificada em DER
+     * @return PublicKey
+     * @throws Exception se houver erro na conversão
+     */
+    public PublicKey bytesToPublicKey(byte[] encodedKey) throws Exception {
+        X509EncodedKeySpec spec = new X509EncodedKeySpec(encodedKey);
         KeyFactory keyFactory = KeyFactory.getInstance(RSA_ALGORITHM);
         return keyFactory.generatePublic(spec);
     }
@@ -106,13 +119,62 @@ public class RSAEncryptionService {
             throw new IllegalArgumentException("Dados para criptografia não podem ser nulos ou vazios");
         }
         
-        Cipher cipher = Cipher.getInstance(RSA_TRANSFORMATION);
-        cipher.init(Cipher.ENCRYPT_MODE, publicKey);
-        
-        byte[] encryptedData = cipher.doFinal(data.getBytes("UTF-8"));
+        return encryptBytes(data.getBytes("UTF-8"), publicKey);
+    }
+
+    /**
+     * Criptografa um valor secreto usando a chave pública, sem convertê-lo em String.
+     * 
+     * @param data O valor a ser criptografado; não é descartado por este método
+     * @param publicKey A chave pública para criptografia
+     * @return String Base64 dos dados criptografados
+     * @throws Exception se houver erro na criptografia
+     */
+    public String encryptSecret(SecretBuffer data, PublicKey publicKey) throws Exception {
+        if (data == null || data.isEmpty()) {
+            throw new IllegalArgumentException("Dados para criptografia não podem ser nulos ou vazios");
+        }
+
+        // O RSA só aceita arrays: a cópia temporária é zerada logo após a criptografia
+        return data.withBytes(bytes -> encryptBytes(bytes, publicKey));
+    }
+
+    /**
+     * Criptografa bytes arbitrários usando a chave pública.
+     * 
+     * @param data Os bytes a serem criptografados
+     * @param publicKey A chave pública para criptografia
+     * @return String Base64 dos dados criptografados
+     * @throws Exception se houver erro na criptografia
+     */
+    public String encryptBytes(byte[] data, PublicKey publicKey) throws Exception {
+        if (data == null || data.length == 0) {
+            throw new IllegalArgumentException("Dados para criptografia não podem ser nulos ou vazios");
+        }
+
+        byte[] encryptedData = cipherPool.execute(RSA_TRANSFORMATION, Cipher.ENCRYPT_MODE, publicKey,
+                cipher -> cipher.doFinal(data));
         return Base64.getEncoder().encodeToString(encryptedData);
     }
 
+    /**
+     * Descriptografa dados usando a chave privada, retornando os bytes originais.
+     * 
+     * @param encryptedData Os dados criptografados em Base64
+     * @param privateKey A chave privada para descriptografia
+     * @return Bytes descriptografados
+     * @throws Exception se houver erro na descriptografia
+     */
+    public byte[] decryptBytes(String encryptedData, PrivateKey privateKey) throws Exception {
+        if (encryptedData == null || encryptedData.trim().isEmpty()) {
+            throw new IllegalArgumentException("Dados criptografados não podem ser nulos ou vazios");
+        }
+
+        byte[] data = Base64.getDecoder().decode(encryptedData);
+        return cipherPool.execute(RSA_TRANSFORMATION, Cipher.DECRYPT_MODE, privateKey,
+                cipher -> cipher.doFinal(data));
+    }
+
     /**
      * Criptografa dados usando a chave pública em formato string.
      * 
@@ -135,15 +197,7 @@ public class RSAEncryptionService {
      * @throws Exception se houver erro na descriptografia
      */
     public String decrypt(String encryptedData, PrivateKey privateKey) throws Exception {
-        if (encryptedData == null || encryptedData.trim().isEmpty()) {
-            throw new IllegalArgumentException("Dados criptografados não podem ser nulos ou vazios");
-        }
-        
-        Cipher cipher = Cipher.getInstance(RSA_TRANSFORMATION);
-        cipher.init(Cipher.DECRYPT_MODE, privateKey);
-        
-        byte[] decodedData = Base64.getDecoder().decode(encryptedData);
-        byte[] decryptedData = cipher.doFinal(decodedData);
+        byte[] decryptedData = decryptBytes(encryptedData, privateKey);
         return new String(decryptedData, "UTF-8");
     }
 
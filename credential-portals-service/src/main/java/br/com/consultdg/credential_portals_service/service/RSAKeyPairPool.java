@@ -0,0 +1,155 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.security.KeyPair;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Pool de pares de chaves RSA pré-gerados para o endpoint de exemplo.
+ * <p>
+ * Uma thread própria, de baixa prioridade, completa o pool até o limite superior sempre que ele
+ * fica abaixo do limite inferior. Cada par é entregue uma única vez; a geração na thread da
+ * requisição só ocorre quando o pool está vazio.
+ */
+@Component
+public class RSAKeyPairPool {
+
+    private static final Logger log = LoggerFactory.getLogger(RSAKeyPairPool.class);
+
+    private final RSAEncryptionService rsaEncryptionService;
+    private final int lowWatermark;
+    private final int highWatermark;
+    private final BlockingQueue<KeyPair> keyPairs;
+    private final ExecutorService refillExecutor;
+    private final AtomicBoolean refillScheduled = new AtomicBoolean();
+    private final LongAdder pooledTakes = new LongAdder();
+    private final LongAdder inlineGenerations = new LongAdder();
+
+    private volatile Timer refillTimer;
+
+    public RSAKeyPairPool(RSAEncryptionService rsaEncryptionService,
+                          @Value("${credentials.rsa-key-pool.low-watermark:2}") int lowWatermark,
+                          @Value("${credentials.rsa-key-pool.high-watermark:8}") int highWatermark) {
+        this.rsaEncryptionService = rsaEncryptionService;
+        this.highWatermark = Math.max(1, highWatermark);
+        this.lowWatermark = Math.max(0, Math.min(lowWatermark, this.highWatermark - 1));
+        this.keyPairs = new LinkedBlockingQueue<>(this.highWatermark);
+        this.refillExecutor = Executors.newSingleThreadExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "rsa-key-pair-refill");
+            thread.setDaemon(true);
+            thread.setPriority(Thread.MIN_PRIORITY);
+            return thread;
+        });
+    }
+
+    @Autowired(required = false)
+    void bindMetrics(MeterRegistry meterRegistry) {
+        Gauge.builder("crypto.rsa.key-pair-pool.size", keyPairs, BlockingQueue::size)
+                .description("Pares de chaves RSA disponíveis no pool")
+                .register(meterRegistry);
+        FunctionCounter.builder("crypto.rsa.key-pair-pool.takes", pooledTakes, LongAdder::sum)
+                .tag("source", "pool")
+                .register(meterRegistry);
+        FunctionCounter.builder("crypto.rsa.key-pair-pool.takes", inlineGenerations, LongAdder::sum)
+                .tag("source", "inline")
+                .register(meterRegistry);
+        refillTimer = Timer.builder("crypto.rsa.key-pair-pool.refill")
+                .description("Tempo para completar o pool até o limite superior")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        requestRefill();
+    }
+
+    /**
+     * Retira um par de chaves do pool. Se o pool estiver vazio, gera o par na thread chamadora.
+     *
+     * @return Par de chaves RSA que não foi entregue a nenhum outro chamador
+     * @throws Exception se houver erro na geração das chaves
+     */
+    public KeyPair take() throws Exception {
+        KeyPair keyPair = keyPairs.poll();
+        if (keyPair == null || keyPairs.size() < lowWatermark) {
+            requestRefill();
+        }
+        if (keyPair != null) {
+            pooledTakes.increment();
+            return keyPair;
+        }
+        inlineGenerations.increment();
+        return rsaEncryptionService.generateKeyPair();
+    }
+
+    /**
+     * Quantidade de pares disponíveis no pool.
+     */
+    public int size() {
+        return keyPairs.size();
+    }
+
+    public int getLowWatermark() {
+        return lowWatermark;
+    }
+
+    public int getHighWatermark() {
+        return highWatermark;
+    }
+
+    private void requestRefill() {
+        if (refillScheduled.compareAndSet(false, true)) {
+            try {
+                refillExecutor.execute(this::refill);
+            } catch (RuntimeException e) {
+                refillScheduled.set(false);
+                log.warn("Não foi possível agendar a geração de pares de chaves RSA: {}", e.getMessage());
+            }
+        }
+    }
+
+    private void refill() {
+        long start = System.nanoTime();
+        try {
+            while (keyPairs.size() < highWatermark && !Thread.currentThread().isInterrupted()) {
+                if (!keyPairs.offer(rsaEncryptionService.generateKeyPair())) {
+                    break;
+                }
+            }
+        } catch (Exception e) {
+            log.warn("Erro ao gerar pares de chaves RSA para o pool: {}", e.getMessage());
+        } finally {
+            Timer timer = refillTimer;
+            if (timer != null) {
+                timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            }
+            refillScheduled.set(false);
+        }
+        // Retiradas feitas durante a finalização da reposição
+        if (keyPairs.size() < lowWatermark && !refillExecutor.isShutdown()) {
+            requestRefill();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refillExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharacterCodingException;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Valor secreto (senha em texto plano, em UTF-8) guardado fora do heap, em um {@link ByteBuffer} direto.
+ * <p>
+ * Usado entre a descriptografia interna e a criptografia para o consumidor, de modo que a senha não
+ * vira {@code String} e não fica em cópias no heap esperando o GC. O conteúdo é zerado no
+ * {@link #close()}; use sempre com try-with-resources. Instâncias não são thread-safe.
+ */
+public final class SecretBuffer implements AutoCloseable {
+
+    private final ByteBuffer buffer;
+    private boolean wiped;
+
+    private SecretBuffer(ByteBuffer buffer) {
+        this.buffer = buffer;
+    }
+
+    /**
+     * Buffer vazio para receber um valor secreto; após a escrita, o limite deve marcar o fim do valor.
+     */
+    static SecretBuffer allocate(int capacity) {
+        return new SecretBuffer(ByteBuffer.allocateDirect(capacity));
+    }
+
+    /**
+     * Codifica um texto em UTF-8 diretamente no buffer, sem criar cópias intermediárias no heap.
+     *
+     * @param value Texto secreto
+     * @return Buffer com o valor
+     */
+    public static SecretBuffer of(CharSequence value) {
+        CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        SecretBuffer secret = allocate((int) Math.ceil(value.length() * (double) encoder.maxBytesPerChar()));
+        try {
+            CoderResult result = encoder.encode(CharBuffer.wrap(value), secret.buffer, true);
+            if (!result.isUnderflow()) {
+                result.throwException();
+            }
+            encoder.flush(secret.buffer);
+            secret.buffer.flip();
+            return secret;
+        } catch (CharacterCodingException e) {
+            secret.close();
+            throw new IllegalArgumentException("Valor secreto inválido", e);
+        }
+    }
+
+    /**
+     * Tamanho do valor em bytes.
+     */
+    public int length() {
+        return buffer().remaining();
+    }
+
+    public boolean isEmpty() {
+        return length() == 0;
+    }
+
+    /**
+     * Visão somente leitura do valor, para APIs que aceitam {@link ByteBuffer} (ex.: AES-GCM).
+     */
+    public ByteBuffer contents() {
+        return buffer().asReadOnlyBuffer();
+    }
+
+    /**
+     * Compara com um texto em tempo constante (para valores do mesmo tamanho), sem convertê-lo em String.
+     */
+    public boolean matches(CharSequence value) {
+        try (SecretBuffer other = of(value)) {
+            ByteBuffer mine = contents();
+            ByteBuffer theirs = other.contents();
+            int diff = mine.remaining() ^ theirs.remaining();
+            for (int i = 0, length = Math.min(mine.remaining(), theirs.remaining()); i < length; i++) {
+                diff |= mine.get(i) ^ theirs.get(i);
+            }
+            return diff == 0;
+        }
+    }
+
+    /**
+     * Entrega o valor em um {@code byte[]} temporário, zerado assim que a função retorna.
+     * Para APIs que só aceitam arrays (ex.: RSA).
+     */
+    public <T> T withBytes(BytesFunction<T> function) throws Exception {
+        byte[] bytes = new byte[length()];
+        try {
+            contents().get(bytes);
+            return function.apply(bytes);
+        } finally {
+            Arrays.fill(bytes, (byte) 0);
+        }
+    }
+
+    /**
+     * Buffer interno, para escrita do valor pelos serviços de criptografia.
+     */
+    ByteBuffer buffer() {
+        if (wiped) {
+            throw new IllegalStateException("Valor secreto já descartado");
+        }
+        return buffer;
+    }
+
+    /**
+     * Zera o conteúdo. Chamadas repetidas não têm efeito.
+     */
+    @Override
+    public void close() {
+        if (wiped) {
+            return;
+        }
+        buffer.clear();
+        while (buffer.hasRemaining()) {
+            buffer.put((byte) 0);
+        }
+        buffer.clear().limit(0);
+        wiped = true;
+    }
+
+    @Override
+    public String toString() {
+        return "SecretBuffer[***]";
+    }
+
+    @FunctionalInterface
+    public interface BytesFunction<T> {
+        T apply(byte[] bytes) throws Exception;
+    }
+}
@@ -0,0 +1,50 @@
+-- Esquema inicial, equivalente ao criado pelo Hibernate (ddl-auto=update) antes das migrações.
+-- Bancos já existentes recebem a linha de base na versão 1 (spring.flyway.baseline-on-migrate)
+-- e não executam este script; as tabelas e colunas adicionadas depois ficam nas migrações
+-- seguintes, que só criam o que ainda não existe.
+
+create table consumer_public_keys (
+    active bit not null,
+    key_size integer not null,
+    created_at datetime(6) not null,
+    expires_at datetime(6),
+    updated_at datetime(6),
+    id binary(16) not null,
+    key_algorithm varchar(20) not null,
+    consumer_identifier varchar(100) not null,
+    consumer_name varchar(100) not null,
+    description varchar(500),
+    public_key TEXT not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table credentials (
+    active bit not null,
+    created_at datetime(6) not null,
+    deleted_at datetime(6),
+    updated_at datetime(6),
+    id binary(16) not null,
+    robot_id binary(16),
+    cnpj varchar(18),
+    username varchar(100) not null,
+    url_portal varchar(500) not null,
+    original_password_encrypted varchar(1000),
+    name_mall varchar(255) not null,
+    password varchar(255) not null,
+    password_of_invoice varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table robots (
+    id binary(16) not null,
+    robot_name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table consumer_public_keys
+   add constraint UK4ilyk8sn0r4rnlrxeg1vsops2 unique (consumer_identifier);
+
+alter table credentials
+   add constraint FKclimcvv95axlxe4k4tf2tuof7
+   foreign key (robot_id)
+   references robots (id);
@@ -0,0 +1,27 @@
+-- Chave pública normalizada (X.509/DER) e seu SHA-256, com índice para busca por fingerprint.
+-- Bancos que passaram por versões com ddl-auto=update já podem ter estes objetos:
+-- cada comando só é executado se o objeto ainda não existir.
+
+set @ddl = if((select count(*) from information_schema.columns
+                 where table_schema = database() and table_name = 'consumer_public_keys' and column_name = 'public_key_der') = 0,
+               'alter table consumer_public_keys add column public_key_der varbinary(1024)',
+               'do 0');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
+
+set @ddl = if((select count(*) from information_schema.columns
+                 where table_schema = database() and table_name = 'consumer_public_keys' and column_name = 'public_key_fingerprint') = 0,
+               'alter table consumer_public_keys add column public_key_fingerprint varchar(64)',
+               'do 0');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
+
+set @ddl = if((select count(*) from information_schema.statistics
+                 where table_schema = database() and table_name = 'consumer_public_keys' and index_name = 'idx_consumer_public_keys_fingerprint') = 0,
+               'create index idx_consumer_public_keys_fingerprint on consumer_public_keys (public_key_fingerprint)',
+               'do 0');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
@@ -0,0 +1,13 @@
+-- Progresso da re-criptografia das senhas internas por versão da chave mestra.
+-- Bancos que passaram por versões com ddl-auto=update já podem ter a tabela.
+
+create table if not exists re_encryption_checkpoints (
+    target_key_version integer not null,
+    completed_at datetime(6),
+    failed_count bigint not null,
+    processed_count bigint not null,
+    started_at datetime(6) not null,
+    updated_at datetime(6),
+    last_credential_id binary(16),
+    primary key (target_key_version)
+) engine=InnoDB;
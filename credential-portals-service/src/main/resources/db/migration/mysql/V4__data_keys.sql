@@ -0,0 +1,11 @@
+-- Chaves de dados da criptografia envelope, protegidas pela chave mestra.
+-- Bancos que passaram por versões com ddl-auto=update já podem ter a tabela.
+
+create table if not exists data_keys (
+    master_key_version integer not null,
+    created_at datetime(6) not null,
+    updated_at datetime(6),
+    id binary(16) not null,
+    wrapped_key varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
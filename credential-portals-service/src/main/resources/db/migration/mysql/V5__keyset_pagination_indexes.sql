@@ -0,0 +1,19 @@
+-- Índices da paginação por cursor (ativas, em ordem de criação e id).
+-- Bancos que passaram por versões com ddl-auto=update já podem ter estes objetos:
+-- cada comando só é executado se o objeto ainda não existir.
+
+set @ddl = if((select count(*) from information_schema.statistics
+                 where table_schema = database() and table_name = 'credentials' and index_name = 'idx_credentials_active_created_at_id') = 0,
+               'create index idx_credentials_active_created_at_id on credentials (active, created_at, id)',
+               'do 0');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
+
+set @ddl = if((select count(*) from information_schema.statistics
+                 where table_schema = database() and table_name = 'consumer_public_keys' and index_name = 'idx_consumer_public_keys_active_created_at_id') = 0,
+               'create index idx_consumer_public_keys_active_created_at_id on consumer_public_keys (active, created_at, id)',
+               'do 0');
+prepare stmt from @ddl;
+execute stmt;
+deallocate prepare stmt;
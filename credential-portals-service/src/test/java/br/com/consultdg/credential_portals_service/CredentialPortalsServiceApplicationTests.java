@@ -1,13 +1,26 @@
 package br.com.consultdg.credential_portals_service;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import br.com.consultdg.credential_portals_service.service.PasswordEncryptionService;
+
 @SpringBootTest
 class CredentialPortalsServiceApplicationTests {
 
+	@Autowired
+	private PasswordEncryptionService passwordEncryptionService;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void calibratedBcryptCostShouldNotGoBelowDefaultCost() {
+		assertTrue(passwordEncryptionService.getCost() >= PasswordEncryptionService.DEFAULT_COST);
+	}
+
 }
@@ -0,0 +1,89 @@
+package br.com.consultdg.credential_portals_service.api.controller;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+import java.security.KeyPairGenerator;
+import java.util.Base64;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import br.com.consultdg.credential_portals_service.api.model.ConsumerPublicKeyRequestDTO;
+import br.com.consultdg.credential_portals_service.service.ConsumerPublicKeyService;
+
+@SpringBootTest(properties = "credentials.re-encryption.enabled=false")
+@AutoConfigureMockMvc
+class ConsumerPublicKeyControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ConsumerPublicKeyService consumerPublicKeyService;
+
+    private String consumerIdentifier;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        consumerIdentifier = "robot-" + UUID.randomUUID();
+        KeyPairGenerator keyPairGenerator = KeyPairGenerator.getInstance("RSA");
+        keyPairGenerator.initialize(2048);
+        consumerPublicKeyService.registerPublicKey(new ConsumerPublicKeyRequestDTO("Robot", consumerIdentifier,
+                Base64.getEncoder().encodeToString(keyPairGenerator.generateKeyPair().getPublic().getEncoded())));
+    }
+
+    @Test
+    void testGetBasicCredentials_ShouldAnswerNotModifiedForWeakListAndWildcardETags() throws Exception {
+        // Arrange
+        String eTag = fetch("/api/consumer-keys/credentials", null).getHeader(HttpHeaders.ETAG);
+
+        // Act & Assert
+        for (String ifNoneMatch : List.of(eTag, "W/" + eTag, "\"outro\", " + eTag, "*")) {
+            MockHttpServletResponse response = fetch("/api/consumer-keys/credentials", ifNoneMatch);
+            assertEquals(304, response.getStatus(), ifNoneMatch);
+            assertEquals(List.of(eTag), response.getHeaders(HttpHeaders.ETAG));
+            assertEquals(0, response.getContentLength());
+        }
+        assertEquals(200, fetch("/api/consumer-keys/credentials", "\"outro\"").getStatus());
+    }
+
+    @Test
+    void testStreamBasicCredentials_ShouldAnswerNotModifiedForWeakETag() throws Exception {
+        // Arrange
+        String eTag = fetch("/api/consumer-keys/credentials/stream", null).getHeader(HttpHeaders.ETAG);
+
+        // Act
+        MockHttpServletResponse response = fetch("/api/consumer-keys/credentials/stream", "W/" + eTag);
+
+        // Assert
+        assertEquals(304, response.getStatus());
+        assertEquals(List.of(eTag), response.getHeaders(HttpHeaders.ETAG));
+    }
+
+    @Test
+    void testGetBasicCredentials_ShouldSendSingleETagWhenModified() throws Exception {
+        // Act
+        MockHttpServletResponse response = fetch("/api/consumer-keys/credentials", "\"outro\"");
+
+        // Assert
+        assertEquals(200, response.getStatus());
+        assertEquals(1, response.getHeaders(HttpHeaders.ETAG).size());
+    }
+
+    private MockHttpServletResponse fetch(String path, String ifNoneMatch) throws Exception {
+        var request = get(path).header("X-Consumer-Identifier", consumerIdentifier);
+        if (ifNoneMatch != null) {
+            request.header(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return mockMvc.perform(request).andReturn().getResponse();
+    }
+}
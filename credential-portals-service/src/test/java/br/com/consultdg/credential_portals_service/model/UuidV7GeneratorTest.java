@@ -0,0 +1,79 @@
+package br.com.consultdg.credential_portals_service.model;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+class UuidV7GeneratorTest {
+
+    @Test
+    void testNext_ShouldEncodeVersionVariantAndCurrentTime() {
+        // Arrange
+        long before = System.currentTimeMillis();
+
+        // Act
+        UUID uuid = UuidV7Generator.next();
+
+        // Assert
+        assertEquals(7, uuid.version());
+        assertEquals(2, uuid.variant());
+        long timestamp = UuidV7Generator.timestampOf(uuid);
+        assertTrue(timestamp >= before && timestamp <= System.currentTimeMillis() + 1);
+    }
+
+    @Test
+    void testNext_ShouldBeStrictlyIncreasingInByteOrder() {
+        // Arrange
+        List<UUID> generated = new ArrayList<>();
+
+        // Act
+        for (int i = 0; i < 100_000; i++) {
+            generated.add(new UuidV7Generator().generateUuid(null));
+        }
+
+        // Assert
+        // Ordem de BINARY(16) no MySQL: bytes sem sinal, da esquerda para a direita
+        for (int i = 1; i < generated.size(); i++) {
+            UUID previous = generated.get(i - 1);
+            UUID current = generated.get(i);
+            int comparison = Long.compareUnsigned(previous.getMostSignificantBits(), current.getMostSignificantBits());
+            assertTrue(comparison < 0, previous + " >= " + current);
+        }
+    }
+
+    @Test
+    void testNext_ShouldNotRepeatAcrossThreads() throws Exception {
+        // Arrange
+        Set<UUID> generated = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+
+        // Act
+        for (int thread = 0; thread < 8; thread++) {
+            executor.execute(() -> {
+                for (int i = 0; i < 20_000; i++) {
+                    generated.add(UuidV7Generator.next());
+                }
+            });
+        }
+        executor.shutdown();
+        assertTrue(executor.awaitTermination(30, TimeUnit.SECONDS));
+
+        // Assert
+        assertEquals(160_000, generated.size());
+    }
+
+    @Test
+    void testTimestampOf_ShouldRejectOtherVersions() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> UuidV7Generator.timestampOf(UUID.randomUUID()));
+    }
+}
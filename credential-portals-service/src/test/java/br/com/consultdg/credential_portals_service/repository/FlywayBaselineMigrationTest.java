@@ -0,0 +1,102 @@
+package br.com.consultdg.credential_portals_service.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.flywaydb.core.Flyway;
+import org.flywaydb.core.api.output.MigrateResult;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Bancos criados antes do Flyway recebem a linha de base na versão 1 e aplicam as migrações
+ * seguintes. Tanto um banco no esquema original quanto um que já passou por versões com
+ * {@code ddl-auto=update} (e já tem parte dos objetos) devem terminar no mesmo esquema de um banco novo.
+ */
+class FlywayBaselineMigrationTest {
+
+    private static final String LOCATION = "classpath:db/migration/h2";
+
+    @Test
+    void testMigrate_ShouldUpgradeBaselinedDatabaseWithOriginalSchema() throws SQLException {
+        // Arrange
+        String url = url("original");
+        migrate(url, "1");
+        dropSchemaHistory(url);
+
+        // Act
+        MigrateResult result = baselineAndMigrate(url);
+
+        // Assert
+        assertEquals(5, result.migrationsExecuted);
+        assertEquals(schemaOf(freshDatabase()), schemaOf(url));
+    }
+
+    @Test
+    void testMigrate_ShouldSkipObjectsAlreadyCreatedByHibernate() throws SQLException {
+        // Arrange
+        String url = url("ddl-update");
+        migrate(url, "5");
+        dropSchemaHistory(url);
+
+        // Act
+        MigrateResult result = baselineAndMigrate(url);
+
+        // Assert
+        assertTrue(result.success);
+        assertEquals(schemaOf(freshDatabase()), schemaOf(url));
+    }
+
+    private String freshDatabase() {
+        String url = url("fresh");
+        migrate(url, "latest");
+        return url;
+    }
+
+    private static String url(String name) {
+        return "jdbc:h2:mem:flyway-" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1";
+    }
+
+    private static void migrate(String url, String target) {
+        Flyway.configure().dataSource(url, "sa", "").locations(LOCATION).target(target).load().migrate();
+    }
+
+    private static MigrateResult baselineAndMigrate(String url) {
+        return Flyway.configure().dataSource(url, "sa", "").locations(LOCATION)
+                .baselineOnMigrate(true).baselineVersion("1").load().migrate();
+    }
+
+    private static void dropSchemaHistory(String url) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            statement.execute("drop table \"flyway_schema_history\"");
+        }
+    }
+
+    // Colunas (com tipo) e índices das tabelas da aplicação
+    private static Set<String> schemaOf(String url) throws SQLException {
+        Set<String> schema = new TreeSet<>();
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            try (ResultSet columns = statement.executeQuery("select table_name, column_name, data_type, is_nullable "
+                    + "from information_schema.columns where table_schema = 'PUBLIC' and table_name <> 'flyway_schema_history'")) {
+                while (columns.next()) {
+                    schema.add(columns.getString(1) + "." + columns.getString(2) + " " + columns.getString(3) + " " + columns.getString(4));
+                }
+            }
+            try (ResultSet indexes = statement.executeQuery("select table_name, index_name "
+                    + "from information_schema.indexes where table_schema = 'PUBLIC' and table_name <> 'flyway_schema_history'")) {
+                while (indexes.next()) {
+                    schema.add(indexes.getString(1) + " index " + indexes.getString(2));
+                }
+            }
+        }
+        return schema;
+    }
+}
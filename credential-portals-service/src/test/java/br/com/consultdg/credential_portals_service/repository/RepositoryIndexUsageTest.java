@@ -0,0 +1,142 @@
+package br.com.consultdg.credential_portals_service.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * Verifica com EXPLAIN (H2, mesmo conjunto de índices das migrações do MySQL) que cada consulta
+ * declarada nos repositórios usa um índice. Cada método declarado precisa ter aqui o SQL equivalente
+ * à sua consulta; um método novo sem entrada faz o teste falhar. As poucas leituras completas
+ * aceitas são declaradas, com o motivo, junto da consulta.
+ */
+@SpringBootTest(properties = "credentials.re-encryption.enabled=false")
+class RepositoryIndexUsageTest {
+
+    private static final String ID = "'3fa85f64-5717-4562-b3fc-2c963f66afa6'";
+    private static final String TIMESTAMP = "TIMESTAMP '2025-01-15 10:30:00'";
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void testCredentialsRepository_EveryQueryShouldUseAnIndex() {
+        Map<String, IndexedQuery> queries = new LinkedHashMap<>();
+        queries.put("findAllActive", query("SELECT * FROM credentials WHERE active = TRUE"));
+        queries.put("findAllActiveResponses", query("SELECT id, name_mall, cnpj, url_portal, username, password_of_invoice, "
+                + "created_at, updated_at, deleted_at, active FROM credentials WHERE active = TRUE"));
+        queries.put("streamAllActive", query("SELECT * FROM credentials WHERE active = TRUE ORDER BY id"));
+        queries.put("findActivePage", query("SELECT * FROM credentials WHERE active = TRUE ORDER BY created_at, id LIMIT 51"));
+        queries.put("findActivePageAfter", query("SELECT * FROM credentials WHERE active = TRUE AND (created_at > " + TIMESTAMP
+                + " OR (created_at = " + TIMESTAMP + " AND id > " + ID + ")) ORDER BY created_at, id LIMIT 51"));
+        queries.put("findActivePageDesc", query("SELECT * FROM credentials WHERE active = TRUE ORDER BY created_at DESC, id DESC LIMIT 51"));
+        queries.put("findActivePageBefore", query("SELECT * FROM credentials WHERE active = TRUE AND (created_at < " + TIMESTAMP
+                + " OR (created_at = " + TIMESTAMP + " AND id < " + ID + ")) ORDER BY created_at DESC, id DESC LIMIT 51"));
+        queries.put("findActiveVersions", query("SELECT id, updated_at FROM credentials WHERE active = TRUE ORDER BY id"));
+        queries.put("streamForReEncryption", query("SELECT * FROM credentials WHERE id > " + ID
+                + " AND original_password_encrypted IS NOT NULL AND original_password_encrypted NOT LIKE 'd:%' ORDER BY id LIMIT 500"));
+        // NOT LIKE não usa índice; só roda na inicialização da recriptografia, fora das transações dos lotes
+        queries.put("countByOriginalPasswordEncryptedNotLike", query("SELECT COUNT(*) FROM credentials "
+                + "WHERE original_password_encrypted NOT LIKE 'd:%'", "credentials"));
+        queries.put("findByIdForUpdate", query("SELECT * FROM credentials WHERE id = " + ID + " FOR UPDATE"));
+        queries.put("countPasswordHashesByCost", query("SELECT SUBSTRING(password, 5, 2), COUNT(*) FROM credentials "
+                + "WHERE password LIKE '$2%' GROUP BY SUBSTRING(password, 5, 2)"));
+        queries.put("findWithPendingPasswordHash", query("SELECT * FROM credentials WHERE password = '{bcrypt-pending}'"));
+        queries.put("findByCnpjAndActive", query("SELECT * FROM credentials WHERE cnpj = '12345678901234' AND active = TRUE"));
+        queries.put("findByNameMallAndActive", query("SELECT * FROM credentials WHERE name_mall = 'Shopping' AND active = TRUE"));
+        queries.put("findByUsernameAndActive", query("SELECT * FROM credentials WHERE username = 'usuario' AND active = TRUE"));
+
+        assertEveryQueryUsesAnIndex(CredentialsRepository.class, queries);
+    }
+
+    @Test
+    void testConsumerPublicKeyRepository_EveryQueryShouldUseAnIndex() {
+        Map<String, IndexedQuery> queries = new LinkedHashMap<>();
+        queries.put("findByConsumerIdentifierAndActive", query("SELECT * FROM consumer_public_keys "
+                + "WHERE consumer_identifier = 'robo' AND active = TRUE"));
+        queries.put("findAllActive", query("SELECT * FROM consumer_public_keys WHERE active = TRUE"));
+        queries.put("findActivePage", query("SELECT * FROM consumer_public_keys WHERE active = TRUE ORDER BY created_at, id LIMIT 51"));
+        queries.put("findActivePageAfter", query("SELECT * FROM consumer_public_keys WHERE active = TRUE AND (created_at > " + TIMESTAMP
+                + " OR (created_at = " + TIMESTAMP + " AND id > " + ID + ")) ORDER BY created_at, id LIMIT 51"));
+        queries.put("findActivePageDesc", query("SELECT * FROM consumer_public_keys WHERE active = TRUE "
+                + "ORDER BY created_at DESC, id DESC LIMIT 51"));
+        queries.put("findActivePageBefore", query("SELECT * FROM consumer_public_keys WHERE active = TRUE AND (created_at < " + TIMESTAMP
+                + " OR (created_at = " + TIMESTAMP + " AND id < " + ID + ")) ORDER BY created_at DESC, id DESC LIMIT 51"));
+        queries.put("findByConsumerNameAndActive", query("SELECT * FROM consumer_public_keys WHERE consumer_name = 'Robô' AND active = TRUE"));
+        queries.put("existsByConsumerIdentifierAndActive", query("SELECT id FROM consumer_public_keys "
+                + "WHERE consumer_identifier = 'robo' AND active = TRUE LIMIT 1"));
+        queries.put("findValidKeys", query("SELECT * FROM consumer_public_keys WHERE active = TRUE "
+                + "AND (expires_at IS NULL OR expires_at > CURRENT_TIMESTAMP)"));
+        queries.put("findValidKeyByConsumerIdentifier", query("SELECT * FROM consumer_public_keys WHERE consumer_identifier = 'robo' "
+                + "AND active = TRUE AND (expires_at IS NULL OR expires_at > CURRENT_TIMESTAMP)"));
+        queries.put("findFirstByPublicKeyFingerprintAndActive", query("SELECT * FROM consumer_public_keys "
+                + "WHERE public_key_fingerprint = 'ab12' AND active = TRUE LIMIT 1"));
+        queries.put("existsByPublicKeyFingerprintAndActive", query("SELECT id FROM consumer_public_keys "
+                + "WHERE public_key_fingerprint = 'ab12' AND active = TRUE LIMIT 1"));
+        queries.put("findByPublicKeyFingerprintIsNull", query("SELECT * FROM consumer_public_keys WHERE public_key_fingerprint IS NULL"));
+
+        assertEveryQueryUsesAnIndex(ConsumerPublicKeyRepository.class, queries);
+    }
+
+    @Test
+    void testOtherRepositories_EveryQueryShouldUseAnIndex() {
+        Map<String, IndexedQuery> dataKeyQueries = new LinkedHashMap<>();
+        dataKeyQueries.put("findFirstByOrderByCreatedAtDesc", query("SELECT * FROM data_keys ORDER BY created_at DESC LIMIT 1"));
+        // <> não usa índice; roda só na rotação da chave mestra, sobre uma tabela de poucas linhas
+        dataKeyQueries.put("findByMasterKeyVersionNot", query("SELECT * FROM data_keys WHERE master_key_version <> 2", "data_keys"));
+        assertEveryQueryUsesAnIndex(DataKeyRepository.class, dataKeyQueries);
+
+        Map<String, IndexedQuery> robotQueries = new LinkedHashMap<>();
+        robotQueries.put("findByRobotName", query("SELECT * FROM robots WHERE robot_name = 'robo'"));
+        robotQueries.put("findAllOrderByRobotName", query("SELECT * FROM robots ORDER BY robot_name"));
+        robotQueries.put("findByIdWithCredentials", query("SELECT * FROM robots r JOIN credentials c ON c.robot_id = r.id WHERE r.id = " + ID));
+        // Lê todos os robôs e todas as credenciais vinculadas por definição; o otimizador escolhe a ordem da junção
+        robotQueries.put("findAllWithCredentials", query("SELECT DISTINCT r.*, c.* FROM robots r JOIN credentials c ON c.robot_id = r.id",
+                "robots", "credentials"));
+        assertEveryQueryUsesAnIndex(RobotRepository.class, robotQueries);
+    }
+
+    private void assertEveryQueryUsesAnIndex(Class<?> repository, Map<String, IndexedQuery> queries) {
+        Set<String> declared = Arrays.stream(repository.getDeclaredMethods())
+                .filter(method -> !method.isSynthetic() && !method.isDefault())
+                .map(Method::getName)
+                .collect(Collectors.toSet());
+        assertEquals(declared, queries.keySet(), "Consultas sem verificação de índice em " + repository.getSimpleName());
+
+        queries.forEach((method, query) -> {
+            String plan = String.join("\n", jdbcTemplate.queryForList("EXPLAIN " + query.sql, String.class));
+            for (String table : List.of("credentials", "consumer_public_keys", "data_keys", "robots")) {
+                if (!query.fullReads.contains(table)) {
+                    assertFalse(plan.toUpperCase(Locale.ROOT).contains(table.toUpperCase(Locale.ROOT) + ".TABLESCAN"),
+                            repository.getSimpleName() + "." + method + " percorre a tabela " + table + ":\n" + plan);
+                }
+            }
+        });
+    }
+
+    private static IndexedQuery query(String sql, String... fullReads) {
+        return new IndexedQuery(sql, Set.of(fullReads));
+    }
+
+    private static final class IndexedQuery {
+        final String sql;
+        final Set<String> fullReads;
+
+        IndexedQuery(String sql, Set<String> fullReads) {
+            this.sql = sql;
+            this.fullReads = fullReads;
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package br.com.consultdg.credential_portals_service.repository;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import br.com.consultdg.credential_portals_service.config.SecondLevelCacheConfig;
+import br.com.consultdg.credential_portals_service.model.ConsumerPublicKey;
+import br.com.consultdg.credential_portals_service.model.Credentials;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManagerFactory;
+
+@SpringBootTest(properties = "credentials.re-encryption.enabled=false")
+class SecondLevelCacheTest {
+
+    @Autowired
+    private CredentialsRepository credentialsRepository;
+
+    @Autowired
+    private ConsumerPublicKeyRepository consumerPublicKeyRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    private Statistics statistics;
+    private UUID credentialId;
+    private UUID consumerKeyId;
+
+    @BeforeEach
+    void setUp() {
+        Credentials credential = new Credentials();
+        credential.setNameMall("Shopping Cache");
+        credential.setUrlPortal("https://portal.shopping.com");
+        credential.setUsername("usuario.cache");
+        credential.setPassword("$2a$10$hashplaceholder");
+        credentialId = credentialsRepository.save(credential).getId();
+
+        ConsumerPublicKey consumerKey = new ConsumerPublicKey();
+        consumerKey.setConsumerName("Robô Cache");
+        consumerKey.setConsumerIdentifier("robo-cache");
+        consumerKey.setPublicKey("chave");
+        consumerKeyId = consumerPublicKeyRepository.save(consumerKey).getId();
+
+        statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+    }
+
+    @AfterEach
+    void tearDown() {
+        credentialsRepository.deleteById(credentialId);
+        consumerPublicKeyRepository.deleteById(consumerKeyId);
+    }
+
+    @Test
+    void testFindAllActive_ShouldServeRepeatedListingsWithoutQueryingTheDatabase() {
+        // Arrange
+        credentialsRepository.findAllActive();
+        long statementsAfterFirstListing = statistics.getPrepareStatementCount();
+
+        // Act
+        List<Credentials> credentials = credentialsRepository.findAllActive();
+
+        // Assert
+        assertTrue(credentials.stream().anyMatch(credential -> credential.getId().equals(credentialId)));
+        assertEquals(statementsAfterFirstListing, statistics.getPrepareStatementCount());
+        assertTrue(statistics.getQueryCacheHitCount() > 0);
+    }
+
+    @Test
+    void testFindAllActive_ShouldReloadAfterAnUpdate() {
+        // Arrange
+        credentialsRepository.findAllActive();
+        Credentials credential = credentialsRepository.findById(credentialId).orElseThrow();
+        credential.setUsername("usuario.alterado");
+        credentialsRepository.save(credential);
+
+        // Act
+        List<Credentials> credentials = credentialsRepository.findAllActive();
+
+        // Assert
+        assertEquals("usuario.alterado", credentials.stream()
+                .filter(item -> item.getId().equals(credentialId))
+                .findFirst().orElseThrow().getUsername());
+    }
+
+    @Test
+    void testCompletePasswordHash_ShouldKeepOtherCredentialsCached() {
+        // Arrange
+        Credentials pending = new Credentials();
+        pending.setNameMall("Shopping Hash Pendente");
+        pending.setUrlPortal("https://portal.shopping.com");
+        pending.setUsername("usuario.pendente");
+        pending.setOriginalPasswordEncrypted("d:abc");
+        pending.markPasswordHashPending();
+        Credentials saved = credentialsRepository.save(pending);
+        UUID pendingId = saved.getId();
+        credentialsRepository.findById(credentialId);
+        credentialsRepository.findById(pendingId);
+
+        try {
+            // Act
+            int updated = credentialsRepository.completePasswordHash(pendingId, "d:abc", "$2a$12$hashcompleto");
+            long statementsAfterCompletion = statistics.getPrepareStatementCount();
+            Credentials other = credentialsRepository.findById(credentialId).orElseThrow();
+            long statementsAfterOtherRead = statistics.getPrepareStatementCount();
+            Credentials completed = credentialsRepository.findById(pendingId).orElseThrow();
+
+            // Assert
+            assertEquals(1, updated);
+            // A outra credencial continua no cache; só a alterada pode ser lida de novo do banco
+            assertEquals("usuario.cache", other.getUsername());
+            assertEquals(statementsAfterCompletion, statementsAfterOtherRead);
+            assertEquals("$2a$12$hashcompleto", completed.getPassword());
+            assertEquals(saved.getUpdatedAt().truncatedTo(ChronoUnit.MILLIS), completed.getUpdatedAt().truncatedTo(ChronoUnit.MILLIS));
+            assertEquals(0, credentialsRepository.completePasswordHash(pendingId, "d:abc", "$2a$12$outro"));
+        } finally {
+            credentialsRepository.deleteById(pendingId);
+        }
+    }
+
+    @Test
+    void testConsumerPublicKey_ShouldBeReadFromCacheAndReportedAsMetric() {
+        // Arrange
+        consumerPublicKeyRepository.findByConsumerIdentifierAndActive("robo-cache");
+        long statementsAfterFirstRead = statistics.getPrepareStatementCount();
+
+        // Act
+        ConsumerPublicKey byIdentifier = consumerPublicKeyRepository.findByConsumerIdentifierAndActive("robo-cache").orElseThrow();
+        ConsumerPublicKey byId = consumerPublicKeyRepository.findById(consumerKeyId).orElseThrow();
+
+        // Assert
+        assertEquals(consumerKeyId, byIdentifier.getId());
+        assertEquals(consumerKeyId, byId.getId());
+        assertEquals(statementsAfterFirstRead, statistics.getPrepareStatementCount());
+        assertNotNull(meterRegistry.find("hibernate.second.level.cache.requests")
+                .tag("region", SecondLevelCacheConfig.CONSUMER_PUBLIC_KEYS_REGION)
+                .tag("result", "hit")
+                .functionCounter());
+    }
+}
@@ -0,0 +1,76 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+class BatchPasswordVerifierTest {
+
+    private final BatchPasswordVerifier verifier = new BatchPasswordVerifier(2, 10, 50, 3);
+
+    @AfterEach
+    void tearDown() {
+        verifier.shutdown();
+    }
+
+    @Test
+    void testForEachCompleted_ShouldDeliverEveryResultOnCallerThread() {
+        // Arrange
+        List<Callable<Integer>> verifications = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            int value = i;
+            verifications.add(() -> value);
+        }
+        List<Integer> results = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+
+        // Act
+        verifier.forEachCompleted(verifications, result -> {
+            assertSame(caller, Thread.currentThread());
+            results.add(result);
+        });
+
+        // Assert
+        Collections.sort(results);
+        assertEquals(20, results.size());
+        assertEquals(0, results.get(0));
+        assertEquals(19, results.get(19));
+    }
+
+    @Test
+    void testForEachCompleted_ShouldLimitVerificationsInFlightPerBatch() {
+        // Arrange
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        List<Callable<Integer>> verifications = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            verifications.add(() -> {
+                maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                Thread.sleep(5);
+                running.decrementAndGet();
+                return 1;
+            });
+        }
+
+        // Act
+        verifier.forEachCompleted(verifications, result -> { });
+
+        // Assert
+        assertTrue(maxRunning.get() <= verifier.getMaxInFlight());
+    }
+
+    @Test
+    void testCheckBatchSize_ShouldRejectEmptyAndOversizedBatches() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> verifier.checkBatchSize(0));
+        assertThrows(IllegalArgumentException.class, () -> verifier.checkBatchSize(51));
+        assertDoesNotThrow(() -> verifier.checkBatchSize(50));
+    }
+}
@@ -0,0 +1,175 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class BulkEncryptionEngineTest {
+
+    private BulkEncryptionEngine bulkEncryptionEngine;
+
+    @BeforeEach
+    void setUp() {
+        bulkEncryptionEngine = new BulkEncryptionEngine(4, 3, 8, 16);
+    }
+
+    @AfterEach
+    void tearDown() {
+        bulkEncryptionEngine.shutdown();
+    }
+
+    @Test
+    void testMap_ShouldPreserveInputOrder() {
+        // Arrange
+        List<Integer> items = IntStream.range(0, 1000).boxed().collect(Collectors.toList());
+
+        // Act
+        List<String> results = bulkEncryptionEngine.map("robot", items, item -> "item-" + item, (item, e) -> null);
+
+        // Assert
+        assertEquals(1000, results.size());
+        for (int i = 0; i < items.size(); i++) {
+            assertEquals("item-" + i, results.get(i));
+        }
+    }
+
+    @Test
+    void testMap_ShouldHandleErrorsPerItem() {
+        // Arrange
+        List<Integer> items = IntStream.range(0, 100).boxed().collect(Collectors.toList());
+
+        // Act
+        List<String> results = bulkEncryptionEngine.map("robot", items, item -> {
+            if (item % 10 == 0) {
+                throw new IllegalStateException("falha " + item);
+            }
+            return "ok-" + item;
+        }, (item, e) -> "erro-" + item);
+
+        // Assert
+        assertEquals("erro-0", results.get(0));
+        assertEquals("ok-1", results.get(1));
+        assertEquals("erro-50", results.get(50));
+        assertEquals("ok-99", results.get(99));
+    }
+
+    @Test
+    void testMap_ShouldNotExceedParallelismCapPerConsumer() {
+        // Arrange
+        List<Integer> items = IntStream.range(0, 400).boxed().collect(Collectors.toList());
+        AtomicInteger running = new AtomicInteger();
+        AtomicInteger maxRunning = new AtomicInteger();
+        Set<String> threads = ConcurrentHashMap.newKeySet();
+
+        // Act
+        bulkEncryptionEngine.map("robot", items, item -> {
+            int current = running.incrementAndGet();
+            maxRunning.accumulateAndGet(current, Math::max);
+            threads.add(Thread.currentThread().getName());
+            Thread.sleep(1);
+            running.decrementAndGet();
+            return item;
+        }, (item, e) -> null);
+
+        // Assert
+        assertTrue(maxRunning.get() <= bulkEncryptionEngine.getMaxParallelismPerConsumer());
+        assertTrue(threads.size() > 1, "O lote deveria ser processado por mais de uma thread");
+    }
+
+    @Test
+    void testMap_ShouldRunOnCallerWhenQueueIsFull() throws Exception {
+        // Arrange
+        BulkEncryptionEngine smallEngine = new BulkEncryptionEngine(1, 4, 1, 1);
+        List<Integer> items = IntStream.range(0, 40).boxed().collect(Collectors.toList());
+        ExecutorService callers = Executors.newFixedThreadPool(4);
+
+        try {
+            // Act
+            List<Future<List<Integer>>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                String consumer = "robot-" + i;
+                results.add(callers.submit(() -> smallEngine.map(consumer, items, item -> {
+                    Thread.sleep(1);
+                    return item;
+                }, (item, e) -> null)));
+            }
+
+            // Assert
+            for (Future<List<Integer>> result : results) {
+                assertEquals(items, result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdownNow();
+            smallEngine.shutdown();
+        }
+    }
+
+    @Test
+    void testMap_ShouldReturnEmptyListForEmptyInput() {
+        // Act
+        List<String> results = bulkEncryptionEngine.map("robot", List.<Integer>of(), item -> "x", (item, e) -> null);
+
+        // Assert
+        assertTrue(results.isEmpty());
+    }
+
+    @Test
+    void testForEachOrdered_ShouldDeliverInInputOrderAndSkipFailedItems() {
+        // Arrange
+        Iterator<Integer> items = IntStream.range(0, 500).boxed().iterator();
+        List<String> results = new ArrayList<>();
+
+        // Act
+        bulkEncryptionEngine.forEachOrdered("robot", items, item -> {
+            if (item % 100 == 0) {
+                throw new IllegalStateException("falha " + item);
+            }
+            return "item-" + item;
+        }, (item, e) -> null, results::add);
+
+        // Assert
+        assertEquals(495, results.size());
+        assertEquals("item-1", results.get(0));
+        assertEquals("item-499", results.get(494));
+        for (int i = 1; i < results.size(); i++) {
+            int previous = Integer.parseInt(results.get(i - 1).substring(5));
+            int current = Integer.parseInt(results.get(i).substring(5));
+            assertTrue(previous < current);
+        }
+    }
+
+    @Test
+    void testForEachOrdered_ShouldReadOnlyABoundedWindowAhead() {
+        // Arrange
+        AtomicInteger read = new AtomicInteger();
+        Iterator<Integer> items = IntStream.range(0, 200).boxed()
+                .peek(item -> read.incrementAndGet())
+                .iterator();
+        AtomicInteger delivered = new AtomicInteger();
+        AtomicInteger maxAhead = new AtomicInteger();
+
+        // Act
+        bulkEncryptionEngine.forEachOrdered("robot", items, item -> item, (item, e) -> null, result -> {
+            maxAhead.accumulateAndGet(read.get() - delivered.incrementAndGet(), Math::max);
+        });
+
+        // Assert
+        assertEquals(200, delivered.get());
+        assertTrue(maxAhead.get() <= bulkEncryptionEngine.getMaxParallelismPerConsumer());
+    }
+}
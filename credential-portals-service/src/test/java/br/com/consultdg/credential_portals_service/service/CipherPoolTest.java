@@ -0,0 +1,82 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicReference;
+
+import javax.crypto.BadPaddingException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.Test;
+
+class CipherPoolTest {
+
+    private static final String TRANSFORMATION = "AES/ECB/PKCS5Padding";
+    private static final SecretKeySpec KEY = new SecretKeySpec("0123456789abcdef".getBytes(StandardCharsets.UTF_8), "AES");
+
+    private final CipherPool cipherPool = new CipherPool();
+
+    @Test
+    void testExecute_ShouldReuseCipherAndSkipReinitForSameKey() throws Exception {
+        // Act
+        byte[] first = cipherPool.execute(TRANSFORMATION, Cipher.ENCRYPT_MODE, KEY, cipher -> cipher.doFinal(new byte[] {1}));
+        byte[] second = cipherPool.execute(TRANSFORMATION, Cipher.ENCRYPT_MODE, KEY, cipher -> cipher.doFinal(new byte[] {1}));
+
+        // Assert
+        assertArrayEquals(first, second);
+        assertEquals(1, cipherPool.getMisses());
+        assertEquals(1, cipherPool.getHits());
+        assertEquals(1, cipherPool.getInitializations());
+    }
+
+    @Test
+    void testExecute_ShouldKeepSeparateCiphersPerMode() throws Exception {
+        // Act
+        byte[] encrypted = cipherPool.execute(TRANSFORMATION, Cipher.ENCRYPT_MODE, KEY, cipher -> cipher.doFinal(new byte[] {7}));
+        byte[] decrypted = cipherPool.execute(TRANSFORMATION, Cipher.DECRYPT_MODE, KEY, cipher -> cipher.doFinal(encrypted));
+
+        // Assert
+        assertArrayEquals(new byte[] {7}, decrypted);
+        assertEquals(2, cipherPool.getMisses());
+    }
+
+    @Test
+    void testExecute_ShouldDiscardCipherAfterFailure() throws Exception {
+        // Arrange
+        cipherPool.execute(TRANSFORMATION, Cipher.DECRYPT_MODE, KEY, cipher -> null);
+
+        // Act
+        assertThrows(Exception.class, () ->
+                cipherPool.execute(TRANSFORMATION, Cipher.DECRYPT_MODE, KEY, cipher -> {
+                    throw new BadPaddingException("falha simulada");
+                }));
+        cipherPool.execute(TRANSFORMATION, Cipher.DECRYPT_MODE, KEY, cipher -> null);
+
+        // Assert
+        assertEquals(2, cipherPool.getMisses());
+    }
+
+    @Test
+    void testExecute_ShouldConfineCiphersToThread() throws Exception {
+        // Arrange
+        AtomicReference<Cipher> otherThreadCipher = new AtomicReference<>();
+        Cipher mainThreadCipher = cipherPool.execute(TRANSFORMATION, Cipher.ENCRYPT_MODE, KEY, cipher -> cipher);
+
+        // Act
+        Thread thread = new Thread(() -> {
+            try {
+                otherThreadCipher.set(cipherPool.execute(TRANSFORMATION, Cipher.ENCRYPT_MODE, KEY, cipher -> cipher));
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        thread.start();
+        thread.join();
+
+        // Assert
+        assertNotNull(otherThreadCipher.get());
+        assertNotSame(mainThreadCipher, otherThreadCipher.get());
+    }
+}
@@ -0,0 +1,93 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import br.com.consultdg.credential_portals_service.model.Credentials;
+import br.com.consultdg.credential_portals_service.service.ConsumerCiphertextCache.EncryptedPasswords;
+import br.com.consultdg.credential_portals_service.service.ConsumerKeyRegistry.RegisteredKey;
+
+class ConsumerCiphertextCacheTest {
+
+    private ConsumerCiphertextCache consumerCiphertextCache;
+    private RegisteredKey consumerKey;
+    private Credentials credential;
+    private AtomicInteger loads;
+
+    @BeforeEach
+    void setUp() {
+        consumerCiphertextCache = new ConsumerCiphertextCache(100, Duration.ofHours(1));
+        consumerKey = registeredKey("robot-a", LocalDateTime.now());
+        credential = new Credentials();
+        credential.setId(UUID.randomUUID());
+        credential.setUpdatedAt(LocalDateTime.now());
+        loads = new AtomicInteger();
+    }
+
+    @Test
+    void testGet_ShouldEncryptOnlyOnceWhileUnchanged() {
+        // Act
+        EncryptedPasswords first = consumerCiphertextCache.get(consumerKey, credential, this::load);
+        EncryptedPasswords second = consumerCiphertextCache.get(consumerKey, credential, this::load);
+
+        // Assert
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    void testGet_ShouldMissWhenCredentialOrKeyChanges() {
+        // Arrange
+        consumerCiphertextCache.get(consumerKey, credential, this::load);
+
+        // Act
+        credential.setUpdatedAt(credential.getUpdatedAt().plusSeconds(1));
+        consumerCiphertextCache.get(consumerKey, credential, this::load);
+        consumerCiphertextCache.get(registeredKey("robot-a", consumerKey.getUpdatedAt().plusSeconds(1)), credential, this::load);
+
+        // Assert
+        assertEquals(3, loads.get());
+    }
+
+    @Test
+    void testInvalidateCredential_ShouldRemoveEntriesForAllConsumers() {
+        // Arrange
+        consumerCiphertextCache.get(consumerKey, credential, this::load);
+        consumerCiphertextCache.get(registeredKey("robot-b", LocalDateTime.now()), credential, this::load);
+
+        // Act
+        consumerCiphertextCache.invalidateCredential(credential.getId());
+
+        // Assert
+        assertEquals(0, consumerCiphertextCache.size());
+    }
+
+    @Test
+    void testInvalidateConsumer_ShouldKeepOtherConsumers() {
+        // Arrange
+        consumerCiphertextCache.get(consumerKey, credential, this::load);
+        consumerCiphertextCache.get(registeredKey("robot-b", LocalDateTime.now()), credential, this::load);
+
+        // Act
+        consumerCiphertextCache.invalidateConsumer("robot-a");
+
+        // Assert
+        assertEquals(1, consumerCiphertextCache.size());
+    }
+
+    private EncryptedPasswords load() {
+        int load = loads.incrementAndGet();
+        return new EncryptedPasswords("senha-" + load, "nota-" + load);
+    }
+
+    private static RegisteredKey registeredKey(String consumerIdentifier, LocalDateTime updatedAt) {
+        return new RegisteredKey(consumerIdentifier, null, ConsumerKeyAlgorithm.RSA, null, true, updatedAt);
+    }
+}
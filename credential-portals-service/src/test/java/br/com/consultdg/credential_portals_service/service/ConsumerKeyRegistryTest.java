@@ -0,0 +1,148 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+import java.security.KeyPair;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.consultdg.credential_portals_service.model.ConsumerPublicKey;
+import br.com.consultdg.credential_portals_service.repository.ConsumerPublicKeyRepository;
+import br.com.consultdg.credential_portals_service.service.ConsumerKeyRegistry.RegisteredKey;
+
+@ExtendWith(MockitoExtension.class)
+class ConsumerKeyRegistryTest {
+
+    private static final String CONSUMER = "robot-test";
+
+    @Mock
+    private ConsumerPublicKeyRepository consumerPublicKeyRepository;
+
+    @Spy
+    private RSAEncryptionService rsaEncryptionService = new RSAEncryptionService();
+
+    @Spy
+    private EciesEncryptionService eciesEncryptionService = new EciesEncryptionService();
+
+    @InjectMocks
+    private ConsumerKeyRegistry consumerKeyRegistry;
+
+    private ConsumerPublicKey consumerPublicKey;
+    private KeyPair keyPair;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        keyPair = new RSAEncryptionService().generateKeyPair();
+
+        consumerPublicKey = new ConsumerPublicKey("Robot", CONSUMER, rsaEncryptionService.publicKeyToString(keyPair.getPublic()));
+        consumerPublicKey.setKeyAlgorithm("RSA");
+        consumerPublicKey.setActive(true);
+        consumerPublicKey.setUpdatedAt(LocalDateTime.now());
+    }
+
+    @Test
+    void testFindValidKey_ShouldLoadAndParseOnlyOnce() throws Exception {
+        // Arrange
+        when(consumerPublicKeyRepository.findValidKeyByConsumerIdentifier(CONSUMER))
+                .thenReturn(Optional.of(consumerPublicKey));
+
+        // Act
+        Optional<RegisteredKey> first = consumerKeyRegistry.findValidKey(CONSUMER);
+        Optional<RegisteredKey> second = consumerKeyRegistry.findValidKey(CONSUMER);
+
+        // Assert
+        assertTrue(first.isPresent());
+        assertSame(first.get(), second.get());
+        assertArrayEquals(keyPair.getPublic().getEncoded(), first.get().getPublicKey().getEncoded());
+        verify(consumerPublicKeyRepository, times(1)).findValidKeyByConsumerIdentifier(CONSUMER);
+        verify(rsaEncryptionService, times(1)).stringToPublicKey(anyString());
+    }
+
+    @Test
+    void testFindValidKey_ShouldParseKeyByStoredAlgorithm() throws Exception {
+        // Arrange
+        KeyPair x25519KeyPair = eciesEncryptionService.generateKeyPair(ConsumerKeyAlgorithm.X25519);
+        consumerPublicKey.setPublicKey(eciesEncryptionService.publicKeyToString(x25519KeyPair.getPublic()));
+        consumerPublicKey.setKeyAlgorithm("X25519");
+        when(consumerPublicKeyRepository.findValidKeyByConsumerIdentifier(CONSUMER))
+                .thenReturn(Optional.of(consumerPublicKey));
+
+        // Act
+        Optional<RegisteredKey> registeredKey = consumerKeyRegistry.findValidKey(CONSUMER);
+
+        // Assert
+        assertTrue(registeredKey.isPresent());
+        assertEquals(ConsumerKeyAlgorithm.X25519, registeredKey.get().getKeyAlgorithm());
+        assertArrayEquals(x25519KeyPair.getPublic().getEncoded(), registeredKey.get().getPublicKey().getEncoded());
+        verify(rsaEncryptionService, never()).stringToPublicKey(anyString());
+    }
+
+    @Test
+    void testFindValidKey_ShouldLoadFromDerBytesWithoutStringProcessing() throws Exception {
+        // Arrange
+        consumerPublicKey.setPublicKeyDer(keyPair.getPublic().getEncoded());
+        when(consumerPublicKeyRepository.findValidKeyByConsumerIdentifier(CONSUMER))
+                .thenReturn(Optional.of(consumerPublicKey));
+
+        // Act
+        Optional<RegisteredKey> registeredKey = consumerKeyRegistry.findValidKey(CONSUMER);
+
+        // Assert
+        assertTrue(registeredKey.isPresent());
+        assertArrayEquals(keyPair.getPublic().getEncoded(), registeredKey.get().getPublicKey().getEncoded());
+        verify(rsaEncryptionService).bytesToPublicKey(any(byte[].class));
+        verify(rsaEncryptionService, never()).stringToPublicKey(anyString());
+    }
+
+    @Test
+    void testFindValidKey_ShouldReturnEmptyWhenConsumerHasNoKey() {
+        // Arrange
+        when(consumerPublicKeyRepository.findValidKeyByConsumerIdentifier(CONSUMER))
+                .thenReturn(Optional.empty());
+
+        // Act & Assert
+        assertTrue(consumerKeyRegistry.findValidKey(CONSUMER).isEmpty());
+        assertEquals(0, consumerKeyRegistry.size());
+    }
+
+    @Test
+    void testFindValidKey_ShouldEvictExpiredEntry() throws Exception {
+        // Arrange
+        consumerPublicKey.setExpiresAt(LocalDateTime.now().plusNanos(50_000_000));
+        when(consumerPublicKeyRepository.findValidKeyByConsumerIdentifier(CONSUMER))
+                .thenReturn(Optional.of(consumerPublicKey));
+        assertTrue(consumerKeyRegistry.findValidKey(CONSUMER).isPresent());
+
+        // Act
+        Thread.sleep(100);
+        Optional<RegisteredKey> afterExpiration = consumerKeyRegistry.findValidKey(CONSUMER);
+
+        // Assert
+        assertTrue(afterExpiration.isEmpty());
+        assertEquals(0, consumerKeyRegistry.size());
+    }
+
+    @Test
+    void testInvalidate_ShouldReloadKeyFromRepository() {
+        // Arrange
+        when(consumerPublicKeyRepository.findValidKeyByConsumerIdentifier(CONSUMER))
+                .thenReturn(Optional.of(consumerPublicKey));
+        consumerKeyRegistry.findValidKey(CONSUMER);
+
+        // Act
+        consumerKeyRegistry.invalidate(CONSUMER);
+        consumerKeyRegistry.findValidKey(CONSUMER);
+
+        // Assert
+        verify(consumerPublicKeyRepository, times(2)).findValidKeyByConsumerIdentifier(CONSUMER);
+    }
+}
@@ -0,0 +1,108 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+import java.security.KeyPair;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.consultdg.credential_portals_service.api.model.ConsumerPublicKeyRequestDTO;
+import br.com.consultdg.credential_portals_service.api.model.ConsumerPublicKeyResponseDTO;
+import br.com.consultdg.credential_portals_service.model.ConsumerPublicKey;
+import br.com.consultdg.credential_portals_service.repository.ConsumerPublicKeyRepository;
+
+@ExtendWith(MockitoExtension.class)
+class ConsumerPublicKeyServiceTest {
+
+    private static final String CONSUMER = "robot-test";
+
+    @Mock
+    private ConsumerPublicKeyRepository consumerPublicKeyRepository;
+
+    @Spy
+    private RSAEncryptionService rsaEncryptionService = new RSAEncryptionService();
+
+    @Spy
+    private EciesEncryptionService eciesEncryptionService = new EciesEncryptionService();
+
+    @Mock
+    private ConsumerKeyRegistry consumerKeyRegistry;
+
+    @Mock
+    private ConsumerCiphertextCache consumerCiphertextCache;
+
+    @InjectMocks
+    private ConsumerPublicKeyService consumerPublicKeyService;
+
+    private KeyPair keyPair;
+    private String pemPublicKey;
+    private String expectedFingerprint;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        keyPair = rsaEncryptionService.generateKeyPair();
+        pemPublicKey = "-----BEGIN PUBLIC KEY-----\n"
+                + rsaEncryptionService.publicKeyToString(keyPair.getPublic()).replaceAll("(.{64})", "$1\n")
+                + "\n-----END PUBLIC KEY-----";
+        expectedFingerprint = HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(keyPair.getPublic().getEncoded()));
+    }
+
+    @Test
+    void testRegisterPublicKey_ShouldStoreDerAndFingerprint() {
+        // Arrange
+        when(consumerPublicKeyRepository.save(any(ConsumerPublicKey.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        ConsumerPublicKeyRequestDTO requestDTO = new ConsumerPublicKeyRequestDTO("Robot", CONSUMER, pemPublicKey);
+
+        // Act
+        ConsumerPublicKeyResponseDTO response = consumerPublicKeyService.registerPublicKey(requestDTO);
+
+        // Assert
+        ArgumentCaptor<ConsumerPublicKey> saved = ArgumentCaptor.forClass(ConsumerPublicKey.class);
+        verify(consumerPublicKeyRepository).save(saved.capture());
+        assertArrayEquals(keyPair.getPublic().getEncoded(), saved.getValue().getPublicKeyDer());
+        assertEquals(expectedFingerprint, saved.getValue().getPublicKeyFingerprint());
+        assertEquals(2048, saved.getValue().getKeySize());
+        assertEquals(expectedFingerprint, response.getFingerprint());
+    }
+
+    @Test
+    void testRegisterPublicKey_ShouldRejectKeyAlreadyActiveForAnotherConsumer() {
+        // Arrange
+        when(consumerPublicKeyRepository.existsByPublicKeyFingerprintAndActive(expectedFingerprint, true)).thenReturn(true);
+        ConsumerPublicKeyRequestDTO requestDTO = new ConsumerPublicKeyRequestDTO("Robot", CONSUMER, pemPublicKey);
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> consumerPublicKeyService.registerPublicKey(requestDTO));
+        verify(consumerPublicKeyRepository, never()).save(any());
+    }
+
+    @Test
+    void testBackfillPublicKeyFingerprints_ShouldNormalizeLegacyKeys() {
+        // Arrange
+        ConsumerPublicKey legacyKey = new ConsumerPublicKey("Robot", CONSUMER, pemPublicKey);
+        legacyKey.setId(UUID.randomUUID());
+        when(consumerPublicKeyRepository.findByPublicKeyFingerprintIsNull()).thenReturn(List.of(legacyKey));
+
+        // Act
+        consumerPublicKeyService.backfillPublicKeyFingerprints();
+
+        // Assert
+        assertArrayEquals(keyPair.getPublic().getEncoded(), legacyKey.getPublicKeyDer());
+        assertEquals(expectedFingerprint, legacyKey.getPublicKeyFingerprint());
+        verify(consumerPublicKeyRepository).save(legacyKey);
+        verify(consumerKeyRegistry).invalidate(CONSUMER);
+    }
+}
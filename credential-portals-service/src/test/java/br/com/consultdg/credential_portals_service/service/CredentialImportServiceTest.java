@@ -0,0 +1,220 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import br.com.consultdg.credential_portals_service.api.model.CredentialImportEventDTO;
+import br.com.consultdg.credential_portals_service.model.Credentials;
+import br.com.consultdg.credential_portals_service.repository.CredentialsRepository;
+
+@ExtendWith(MockitoExtension.class)
+class CredentialImportServiceTest {
+
+    @Mock
+    private CredentialsRepository credentialsRepository;
+
+    @Mock
+    private PasswordEncryptionService passwordEncryptionService;
+
+    @Mock
+    private InternalEncryptionService internalEncryptionService;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private CredentialImportService credentialImportService;
+
+    @AfterEach
+    void tearDown() {
+        if (credentialImportService != null) {
+            credentialImportService.shutdown();
+        }
+    }
+
+    @Test
+    void testImportCsv_ShouldStoreValidRowsAndReportInvalidOnes() {
+        // Arrange
+        credentialImportService = newImportService(100);
+        stubEncryption();
+        String csv = "nameMall,cnpj,urlPortal,username,password,passwordOfInvoice\n"
+                + "Shopping Norte,12345678000195,https://portal.norte.com,admin,senha1,nota1\n"
+                + "\"Shopping Sul, Loja 2\",,https://portal.sul.com,\"user \"\"x\"\"\",senha2,\n"
+                + "Shopping Leste,,https://portal.leste.com,admin,,\n"
+                + "Shopping Oeste,https://portal.oeste.com\n";
+        List<CredentialImportEventDTO> events = new ArrayList<>();
+
+        // Act
+        CredentialImportEventDTO summary = credentialImportService.importCredentials(
+                new StringReader(csv), CredentialImportService.Format.CSV, events::add);
+
+        // Assert
+        ArgumentCaptor<List<Credentials>> saved = captureSavedChunks(1);
+        List<Credentials> credentials = saved.getValue();
+        assertEquals(2, credentials.size());
+        assertEquals("Shopping Sul, Loja 2", credentials.get(1).getNameMall());
+        assertEquals("user \"x\"", credentials.get(1).getUsername());
+        assertNull(credentials.get(1).getCnpj());
+        assertEquals("$2a$12$hash:senha1", credentials.get(0).getPassword());
+        assertEquals("v1:senha1", credentials.get(0).getOriginalPasswordEncrypted());
+        assertFalse(credentials.get(0).isPasswordChanged());
+
+        assertEquals(List.of(4, 5), events.stream()
+                .filter(event -> CredentialImportEventDTO.ERROR.equals(event.getType()))
+                .map(CredentialImportEventDTO::getLine)
+                .toList());
+        assertEquals(4, summary.getProcessed());
+        assertEquals(2, summary.getImported());
+        assertEquals(2, summary.getFailed());
+        assertEquals(CredentialImportEventDTO.SUMMARY, events.get(events.size() - 1).getType());
+    }
+
+    @Test
+    void testImportJsonLines_ShouldCommitInChunksAndReportProgress() {
+        // Arrange
+        credentialImportService = newImportService(2);
+        stubEncryption();
+        StringBuilder jsonLines = new StringBuilder();
+        for (int i = 0; i < 5; i++) {
+            jsonLines.append("{\"nameMall\":\"Shopping ").append(i)
+                    .append("\",\"urlPortal\":\"https://portal.com\",\"username\":\"user\",\"password\":\"senha").append(i).append("\"}\n");
+        }
+        List<CredentialImportEventDTO> events = new ArrayList<>();
+
+        // Act
+        CredentialImportEventDTO summary = credentialImportService.importCredentials(
+                new StringReader(jsonLines.toString()), CredentialImportService.Format.JSON_LINES, events::add);
+
+        // Assert
+        captureSavedChunks(3);
+        assertEquals(List.of(2, 4, 5), events.stream()
+                .filter(event -> CredentialImportEventDTO.PROGRESS.equals(event.getType()))
+                .map(CredentialImportEventDTO::getProcessed)
+                .toList());
+        assertEquals(5, summary.getImported());
+        assertEquals(0, summary.getFailed());
+    }
+
+    @Test
+    void testImport_ShouldReportRowsOfFailedChunkAndContinue() {
+        // Arrange
+        credentialImportService = newImportService(1);
+        stubEncryption();
+        when(credentialsRepository.saveAll(anyList()))
+                .thenThrow(new IllegalStateException("conexão perdida"))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        String jsonLines = "{\"nameMall\":\"A\",\"urlPortal\":\"https://a.com\",\"username\":\"u\",\"password\":\"p1\"}\n"
+                + "not json\n"
+                + "{\"nameMall\":\"B\",\"urlPortal\":\"https://b.com\",\"username\":\"u\",\"password\":\"p2\"}\n";
+        List<CredentialImportEventDTO> events = new ArrayList<>();
+
+        // Act
+        CredentialImportEventDTO summary = credentialImportService.importCredentials(
+                new StringReader(jsonLines), CredentialImportService.Format.JSON_LINES, events::add);
+
+        // Assert
+        List<CredentialImportEventDTO> errors = events.stream()
+                .filter(event -> CredentialImportEventDTO.ERROR.equals(event.getType()))
+                .toList();
+        assertEquals(2, errors.size());
+        assertEquals(1, errors.get(0).getLine());
+        assertTrue(errors.get(0).getMessage().contains("conexão perdida"));
+        assertEquals(2, errors.get(1).getLine());
+        assertEquals(1, summary.getImported());
+        assertEquals(2, summary.getFailed());
+    }
+
+    @Test
+    void testImportJsonLines_ShouldNotEchoInvalidTokenInErrorMessage() {
+        // Arrange
+        credentialImportService = newImportService(100);
+        String jsonLines = "{\"nameMall\":\"A\",\"urlPortal\":\"https://a.com\",\"username\":\"u\",\"password\":senha123}\n";
+        List<CredentialImportEventDTO> events = new ArrayList<>();
+
+        // Act
+        credentialImportService.importCredentials(
+                new StringReader(jsonLines), CredentialImportService.Format.JSON_LINES, events::add);
+
+        // Assert
+        CredentialImportEventDTO error = events.stream()
+                .filter(event -> CredentialImportEventDTO.ERROR.equals(event.getType()))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(1, error.getLine());
+        assertTrue(error.getMessage().startsWith("JSON inválido"));
+        assertFalse(error.getMessage().contains("senha"));
+        verifyNoInteractions(credentialsRepository);
+    }
+
+    @Test
+    void testImportCsv_ShouldStopWhenHeaderLacksRequiredColumns() {
+        // Arrange
+        credentialImportService = newImportService(100);
+        List<CredentialImportEventDTO> events = new ArrayList<>();
+
+        // Act
+        CredentialImportEventDTO summary = credentialImportService.importCredentials(
+                new StringReader("nameMall,username\nShopping,admin\n"), CredentialImportService.Format.CSV, events::add);
+
+        // Assert
+        assertEquals(CredentialImportEventDTO.ERROR, events.get(0).getType());
+        assertEquals(1, events.get(0).getLine());
+        assertEquals(0, summary.getProcessed());
+        verifyNoInteractions(credentialsRepository);
+    }
+
+    @Test
+    void testImportCsv_ShouldStopWhenHeaderHasDuplicateColumn() {
+        // Arrange
+        credentialImportService = newImportService(100);
+        String csv = "nameMall,urlPortal,username,password,Username\n"
+                + "Shopping Norte,https://portal.norte.com,admin,senha1,outro\n";
+        List<CredentialImportEventDTO> events = new ArrayList<>();
+
+        // Act
+        CredentialImportEventDTO summary = credentialImportService.importCredentials(
+                new StringReader(csv), CredentialImportService.Format.CSV, events::add);
+
+        // Assert
+        List<CredentialImportEventDTO> errors = events.stream()
+                .filter(event -> CredentialImportEventDTO.ERROR.equals(event.getType()))
+                .toList();
+        assertEquals(1, errors.size());
+        assertEquals(1, errors.get(0).getLine());
+        assertTrue(errors.get(0).getMessage().contains("Username"));
+        assertEquals(0, summary.getProcessed());
+        verifyNoInteractions(credentialsRepository);
+    }
+
+    private CredentialImportService newImportService(int chunkSize) {
+        return new CredentialImportService(credentialsRepository, passwordEncryptionService, internalEncryptionService,
+                new ObjectMapper(), transactionManager, 2, chunkSize);
+    }
+
+    private void stubEncryption() {
+        when(internalEncryptionService.encrypt(anyString())).thenAnswer(invocation -> "v1:" + invocation.getArgument(0));
+        when(passwordEncryptionService.encryptPassword(anyString())).thenAnswer(invocation -> "$2a$12$hash:" + invocation.getArgument(0));
+    }
+
+    @SuppressWarnings("unchecked")
+    private ArgumentCaptor<List<Credentials>> captureSavedChunks(int times) {
+        ArgumentCaptor<List<Credentials>> captor = ArgumentCaptor.forClass(List.class);
+        verify(credentialsRepository, times(times)).saveAll(captor.capture());
+        return captor;
+    }
+}
@@ -0,0 +1,187 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import br.com.consultdg.credential_portals_service.model.Credentials;
+import br.com.consultdg.credential_portals_service.model.ReEncryptionCheckpoint;
+import br.com.consultdg.credential_portals_service.repository.CredentialsRepository;
+import br.com.consultdg.credential_portals_service.repository.ReEncryptionCheckpointRepository;
+
+@SpringBootTest(properties = "credentials.re-encryption.enabled=false")
+class CredentialReEncryptionJobTest {
+
+    private static final String KEY_1 = Base64.getEncoder().encodeToString("MySecretKey12345".getBytes(StandardCharsets.UTF_8));
+    private static final String KEY_2 = Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Autowired
+    private CredentialsRepository credentialsRepository;
+
+    @Autowired
+    private ReEncryptionCheckpointRepository checkpointRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final InternalEncryptionService beforeRotation = new InternalEncryptionService("1:" + KEY_1, 1);
+    private final InternalEncryptionService afterRotation = new InternalEncryptionService("1:" + KEY_1 + ",2:" + KEY_2, 2);
+
+    private final List<UUID> createdIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        checkpointRepository.deleteAll();
+    }
+
+    @AfterEach
+    void tearDown() {
+        credentialsRepository.deleteAllById(createdIds);
+        checkpointRepository.deleteAll();
+    }
+
+    @Test
+    void testRun_ShouldReEncryptLegacyAndOldVersionValuesInChunks() throws Exception {
+        // Arrange
+        for (int i = 0; i < 23; i++) {
+            String stored = i % 3 == 0 ? legacyEncrypt("senha" + i) : beforeRotation.encrypt("senha" + i);
+            createCredential("senha" + i, stored);
+        }
+        CredentialReEncryptionJob job = newJob(10);
+
+        // Act
+        ReEncryptionCheckpoint checkpoint = job.run();
+
+        // Assert
+        assertTrue(checkpoint.isCompleted());
+        assertEquals(23L, checkpoint.getProcessedCount());
+        assertEquals(0L, checkpoint.getFailedCount());
+        for (UUID id : createdIds) {
+            Credentials credential = credentialsRepository.findById(id).orElseThrow();
+            assertEquals(2, afterRotation.keyVersionOf(credential.getOriginalPasswordEncrypted()));
+            assertEquals(credential.getUsername().replace("usuario-", ""), afterRotation.decrypt(credential.getOriginalPasswordEncrypted()));
+        }
+    }
+
+    @Test
+    void testRun_ShouldResumeFromCheckpointAndKeepUpdatedAt() throws Exception {
+        // Arrange
+        for (int i = 0; i < 6; i++) {
+            createCredential("senha" + i, beforeRotation.encrypt("senha" + i));
+        }
+        List<Credentials> ordered = new ArrayList<>(credentialsRepository.findAllById(createdIds));
+        // Mesma ordem do banco (sem sinal); UUID.compareTo compara com sinal
+        ordered.sort(Comparator.comparing(credential -> credential.getId().toString()));
+        Credentials alreadyProcessed = ordered.get(2);
+
+        ReEncryptionCheckpoint previousRun = new ReEncryptionCheckpoint(2);
+        previousRun.setLastCredentialId(alreadyProcessed.getId());
+        previousRun.setProcessedCount(3L);
+        checkpointRepository.save(previousRun);
+
+        // Act
+        ReEncryptionCheckpoint checkpoint = newJob(2).run();
+
+        // Assert
+        assertTrue(checkpoint.isCompleted());
+        assertEquals(6L, checkpoint.getProcessedCount());
+        for (int i = 0; i < ordered.size(); i++) {
+            Credentials before = ordered.get(i);
+            Credentials after = credentialsRepository.findById(before.getId()).orElseThrow();
+            int expectedVersion = i <= 2 ? 1 : 2;
+            assertEquals(expectedVersion, afterRotation.keyVersionOf(after.getOriginalPasswordEncrypted()));
+            assertEquals(before.getUpdatedAt(), after.getUpdatedAt());
+        }
+    }
+
+    @Test
+    void testRun_ShouldDoNothingWhenAlreadyCompleted() {
+        // Arrange
+        createCredential("senha", beforeRotation.encrypt("senha"));
+        CredentialReEncryptionJob job = newJob(10);
+        job.run();
+
+        // Act
+        ReEncryptionCheckpoint checkpoint = job.run();
+
+        // Assert
+        assertTrue(checkpoint.isCompleted());
+        assertEquals(1L, checkpoint.getProcessedCount());
+    }
+
+    @Test
+    void testRun_ShouldNotRescanWhenOnlyFailedRowsRemain() throws Exception {
+        // Arrange
+        createCredential("senha", beforeRotation.encrypt("senha"));
+        createCredential("ilegivel", "valor-que-nao-descriptografa");
+        CredentialReEncryptionJob job = newJob(10);
+        job.run();
+        ReEncryptionCheckpoint firstRun = checkpointRepository.findById(2).orElseThrow();
+
+        // Act
+        job.run();
+
+        // Assert
+        assertEquals(1L, firstRun.getFailedCount());
+        ReEncryptionCheckpoint stored = checkpointRepository.findById(2).orElseThrow();
+        assertEquals(firstRun.getCompletedAt(), stored.getCompletedAt());
+        assertEquals(firstRun.getUpdatedAt(), stored.getUpdatedAt());
+        assertEquals(1L, stored.getProcessedCount());
+        assertEquals(1L, stored.getFailedCount());
+    }
+
+    @Test
+    void testRun_ShouldRescanWhenNewRowsNeedReEncryptionBesidesFailedOnes() throws Exception {
+        // Arrange
+        createCredential("ilegivel", "valor-que-nao-descriptografa");
+        CredentialReEncryptionJob job = newJob(10);
+        job.run();
+        createCredential("senha", legacyEncrypt("senha"));
+
+        // Act
+        ReEncryptionCheckpoint checkpoint = job.run();
+
+        // Assert
+        assertTrue(checkpoint.isCompleted());
+        assertEquals(1L, checkpoint.getProcessedCount());
+        assertEquals(1L, checkpoint.getFailedCount());
+        Credentials credential = credentialsRepository.findById(createdIds.get(1)).orElseThrow();
+        assertEquals(2, afterRotation.keyVersionOf(credential.getOriginalPasswordEncrypted()));
+    }
+
+    private CredentialReEncryptionJob newJob(int chunkSize) {
+        return new CredentialReEncryptionJob(credentialsRepository, checkpointRepository, afterRotation,
+                transactionManager, false, chunkSize, 1.0);
+    }
+
+    private void createCredential(String password, String originalPasswordEncrypted) {
+        Credentials credential = new Credentials();
+        credential.setNameMall("Shopping Recriptografia");
+        credential.setUrlPortal("https://portal.example.com");
+        credential.setUsername("usuario-" + password);
+        credential.setPassword("$2a$12$R9h/cIPz0gi.URNNX3kh2OPST9/PgBkqquzi.Ss7KIUgO2t0jWMUW");
+        credential.setOriginalPasswordEncrypted(originalPasswordEncrypted);
+        createdIds.add(credentialsRepository.save(credential).getId());
+    }
+
+    private static String legacyEncrypt(String value) throws Exception {
+        Cipher cipher = Cipher.getInstance("AES");
+        cipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec("MySecretKey12345".getBytes(StandardCharsets.UTF_8), "AES"));
+        return Base64.getEncoder().encodeToString(cipher.doFinal(value.getBytes(StandardCharsets.UTF_8)));
+    }
+}
@@ -0,0 +1,63 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+import java.util.Optional;
+
+import org.hibernate.Session;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.annotation.Transactional;
+
+import br.com.consultdg.credential_portals_service.api.model.CredentialsResponseDTO;
+import br.com.consultdg.credential_portals_service.model.Credentials;
+import br.com.consultdg.credential_portals_service.repository.CredentialsRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+
+@SpringBootTest(properties = "credentials.re-encryption.enabled=false")
+@Transactional
+class CredentialsListingTest {
+
+    @Autowired
+    private CredentialsRepository credentialsRepository;
+
+    @Autowired
+    private CredentialsService credentialsService;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Test
+    void testListings_ShouldReturnDtosWithoutManagingEntities() {
+        // Arrange
+        Credentials credential = new Credentials();
+        credential.setNameMall("Shopping Projeção");
+        credential.setCnpj("98765432000110");
+        credential.setUrlPortal("https://portal.shopping.com");
+        credential.setUsername("usuario.projecao");
+        credential.setPassword("$2a$10$hashplaceholder");
+        credential.setPasswordOfInvoice("senhaNota");
+        Credentials saved = credentialsRepository.saveAndFlush(credential);
+        entityManager.clear();
+
+        // Act
+        List<CredentialsResponseDTO> byNameMall = credentialsService.findByNameMall("Shopping Projeção");
+        Optional<CredentialsResponseDTO> byCnpj = credentialsService.findByCnpj("98765432000110");
+        List<CredentialsResponseDTO> all = credentialsService.findAll();
+
+        // Assert
+        assertEquals(1, byNameMall.size());
+        CredentialsResponseDTO dto = byNameMall.get(0);
+        assertEquals(saved.getId(), dto.getId());
+        assertEquals("usuario.projecao", dto.getUsername());
+        assertEquals("senhaNota", dto.getPasswordOfInvoice());
+        assertNotNull(dto.getCreatedAt());
+        assertTrue(dto.getActive());
+        assertEquals(saved.getId(), byCnpj.orElseThrow().getId());
+        assertTrue(all.stream().anyMatch(item -> item.getId().equals(saved.getId())));
+        assertEquals(0, entityManager.unwrap(Session.class).getStatistics().getEntityCount());
+    }
+}
@@ -3,6 +3,10 @@ package br.com.consultdg.credential_portals_service.service;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
+import java.security.KeyPairGenerator;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -12,11 +16,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import br.com.consultdg.credential_portals_service.api.model.BasicCredentialsResponseDTO;
+import br.com.consultdg.credential_portals_service.api.model.CredentialsPatchRequestDTO;
 import br.com.consultdg.credential_portals_service.api.model.CredentialsRequestDTO;
 import br.com.consultdg.credential_portals_service.api.model.CredentialsResponseDTO;
+import br.com.consultdg.credential_portals_service.api.model.PasswordVerificationItemDTO;
+import br.com.consultdg.credential_portals_service.api.model.PasswordVerificationResultDTO;
 import br.com.consultdg.credential_portals_service.model.Credentials;
 import br.com.consultdg.credential_portals_service.repository.CredentialsRepository;
+import br.com.consultdg.credential_portals_service.service.ConsumerKeyRegistry.RegisteredKey;
 
 @ExtendWith(MockitoExtension.class)
 class CredentialsServiceTest {
@@ -30,6 +40,12 @@ class CredentialsServiceTest {
     @Mock
     private InternalEncryptionService internalEncryptionService;
 
+    @Mock
+    private ConsumerCiphertextCache consumerCiphertextCache;
+
+    @Mock
+    private ConsumerKeyRegistry consumerKeyRegistry;
+
     @InjectMocks
     private CredentialsService credentialsService;
 
@@ -108,6 +124,157 @@ class CredentialsServiceTest {
         verify(internalEncryptionService).encrypt(PLAIN_PASSWORD);
         verify(passwordEncryptionService).encryptPassword(PLAIN_PASSWORD);
         verify(credentialsRepository).save(any(Credentials.class));
+        verify(consumerCiphertextCache).invalidateCredential(id);
+    }
+
+    @Test
+    void testPatchCredentials_ShouldNotReencryptWhenPasswordUnchanged() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        Credentials existingCredentials = existingCredentials(id);
+        CredentialsPatchRequestDTO patchDTO = new CredentialsPatchRequestDTO();
+        patchDTO.setNameMall("Shopping Novo");
+        patchDTO.setPassword(PLAIN_PASSWORD);
+
+        when(credentialsRepository.findById(id))
+                .thenReturn(Optional.of(existingCredentials));
+        when(internalEncryptionService.decryptToBuffer(INTERNAL_ENCRYPTED_PASSWORD))
+                .thenReturn(SecretBuffer.of(PLAIN_PASSWORD));
+        when(credentialsRepository.save(any(Credentials.class)))
+                .thenReturn(existingCredentials);
+
+        // Act
+        Optional<CredentialsResponseDTO> result = credentialsService.patch(id, patchDTO);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("Shopping Novo", existingCredentials.getNameMall());
+        assertEquals(ENCRYPTED_PASSWORD, existingCredentials.getPassword());
+        verify(internalEncryptionService, never()).encrypt(anyString());
+        verify(passwordEncryptionService, never()).encryptPassword(anyString());
+        verify(credentialsRepository).save(existingCredentials);
+        verify(consumerCiphertextCache).invalidateCredential(id);
+    }
+
+    @Test
+    void testPatchCredentials_ShouldEncryptChangedPassword() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        Credentials existingCredentials = existingCredentials(id);
+        CredentialsPatchRequestDTO patchDTO = new CredentialsPatchRequestDTO();
+        patchDTO.setPassword("novasenha456");
+
+        when(credentialsRepository.findById(id))
+                .thenReturn(Optional.of(existingCredentials));
+        when(internalEncryptionService.decryptToBuffer(INTERNAL_ENCRYPTED_PASSWORD))
+                .thenReturn(SecretBuffer.of(PLAIN_PASSWORD));
+        when(internalEncryptionService.encrypt("novasenha456"))
+                .thenReturn("AES_NEW_PASSWORD");
+        when(passwordEncryptionService.encryptPassword("novasenha456"))
+                .thenReturn("$2a$12$newhash");
+        when(credentialsRepository.save(any(Credentials.class)))
+                .thenReturn(existingCredentials);
+
+        // Act
+        Optional<CredentialsResponseDTO> result = credentialsService.patch(id, patchDTO);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertEquals("AES_NEW_PASSWORD", existingCredentials.getOriginalPasswordEncrypted());
+        assertEquals("$2a$12$newhash", existingCredentials.getPassword());
+        verify(credentialsRepository).save(existingCredentials);
+        verify(consumerCiphertextCache).invalidateCredential(id);
+    }
+
+    @Test
+    void testPatchCredentials_ShouldNotSaveWhenNothingChanged() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        Credentials existingCredentials = existingCredentials(id);
+        CredentialsPatchRequestDTO patchDTO = new CredentialsPatchRequestDTO();
+        patchDTO.setUsername(existingCredentials.getUsername());
+
+        when(credentialsRepository.findById(id))
+                .thenReturn(Optional.of(existingCredentials));
+
+        // Act
+        Optional<CredentialsResponseDTO> result = credentialsService.patch(id, patchDTO);
+
+        // Assert
+        assertTrue(result.isPresent());
+        verify(credentialsRepository, never()).save(any(Credentials.class));
+        verify(consumerCiphertextCache, never()).invalidateCredential(any());
+    }
+
+    @Test
+    void testPatchCredentials_ShouldSetDeletedAtWhenDeactivated() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        Credentials existingCredentials = existingCredentials(id);
+        CredentialsPatchRequestDTO patchDTO = new CredentialsPatchRequestDTO();
+        patchDTO.setActive(false);
+
+        when(credentialsRepository.findById(id))
+                .thenReturn(Optional.of(existingCredentials));
+        when(credentialsRepository.save(any(Credentials.class)))
+                .thenReturn(existingCredentials);
+        LocalDateTime before = LocalDateTime.now();
+
+        // Act
+        Optional<CredentialsResponseDTO> result = credentialsService.patch(id, patchDTO);
+
+        // Assert
+        assertTrue(result.isPresent());
+        assertFalse(existingCredentials.getActive());
+        assertNotNull(existingCredentials.getDeletedAt());
+        assertFalse(existingCredentials.getDeletedAt().isBefore(before));
+        verify(credentialsRepository).save(existingCredentials);
+        verify(consumerCiphertextCache).invalidateCredential(id);
+    }
+
+    @Test
+    void testCreateCredentials_ShouldDeferHashWhenQueueAvailable() {
+        // Arrange
+        PasswordHashQueue passwordHashQueue = mock(PasswordHashQueue.class);
+        ReflectionTestUtils.setField(credentialsService, "passwordHashQueue", passwordHashQueue);
+        when(internalEncryptionService.encrypt(PLAIN_PASSWORD))
+                .thenReturn(INTERNAL_ENCRYPTED_PASSWORD);
+        when(credentialsRepository.save(any(Credentials.class)))
+                .thenAnswer(invocation -> {
+                    Credentials saved = invocation.getArgument(0);
+                    saved.setId(credentials.getId());
+                    return saved;
+                });
+
+        // Act
+        credentialsService.create(requestDTO);
+
+        // Assert
+        verify(credentialsRepository).save(argThat(Credentials::isPasswordHashPending));
+        verify(passwordEncryptionService, never()).encryptPassword(any());
+        verify(passwordHashQueue).submit(credentials.getId(), INTERNAL_ENCRYPTED_PASSWORD);
+    }
+
+    @Test
+    void testVerifyPassword_ShouldAwaitPendingHash() {
+        // Arrange
+        PasswordHashQueue passwordHashQueue = mock(PasswordHashQueue.class);
+        ReflectionTestUtils.setField(credentialsService, "passwordHashQueue", passwordHashQueue);
+        UUID id = credentials.getId();
+        credentials.markPasswordHashPending();
+        when(credentialsRepository.findById(id))
+                .thenReturn(Optional.of(credentials));
+        when(passwordHashQueue.awaitHash(credentials))
+                .thenReturn(ENCRYPTED_PASSWORD);
+        when(passwordEncryptionService.verifyPassword(PLAIN_PASSWORD, ENCRYPTED_PASSWORD))
+                .thenReturn(true);
+
+        // Act
+        boolean result = credentialsService.verifyPassword(id, PLAIN_PASSWORD);
+
+        // Assert
+        assertTrue(result);
+        verify(passwordHashQueue).awaitHash(credentials);
     }
 
     @Test
@@ -129,6 +296,87 @@ class CredentialsServiceTest {
         verify(passwordEncryptionService).verifyPassword(PLAIN_PASSWORD, ENCRYPTED_PASSWORD);
     }
 
+    @Test
+    void testVerifyPassword_ShouldRehashWhenCostDiffers() {
+        // Arrange
+        UUID id = credentials.getId();
+        String newHash = "$2a$10$newhash";
+        when(credentialsRepository.findById(id))
+                .thenReturn(Optional.of(credentials));
+        when(passwordEncryptionService.verifyPassword(PLAIN_PASSWORD, ENCRYPTED_PASSWORD))
+                .thenReturn(true);
+        when(passwordEncryptionService.needsRehash(ENCRYPTED_PASSWORD))
+                .thenReturn(true);
+        when(passwordEncryptionService.encryptPassword(PLAIN_PASSWORD))
+                .thenReturn(newHash);
+
+        // Act
+        boolean result = credentialsService.verifyPassword(id, PLAIN_PASSWORD);
+
+        // Assert
+        assertTrue(result);
+        verify(credentialsRepository).replacePasswordHash(id, ENCRYPTED_PASSWORD, newHash);
+    }
+
+    @Test
+    void testVerifyPassword_ShouldQueueRehashWithAesCopyInsteadOfPlainPassword() {
+        // Arrange
+        PasswordHashQueue passwordHashQueue = mock(PasswordHashQueue.class);
+        ReflectionTestUtils.setField(credentialsService, "passwordHashQueue", passwordHashQueue);
+        UUID id = credentials.getId();
+        when(credentialsRepository.findById(id))
+                .thenReturn(Optional.of(credentials));
+        when(passwordEncryptionService.verifyPassword(PLAIN_PASSWORD, ENCRYPTED_PASSWORD))
+                .thenReturn(true);
+        when(passwordEncryptionService.needsRehash(ENCRYPTED_PASSWORD))
+                .thenReturn(true);
+
+        // Act
+        boolean result = credentialsService.verifyPassword(id, PLAIN_PASSWORD);
+
+        // Assert
+        assertTrue(result);
+        verify(passwordHashQueue).submitRehash(id, ENCRYPTED_PASSWORD, INTERNAL_ENCRYPTED_PASSWORD);
+        verify(passwordEncryptionService, never()).encryptPassword(anyString());
+    }
+
+    @Test
+    void testVerifyPasswords_ShouldLoadAllCredentialsWithOneQuery() {
+        // Arrange
+        BatchPasswordVerifier batchPasswordVerifier = new BatchPasswordVerifier(2, 10, 100, 0);
+        ReflectionTestUtils.setField(credentialsService, "batchPasswordVerifier", batchPasswordVerifier);
+        UUID id = UUID.randomUUID();
+        UUID unknownId = UUID.randomUUID();
+        Credentials existingCredentials = existingCredentials(id);
+        List<PasswordVerificationItemDTO> items = List.of(
+                new PasswordVerificationItemDTO(id, PLAIN_PASSWORD),
+                new PasswordVerificationItemDTO(id, "senhaerrada"),
+                new PasswordVerificationItemDTO(unknownId, PLAIN_PASSWORD));
+
+        when(credentialsRepository.findAllById(anyIterable()))
+                .thenReturn(List.of(existingCredentials));
+        when(passwordEncryptionService.verifyPassword(PLAIN_PASSWORD, ENCRYPTED_PASSWORD))
+                .thenReturn(true);
+        when(passwordEncryptionService.verifyPassword("senhaerrada", ENCRYPTED_PASSWORD))
+                .thenReturn(false);
+
+        // Act
+        PasswordVerificationResultDTO[] results = new PasswordVerificationResultDTO[items.size()];
+        try {
+            credentialsService.verifyPasswords(items, result -> results[result.getIndex()] = result);
+        } finally {
+            batchPasswordVerifier.shutdown();
+        }
+
+        // Assert
+        assertTrue(results[0].isFound() && results[0].isValid());
+        assertTrue(results[1].isFound() && !results[1].isValid());
+        assertFalse(results[2].isFound());
+        assertEquals(unknownId, results[2].getId());
+        verify(credentialsRepository, times(1)).findAllById(anyIterable());
+        verify(credentialsRepository, never()).findById(any());
+    }
+
     @Test
     void testVerifyPassword_ShouldReturnFalseForIncorrectPassword() {
         // Arrange
@@ -164,4 +412,83 @@ class CredentialsServiceTest {
         assertFalse(result);
         verify(passwordEncryptionService, never()).verifyPassword(anyString(), anyString());
     }
+
+    @Test
+    void testCredentialsETag_ShouldChangeOnlyWhenListingChanges() throws Exception {
+        // Arrange
+        String consumer = "robot-test";
+        RegisteredKey registeredKey = new RegisteredKey(consumer,
+                KeyPairGenerator.getInstance("RSA").generateKeyPair().getPublic(), ConsumerKeyAlgorithm.RSA,
+                null, true, LocalDateTime.now());
+        when(consumerKeyRegistry.findValidKey(consumer)).thenReturn(Optional.of(registeredKey));
+        UUID id = UUID.randomUUID();
+        LocalDateTime updatedAt = LocalDateTime.now();
+        List<Object[]> versions = new ArrayList<>();
+        versions.add(new Object[] {id, updatedAt});
+        List<Object[]> changedVersions = new ArrayList<>();
+        changedVersions.add(new Object[] {id, updatedAt.plusSeconds(1)});
+        when(credentialsRepository.findActiveVersions())
+                .thenReturn(versions)
+                .thenReturn(versions)
+                .thenReturn(versions)
+                .thenReturn(changedVersions);
+
+        // Act
+        String first = credentialsService.credentialsETag(consumer, "rsa");
+        String repeated = credentialsService.credentialsETag(consumer, "rsa");
+        String hybrid = credentialsService.credentialsETag(consumer, "hybrid");
+        String changed = credentialsService.credentialsETag(consumer, "rsa");
+
+        // Assert
+        assertTrue(first.startsWith("\"") && first.endsWith("\""));
+        assertEquals(first, repeated);
+        assertNotEquals(first, hybrid);
+        assertNotEquals(first, changed);
+    }
+
+    @Test
+    void testFindAllBasicWithEncryptedPassword_ShouldKeepFailedCredentialWithErrorMarker() throws Exception {
+        // Arrange
+        String consumer = "robot-test";
+        RegisteredKey registeredKey = new RegisteredKey(consumer,
+                KeyPairGenerator.getInstance("RSA").generateKeyPair().getPublic(), ConsumerKeyAlgorithm.RSA,
+                null, true, LocalDateTime.now());
+        when(consumerKeyRegistry.findValidKey(consumer)).thenReturn(Optional.of(registeredKey));
+        Credentials failing = existingCredentials(UUID.randomUUID());
+        failing.setNameMall("Shopping Falha");
+        when(credentialsRepository.findAllActive()).thenReturn(List.of(credentials, failing));
+        when(consumerCiphertextCache.get(eq(registeredKey), eq(credentials), any()))
+                .thenReturn(new ConsumerCiphertextCache.EncryptedPasswords("cifrada", null));
+        when(consumerCiphertextCache.get(eq(registeredKey), eq(failing), any()))
+                .thenThrow(new IllegalStateException("chave de dados indisponível"));
+        BulkEncryptionEngine bulkEncryptionEngine = new BulkEncryptionEngine(1, 1, 1, 1);
+        ReflectionTestUtils.setField(credentialsService, "bulkEncryptionEngine", bulkEncryptionEngine);
+
+        try {
+            // Act
+            List<BasicCredentialsResponseDTO> result = credentialsService.findAllBasicWithEncryptedPassword(consumer);
+
+            // Assert
+            assertEquals(2, result.size());
+            assertEquals("cifrada", result.get(0).getPassword());
+            assertNull(result.get(0).getError());
+            assertEquals("Shopping Falha", result.get(1).getNameMall());
+            assertNull(result.get(1).getPassword());
+            assertEquals(CredentialsService.ENCRYPTION_FAILED_MESSAGE, result.get(1).getError());
+        } finally {
+            bulkEncryptionEngine.shutdown();
+        }
+    }
+
+    private Credentials existingCredentials(UUID id) {
+        Credentials existingCredentials = new Credentials();
+        existingCredentials.setId(id);
+        existingCredentials.setNameMall("Shopping Teste");
+        existingCredentials.setUsername("usuario");
+        existingCredentials.setPassword(ENCRYPTED_PASSWORD);
+        existingCredentials.setOriginalPasswordEncrypted(INTERNAL_ENCRYPTED_PASSWORD);
+        existingCredentials.markPasswordAsProcessed(); // Como carregada do banco
+        existingCredentials.setActive(true);
+        return existingCredentials;
+    }
 }
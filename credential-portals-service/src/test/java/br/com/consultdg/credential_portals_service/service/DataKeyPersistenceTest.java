@@ -0,0 +1,50 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import br.com.consultdg.credential_portals_service.repository.DataKeyRepository;
+
+@SpringBootTest(properties = "credentials.re-encryption.enabled=false")
+class DataKeyPersistenceTest {
+
+    @Autowired
+    private DataKeyRepository dataKeyRepository;
+
+    @Autowired
+    private InternalKeyRing keyRing;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void testActiveKey_ShouldKeepNewKeyWhenCallerTransactionRollsBack() {
+        // Arrange
+        // Idade máxima zero: a chave mais recente do banco não é reaproveitada e uma nova é criada
+        DataKeyService dataKeyService = new DataKeyService(dataKeyRepository, keyRing, transactionManager,
+                100, Duration.ZERO, 100, Duration.ofHours(1));
+        AtomicReference<UUID> dataKeyId = new AtomicReference<>();
+
+        // Act
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            dataKeyId.set(dataKeyService.activeKey().getId());
+            status.setRollbackOnly();
+        });
+
+        // Assert
+        assertTrue(dataKeyRepository.findById(dataKeyId.get()).isPresent());
+        DataKeyService otherInstance = new DataKeyService(dataKeyRepository, keyRing, transactionManager,
+                100, Duration.ofDays(30), 100, Duration.ofHours(1));
+        assertArrayEquals(dataKeyService.getKey(dataKeyId.get()).getEncoded(),
+                otherInstance.getKey(dataKeyId.get()).getEncoded());
+    }
+}
@@ -0,0 +1,165 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import br.com.consultdg.credential_portals_service.model.DataKey;
+import br.com.consultdg.credential_portals_service.repository.DataKeyRepository;
+
+@ExtendWith(MockitoExtension.class)
+class DataKeyServiceTest {
+
+    private static final String KEY_1 = Base64.getEncoder().encodeToString(new byte[16]);
+    private static final String KEY_2 = Base64.getEncoder().encodeToString(new byte[32]);
+
+    @Mock
+    private DataKeyRepository dataKeyRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final List<DataKey> savedKeys = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(dataKeyRepository.save(any(DataKey.class))).thenAnswer(invocation -> {
+            DataKey dataKey = invocation.getArgument(0);
+            if (dataKey.getId() == null) {
+                dataKey.setId(UUID.randomUUID());
+                savedKeys.add(dataKey);
+            }
+            return dataKey;
+        });
+        lenient().when(dataKeyRepository.findById(any(UUID.class))).thenAnswer(invocation -> savedKeys.stream()
+                .filter(dataKey -> dataKey.getId().equals(invocation.getArgument(0)))
+                .findFirst());
+        lenient().when(dataKeyRepository.findFirstByOrderByCreatedAtDesc()).thenReturn(Optional.empty());
+    }
+
+    @Test
+    void testEncrypt_ShouldUseEnvelopeFormatWithDataKey() {
+        // Arrange
+        InternalEncryptionService service = newEncryptionService(newDataKeyService(InternalKeyRing.parse("1:" + KEY_1, 1), 100));
+
+        // Act
+        String encrypted = service.encrypt("minhasenha123");
+
+        // Assert
+        assertTrue(encrypted.startsWith("d:" + savedKeys.get(0).getId() + ":"));
+        assertTrue(service.isEnvelope(encrypted));
+        assertEquals("minhasenha123", service.decrypt(encrypted));
+        assertEquals("d:%", service.currentFormatPattern());
+    }
+
+    @Test
+    void testActiveKey_ShouldReuseKeyUntilMaxUses() {
+        // Arrange
+        DataKeyService dataKeyService = newDataKeyService(InternalKeyRing.parse("1:" + KEY_1, 1), 3);
+
+        // Act
+        UUID first = dataKeyService.activeKey().getId();
+        UUID second = dataKeyService.activeKey().getId();
+        UUID third = dataKeyService.activeKey().getId();
+        UUID fourth = dataKeyService.activeKey().getId();
+
+        // Assert
+        assertEquals(first, second);
+        assertEquals(first, third);
+        assertNotEquals(first, fourth);
+        assertEquals(2, savedKeys.size());
+    }
+
+    @Test
+    void testActiveKey_ShouldCommitNewKeyInItsOwnTransaction() {
+        // Arrange
+        DataKeyService dataKeyService = newDataKeyService(InternalKeyRing.parse("1:" + KEY_1, 1), 100);
+
+        // Act
+        dataKeyService.activeKey();
+
+        // Assert
+        InOrder inOrder = inOrder(transactionManager, dataKeyRepository);
+        inOrder.verify(transactionManager).getTransaction(argThat(definition ->
+                definition.getPropagationBehavior() == TransactionDefinition.PROPAGATION_REQUIRES_NEW));
+        inOrder.verify(dataKeyRepository).save(any(DataKey.class));
+        inOrder.verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void testGetKey_ShouldUnwrapOnlyOnceWhileCached() {
+        // Arrange
+        InternalKeyRing keyRing = InternalKeyRing.parse("1:" + KEY_1, 1);
+        InternalEncryptionService writer = newEncryptionService(newDataKeyService(keyRing, 100));
+        String encrypted = writer.encrypt("minhasenha123");
+        InternalEncryptionService reader = newEncryptionService(newDataKeyService(keyRing, 100));
+
+        // Act
+        for (int i = 0; i < 5; i++) {
+            assertEquals("minhasenha123", reader.decrypt(encrypted));
+        }
+
+        // Assert
+        verify(dataKeyRepository, times(1)).findById(savedKeys.get(0).getId());
+    }
+
+    @Test
+    void testRewrapDataKeys_ShouldKeepValuesReadableAfterMasterKeyRotation() {
+        // Arrange
+        InternalEncryptionService beforeRotation = newEncryptionService(newDataKeyService(InternalKeyRing.parse("1:" + KEY_1, 1), 100));
+        String encrypted = beforeRotation.encrypt("minhasenha123");
+        DataKey dataKey = savedKeys.get(0);
+        when(dataKeyRepository.findByMasterKeyVersionNot(2)).thenReturn(List.of(dataKey));
+        DataKeyService afterRotationKeys = newDataKeyService(InternalKeyRing.parse("1:" + KEY_1 + ",2:" + KEY_2, 2), 100);
+
+        // Act
+        int rewrapped = afterRotationKeys.rewrapDataKeys();
+
+        // Assert
+        assertEquals(1, rewrapped);
+        assertEquals(2, dataKey.getMasterKeyVersion());
+        assertTrue(dataKey.getWrappedKey().startsWith("v2:"));
+        // Sem a chave mestra antiga, o valor continua legível pela chave de dados protegida novamente
+        InternalEncryptionService onlyNewKey = newEncryptionService(newDataKeyService(InternalKeyRing.parse("2:" + KEY_2, 2), 100));
+        assertEquals("minhasenha123", onlyNewKey.decrypt(encrypted));
+    }
+
+    @Test
+    void testDecrypt_ShouldFailForUnknownDataKey() {
+        // Arrange
+        InternalEncryptionService service = newEncryptionService(newDataKeyService(InternalKeyRing.parse("1:" + KEY_1, 1), 100));
+        String encrypted = service.encrypt("minhasenha123");
+        savedKeys.clear();
+        InternalEncryptionService otherInstance = newEncryptionService(newDataKeyService(InternalKeyRing.parse("1:" + KEY_1, 1), 100));
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> otherInstance.decrypt(encrypted));
+    }
+
+    private DataKeyService newDataKeyService(InternalKeyRing keyRing, long maxUses) {
+        return new DataKeyService(dataKeyRepository, keyRing, transactionManager, maxUses, Duration.ofDays(30), 100, Duration.ofHours(1));
+    }
+
+    private InternalEncryptionService newEncryptionService(DataKeyService dataKeyService) {
+        InternalEncryptionService service = new InternalEncryptionService(dataKeyService.getKeyRing());
+        service.bindDataKeys(dataKeyService);
+        return service;
+    }
+}
@@ -0,0 +1,88 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.security.KeyPair;
+import java.util.Arrays;
+import java.util.Base64;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.EnumSource;
+
+class EciesEncryptionServiceTest {
+
+    private EciesEncryptionService eciesEncryptionService;
+
+    @BeforeEach
+    void setUp() {
+        eciesEncryptionService = new EciesEncryptionService();
+    }
+
+    @ParameterizedTest
+    @EnumSource(value = ConsumerKeyAlgorithm.class, names = {"X25519", "P256"})
+    void testEncryptDecrypt_ShouldRoundTrip(ConsumerKeyAlgorithm algorithm) throws Exception {
+        // Arrange
+        KeyPair keyPair = eciesEncryptionService.generateKeyPair(algorithm);
+        String password = "senhaDoPortal@123ç";
+
+        // Act
+        String encrypted = eciesEncryptionService.encrypt(password, keyPair.getPublic());
+        String decrypted = eciesEncryptionService.decrypt(encrypted, keyPair.getPrivate());
+
+        // Assert
+        assertEquals(password, decrypted);
+    }
+
+    @Test
+    void testEncrypt_ShouldProduceCompactCiphertextWithFreshEphemeralKey() throws Exception {
+        // Arrange
+        KeyPair keyPair = eciesEncryptionService.generateKeyPair(ConsumerKeyAlgorithm.X25519);
+
+        // Act
+        String encrypted1 = eciesEncryptionService.encrypt("mesmasenha", keyPair.getPublic());
+        String encrypted2 = eciesEncryptionService.encrypt("mesmasenha", keyPair.getPublic());
+
+        // Assert
+        assertNotEquals(encrypted1, encrypted2);
+        // Chave efêmera (32) + senha (10) + tag (16) bytes, contra 256 bytes de um bloco RSA-2048
+        assertEquals(58, Base64.getDecoder().decode(encrypted1).length);
+    }
+
+    @Test
+    void testDecrypt_ShouldFailWithAnotherPrivateKey() throws Exception {
+        // Arrange
+        KeyPair keyPair = eciesEncryptionService.generateKeyPair(ConsumerKeyAlgorithm.X25519);
+        KeyPair otherKeyPair = eciesEncryptionService.generateKeyPair(ConsumerKeyAlgorithm.X25519);
+        String encrypted = eciesEncryptionService.encrypt("senha", keyPair.getPublic());
+
+        // Act & Assert
+        assertThrows(Exception.class, () -> eciesEncryptionService.decrypt(encrypted, otherKeyPair.getPrivate()));
+    }
+
+    @Test
+    void testStringToPublicKey_ShouldAcceptX509AndRawX25519Keys() throws Exception {
+        // Arrange
+        KeyPair keyPair = eciesEncryptionService.generateKeyPair(ConsumerKeyAlgorithm.X25519);
+        byte[] encoded = keyPair.getPublic().getEncoded();
+        String raw = Base64.getEncoder().encodeToString(Arrays.copyOfRange(encoded, encoded.length - 32, encoded.length));
+
+        // Act & Assert
+        assertArrayEquals(encoded, eciesEncryptionService.stringToPublicKey(eciesEncryptionService.publicKeyToString(keyPair.getPublic()), ConsumerKeyAlgorithm.X25519).getEncoded());
+        assertArrayEquals(encoded, eciesEncryptionService.stringToPublicKey(raw, ConsumerKeyAlgorithm.X25519).getEncoded());
+    }
+
+    @Test
+    void testIsValidPublicKey_ShouldRejectKeyOfAnotherAlgorithm() throws Exception {
+        // Arrange
+        String x25519Key = eciesEncryptionService.publicKeyToString(eciesEncryptionService.generateKeyPair(ConsumerKeyAlgorithm.X25519).getPublic());
+        String rsaKey = new RSAEncryptionService().publicKeyToString(new RSAEncryptionService().generateKeyPair().getPublic());
+
+        // Act & Assert
+        assertTrue(eciesEncryptionService.isValidPublicKey(x25519Key, ConsumerKeyAlgorithm.X25519));
+        assertFalse(eciesEncryptionService.isValidPublicKey(x25519Key, ConsumerKeyAlgorithm.P256));
+        assertFalse(eciesEncryptionService.isValidPublicKey(rsaKey, ConsumerKeyAlgorithm.X25519));
+        assertFalse(eciesEncryptionService.isValidPublicKey("chave-invalida", ConsumerKeyAlgorithm.X25519));
+    }
+}
@@ -0,0 +1,102 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.security.KeyPair;
+import java.util.Base64;
+
+import javax.crypto.SecretKey;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+@ExtendWith(MockitoExtension.class)
+class HybridEncryptionServiceTest {
+
+    @Spy
+    private RSAEncryptionService rsaEncryptionService = new RSAEncryptionService();
+
+    @Spy
+    private EciesEncryptionService eciesEncryptionService = new EciesEncryptionService();
+
+    @InjectMocks
+    private HybridEncryptionService hybridEncryptionService;
+
+    private KeyPair keyPair;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        keyPair = rsaEncryptionService.generateKeyPair();
+    }
+
+    @Test
+    void testEncryptDecrypt_ShouldRoundTripThroughWrappedSessionKey() throws Exception {
+        // Arrange
+        String password = "senhaDoPortal@123";
+        String invoicePassword = "senhaNotaFiscal!ç";
+        HybridEncryptionService.Session session = hybridEncryptionService.openSession(keyPair.getPublic());
+
+        // Act
+        String encryptedPassword = session.encrypt(password);
+        String encryptedInvoicePassword = session.encrypt(invoicePassword);
+        SecretKey sessionKey = hybridEncryptionService.unwrapSessionKey(session.getWrappedKey(), keyPair.getPrivate());
+
+        // Assert
+        assertEquals(password, hybridEncryptionService.decrypt(encryptedPassword, sessionKey));
+        assertEquals(invoicePassword, hybridEncryptionService.decrypt(encryptedInvoicePassword, sessionKey));
+    }
+
+    @Test
+    void testEncryptDecrypt_ShouldWrapSessionKeyWithX25519ConsumerKey() throws Exception {
+        // Arrange
+        KeyPair x25519KeyPair = eciesEncryptionService.generateKeyPair(ConsumerKeyAlgorithm.X25519);
+        HybridEncryptionService.Session session = hybridEncryptionService.openSession(x25519KeyPair.getPublic());
+
+        // Act
+        String encryptedPassword = session.encrypt("senhaDoPortal@123");
+        SecretKey sessionKey = hybridEncryptionService.unwrapSessionKey(session.getWrappedKey(), x25519KeyPair.getPrivate());
+
+        // Assert
+        assertEquals("senhaDoPortal@123", hybridEncryptionService.decrypt(encryptedPassword, sessionKey));
+    }
+
+    @Test
+    void testEncrypt_ShouldProduceCompactCiphertextWithFreshIv() throws Exception {
+        // Arrange
+        HybridEncryptionService.Session session = hybridEncryptionService.openSession(keyPair.getPublic());
+
+        // Act
+        String encrypted1 = session.encrypt("mesmasenha");
+        String encrypted2 = session.encrypt("mesmasenha");
+
+        // Assert
+        assertNotEquals(encrypted1, encrypted2);
+        // IV (12) + senha (10) + tag (16) bytes, bem menor que os 256 bytes de um bloco RSA-2048
+        assertEquals(38, Base64.getDecoder().decode(encrypted1).length);
+    }
+
+    @Test
+    void testDecrypt_ShouldFailWithAnotherSessionKey() throws Exception {
+        // Arrange
+        HybridEncryptionService.Session session = hybridEncryptionService.openSession(keyPair.getPublic());
+        HybridEncryptionService.Session otherSession = hybridEncryptionService.openSession(keyPair.getPublic());
+        String encrypted = session.encrypt("senha");
+        SecretKey otherKey = hybridEncryptionService.unwrapSessionKey(otherSession.getWrappedKey(), keyPair.getPrivate());
+
+        // Act & Assert
+        assertThrows(Exception.class, () -> hybridEncryptionService.decrypt(encrypted, otherKey));
+    }
+
+    @Test
+    void testEncrypt_ShouldThrowExceptionForEmptyData() throws Exception {
+        // Arrange
+        HybridEncryptionService.Session session = hybridEncryptionService.openSession(keyPair.getPublic());
+
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> session.encrypt(""));
+    }
+}
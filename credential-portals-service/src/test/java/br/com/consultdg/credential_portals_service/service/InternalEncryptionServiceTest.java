@@ -2,6 +2,12 @@ package br.com.consultdg.credential_portals_service.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 
@@ -38,9 +44,65 @@ class InternalEncryptionServiceTest {
         String encrypted2 = internalEncryptionService.encrypt(password);
 
         // Assert
-        // Nota: Com AES ECB, o resultado será o mesmo para a mesma entrada
-        // Isso é aceitável para este caso de uso interno
-        assertEquals(encrypted1, encrypted2);
+        // Com AES-GCM cada valor usa um IV aleatório
+        assertNotEquals(encrypted1, encrypted2);
+        assertEquals(password, internalEncryptionService.decrypt(encrypted1));
+        assertEquals(password, internalEncryptionService.decrypt(encrypted2));
+    }
+
+    @Test
+    void testEncrypt_ShouldPrefixActiveKeyVersion() {
+        // Act
+        String encrypted = internalEncryptionService.encrypt("minhasenha123");
+
+        // Assert
+        assertTrue(encrypted.startsWith("v1:"));
+        assertEquals(1, internalEncryptionService.keyVersionOf(encrypted));
+    }
+
+    @Test
+    void testDecrypt_ShouldReadLegacyEcbValues() throws Exception {
+        // Arrange
+        Cipher legacyCipher = Cipher.getInstance("AES");
+        legacyCipher.init(Cipher.ENCRYPT_MODE, new SecretKeySpec("MySecretKey12345".getBytes(StandardCharsets.UTF_8), "AES"));
+        String legacyValue = Base64.getEncoder().encodeToString(legacyCipher.doFinal("senhaLegada".getBytes(StandardCharsets.UTF_8)));
+
+        // Act
+        String decrypted = internalEncryptionService.decrypt(legacyValue);
+
+        // Assert
+        assertEquals(0, internalEncryptionService.keyVersionOf(legacyValue));
+        assertEquals("senhaLegada", decrypted);
+    }
+
+    @Test
+    void testDecrypt_ShouldReadValuesFromPreviousKeyAfterRotation() {
+        // Arrange
+        String key1 = Base64.getEncoder().encodeToString(new byte[32]);
+        String key2 = Base64.getEncoder().encodeToString("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8));
+        InternalEncryptionService beforeRotation = new InternalEncryptionService("1:" + key1, 1);
+        InternalEncryptionService afterRotation = new InternalEncryptionService("1:" + key1 + ",2:" + key2, 2);
+        String oldValue = beforeRotation.encrypt("senhaAntiga");
+
+        // Act
+        String newValue = afterRotation.encrypt("senhaNova");
+
+        // Assert
+        assertEquals("senhaAntiga", afterRotation.decrypt(oldValue));
+        assertEquals("senhaNova", afterRotation.decrypt(newValue));
+        assertEquals(2, afterRotation.keyVersionOf(newValue));
+        assertThrows(RuntimeException.class, () -> beforeRotation.decrypt(newValue));
+    }
+
+    @Test
+    void testDecrypt_ShouldRejectValueWithTamperedVersion() {
+        // Arrange
+        String key = Base64.getEncoder().encodeToString(new byte[16]);
+        InternalEncryptionService service = new InternalEncryptionService("1:" + key + ",2:" + key, 1);
+        String encrypted = service.encrypt("minhasenha123");
+
+        // Act & Assert
+        assertThrows(RuntimeException.class, () -> service.decrypt("v2:" + encrypted.substring(3)));
     }
 
     @Test
@@ -0,0 +1,94 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import br.com.consultdg.credential_portals_service.api.model.CredentialsResponseDTO;
+import br.com.consultdg.credential_portals_service.api.model.KeysetPageDTO;
+import br.com.consultdg.credential_portals_service.model.Credentials;
+import br.com.consultdg.credential_portals_service.repository.CredentialsRepository;
+
+@SpringBootTest(properties = "credentials.re-encryption.enabled=false")
+class KeysetPaginationTest {
+
+    @Autowired
+    private CredentialsRepository credentialsRepository;
+
+    @Autowired
+    private CredentialsService credentialsService;
+
+    private final List<UUID> createdIds = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 7; i++) {
+            Credentials credential = new Credentials();
+            credential.setNameMall("Shopping Paginação " + i);
+            credential.setUrlPortal("https://portal.shopping.com");
+            credential.setUsername("usuario" + i);
+            credential.setPassword("$2a$10$hashplaceholder" + i);
+            createdIds.add(credentialsRepository.save(credential).getId());
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        credentialsRepository.deleteAllById(createdIds);
+    }
+
+    @Test
+    void testFindPage_ShouldWalkAllRowsOnceInBothOrders() {
+        // Act
+        List<UUID> ascending = walk("asc");
+        List<UUID> descending = walk("desc");
+
+        // Assert
+        assertEquals(new HashSet<>(ascending).size(), ascending.size());
+        assertTrue(ascending.containsAll(createdIds));
+        assertEquals(ascending.size(), descending.size());
+        for (int i = 0; i < ascending.size(); i++) {
+            assertEquals(ascending.get(i), descending.get(descending.size() - 1 - i));
+        }
+        // Criadas em sequência, aparecem na ordem de criação
+        List<UUID> ours = ascending.stream().filter(createdIds::contains).toList();
+        assertEquals(createdIds, ours);
+    }
+
+    @Test
+    void testFindPage_ShouldRejectInvalidOrForeignCursor() {
+        // Arrange
+        String ascendingCursor = credentialsService.findPage(null, 2, "asc").getNextCursor();
+
+        // Act & Assert
+        assertNotNull(ascendingCursor);
+        assertThrows(IllegalArgumentException.class, () -> credentialsService.findPage("não-é-cursor", 2, "asc"));
+        assertThrows(IllegalArgumentException.class, () -> credentialsService.findPage(ascendingCursor, 2, "desc"));
+        assertThrows(IllegalArgumentException.class, () -> credentialsService.findPage(null, 0, "asc"));
+        assertThrows(IllegalArgumentException.class, () -> credentialsService.findPage(null, 2, "name"));
+    }
+
+    private List<UUID> walk(String sort) {
+        List<UUID> ids = new ArrayList<>();
+        Set<String> cursors = new HashSet<>();
+        String cursor = null;
+        do {
+            KeysetPageDTO<CredentialsResponseDTO> page = credentialsService.findPage(cursor, 3, sort);
+            assertTrue(page.getItems().size() <= 3);
+            page.getItems().forEach(item -> ids.add(item.getId()));
+            cursor = page.getNextCursor();
+            assertTrue(cursor == null || cursors.add(cursor));
+        } while (cursor != null);
+        return ids;
+    }
+}
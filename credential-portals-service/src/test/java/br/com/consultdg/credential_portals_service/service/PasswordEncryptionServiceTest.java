@@ -2,6 +2,8 @@ package br.com.consultdg.credential_portals_service.service;
 
 import static org.junit.jupiter.api.Assertions.*;
 
+import java.time.Duration;
+
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -168,4 +170,45 @@ class PasswordEncryptionServiceTest {
         assertTrue(passwordEncryptionService.verifyPassword(plainPassword, hash1));
         assertTrue(passwordEncryptionService.verifyPassword(plainPassword, hash2));
     }
+
+    @Test
+    void testCalibrate_ShouldKeepSecurityFloorWhenBudgetIsTooSmall() {
+        // Arrange
+        PasswordEncryptionService calibrated = new PasswordEncryptionService(0, Duration.ofNanos(1), 5, 8);
+
+        // Act
+        int cost = calibrated.calibrate();
+
+        // Assert
+        assertEquals(5, cost);
+        assertEquals(5, calibrated.costOf(calibrated.encryptPassword("minhasenha123")));
+    }
+
+    @Test
+    void testCalibrate_ShouldNotExceedMaxCost() {
+        // Arrange
+        PasswordEncryptionService calibrated = new PasswordEncryptionService(0, Duration.ofMinutes(1), 4, 6);
+
+        // Act
+        int cost = calibrated.calibrate();
+
+        // Assert
+        assertEquals(6, cost);
+        assertEquals(6, calibrated.getCost());
+    }
+
+    @Test
+    void testNeedsRehash_ShouldDetectHashesWithDifferentCost() {
+        // Arrange
+        PasswordEncryptionService lowCost = new PasswordEncryptionService(4);
+        String currentHash = lowCost.encryptPassword("minhasenha123");
+        String oldHash = "$2a$12$R9h/cIPz0gi.URNNX3kh2OPST9/PgBkqquzi.Ss7KIUgO2t0jWMUW";
+
+        // Act & Assert
+        assertFalse(lowCost.needsRehash(currentHash));
+        assertTrue(lowCost.needsRehash(oldHash));
+        assertFalse(lowCost.needsRehash("senhaEmTextoPlano"));
+        assertEquals(12, lowCost.costOf(oldHash));
+        assertEquals(-1, lowCost.costOf(null));
+    }
 }
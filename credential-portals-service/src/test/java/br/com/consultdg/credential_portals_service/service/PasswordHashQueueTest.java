@@ -0,0 +1,149 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import br.com.consultdg.credential_portals_service.model.Credentials;
+import br.com.consultdg.credential_portals_service.repository.CredentialsRepository;
+
+@ExtendWith(MockitoExtension.class)
+class PasswordHashQueueTest {
+
+    private static final String PLAIN_PASSWORD = "minhasenha123";
+    private static final String INTERNAL_ENCRYPTED_PASSWORD = "v1:internalEncrypted";
+    private static final String PASSWORD_HASH = "$2a$12$hash";
+
+    @Mock
+    private CredentialsRepository credentialsRepository;
+
+    @Mock
+    private PasswordEncryptionService passwordEncryptionService;
+
+    @Mock
+    private InternalEncryptionService internalEncryptionService;
+
+    private PasswordHashQueue passwordHashQueue;
+
+    @BeforeEach
+    void setUp() {
+        passwordHashQueue = new PasswordHashQueue(credentialsRepository, passwordEncryptionService, internalEncryptionService, 1, 10);
+        lenient().when(internalEncryptionService.decrypt(INTERNAL_ENCRYPTED_PASSWORD)).thenReturn(PLAIN_PASSWORD);
+    }
+
+    @AfterEach
+    void tearDown() {
+        passwordHashQueue.shutdown();
+    }
+
+    @Test
+    void testSubmit_ShouldStoreHashInBackground() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        when(passwordEncryptionService.encryptPassword(PLAIN_PASSWORD)).thenReturn(PASSWORD_HASH);
+
+        // Act
+        passwordHashQueue.submit(id, INTERNAL_ENCRYPTED_PASSWORD);
+
+        // Assert
+        verify(credentialsRepository, timeout(5000)).completePasswordHash(id, INTERNAL_ENCRYPTED_PASSWORD, PASSWORD_HASH);
+    }
+
+    @Test
+    void testAwaitHash_ShouldComputeOnDemandWhenNotScheduled() {
+        // Arrange
+        Credentials credential = pendingCredential();
+        when(passwordEncryptionService.encryptPassword(PLAIN_PASSWORD)).thenReturn(PASSWORD_HASH);
+
+        // Act
+        String hash = passwordHashQueue.awaitHash(credential);
+
+        // Assert
+        assertEquals(PASSWORD_HASH, hash);
+        verify(credentialsRepository).completePasswordHash(credential.getId(), INTERNAL_ENCRYPTED_PASSWORD, PASSWORD_HASH);
+    }
+
+    @Test
+    void testAwaitHash_ShouldWaitForRunningHashInsteadOfComputingAgain() throws Exception {
+        // Arrange
+        Credentials credential = pendingCredential();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(passwordEncryptionService.encryptPassword(PLAIN_PASSWORD)).thenAnswer(invocation -> {
+            started.countDown();
+            release.await(5, TimeUnit.SECONDS);
+            return PASSWORD_HASH;
+        });
+        passwordHashQueue.submit(credential.getId(), INTERNAL_ENCRYPTED_PASSWORD);
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+
+        // Act
+        Thread releaser = new Thread(() -> {
+            sleepQuietly(100);
+            release.countDown();
+        });
+        releaser.start();
+        String hash = passwordHashQueue.awaitHash(credential);
+
+        // Assert
+        assertEquals(PASSWORD_HASH, hash);
+        verify(passwordEncryptionService, times(1)).encryptPassword(anyString());
+    }
+
+    @Test
+    void testResumePending_ShouldScheduleHashesLeftByPreviousRun() {
+        // Arrange
+        Credentials credential = pendingCredential();
+        when(credentialsRepository.findWithPendingPasswordHash()).thenReturn(List.of(credential));
+        when(passwordEncryptionService.encryptPassword(PLAIN_PASSWORD)).thenReturn(PASSWORD_HASH);
+
+        // Act
+        passwordHashQueue.resumePending();
+
+        // Assert
+        verify(credentialsRepository, timeout(5000)).completePasswordHash(credential.getId(), INTERNAL_ENCRYPTED_PASSWORD, PASSWORD_HASH);
+    }
+
+    @Test
+    void testSubmitRehash_ShouldReplaceHashWithCurrentCost() {
+        // Arrange
+        UUID id = UUID.randomUUID();
+        String oldHash = "$2a$12$oldhash";
+        when(passwordEncryptionService.encryptPassword(PLAIN_PASSWORD)).thenReturn(PASSWORD_HASH);
+
+        // Act
+        passwordHashQueue.submitRehash(id, oldHash, INTERNAL_ENCRYPTED_PASSWORD);
+
+        // Assert
+        verify(credentialsRepository, timeout(5000)).replacePasswordHash(id, oldHash, PASSWORD_HASH);
+        verify(internalEncryptionService).decrypt(INTERNAL_ENCRYPTED_PASSWORD);
+    }
+
+    private Credentials pendingCredential() {
+        Credentials credential = new Credentials();
+        credential.setId(UUID.randomUUID());
+        credential.setOriginalPasswordEncrypted(INTERNAL_ENCRYPTED_PASSWORD);
+        credential.markPasswordHashPending();
+        return credential;
+    }
+
+    private static void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.security.KeyPair;
+import java.util.Arrays;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class RSAKeyPairPoolTest {
+
+    private RSAKeyPairPool rsaKeyPairPool;
+
+    @BeforeEach
+    void setUp() {
+        rsaKeyPairPool = new RSAKeyPairPool(new RSAEncryptionService(), 1, 3);
+    }
+
+    @AfterEach
+    void tearDown() {
+        rsaKeyPairPool.shutdown();
+    }
+
+    @Test
+    void testStart_ShouldFillPoolUpToHighWatermark() throws Exception {
+        // Act
+        rsaKeyPairPool.start();
+
+        // Assert
+        awaitSize(3);
+        assertEquals(3, rsaKeyPairPool.size());
+    }
+
+    @Test
+    void testTake_ShouldGenerateInlineWhenPoolIsEmpty() throws Exception {
+        // Act
+        KeyPair keyPair = rsaKeyPairPool.take();
+
+        // Assert
+        assertNotNull(keyPair);
+        assertEquals("RSA", keyPair.getPublic().getAlgorithm());
+    }
+
+    @Test
+    void testTake_ShouldNeverHandOutTheSamePairTwiceAndRefillBelowLowWatermark() throws Exception {
+        // Arrange
+        rsaKeyPairPool.start();
+        awaitSize(3);
+
+        // Act
+        KeyPair first = rsaKeyPairPool.take();
+        KeyPair second = rsaKeyPairPool.take();
+        KeyPair third = rsaKeyPairPool.take();
+
+        // Assert
+        assertFalse(Arrays.equals(first.getPublic().getEncoded(), second.getPublic().getEncoded()));
+        assertFalse(Arrays.equals(second.getPublic().getEncoded(), third.getPublic().getEncoded()));
+        awaitSize(3);
+    }
+
+    private void awaitSize(int expected) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 30_000;
+        while (rsaKeyPairPool.size() < expected && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+        }
+        assertEquals(expected, rsaKeyPairPool.size());
+    }
+}
@@ -0,0 +1,85 @@
+package br.com.consultdg.credential_portals_service.service;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.KeyPair;
+
+import org.junit.jupiter.api.Test;
+
+class SecretBufferTest {
+
+    private final InternalEncryptionService internalEncryptionService = new InternalEncryptionService();
+
+    @Test
+    void testOf_ShouldEncodeUtf8OffHeap() {
+        // Act
+        try (SecretBuffer secret = SecretBuffer.of("senhaçã€")) {
+            // Assert
+            byte[] expected = "senhaçã€".getBytes(StandardCharsets.UTF_8);
+            assertEquals(expected.length, secret.length());
+            assertTrue(secret.contents().isDirect());
+            assertEquals(ByteBuffer.wrap(expected), secret.contents());
+            assertEquals("SecretBuffer[***]", secret.toString());
+        }
+    }
+
+    @Test
+    void testClose_ShouldWipeContents() {
+        // Arrange
+        SecretBuffer secret = SecretBuffer.of("minhasenha123");
+        ByteBuffer underlying = secret.buffer().duplicate();
+
+        // Act
+        secret.close();
+        secret.close();
+
+        // Assert
+        underlying.clear();
+        for (int i = 0; i < underlying.capacity(); i++) {
+            assertEquals(0, underlying.get(i));
+        }
+        assertThrows(IllegalStateException.class, secret::length);
+    }
+
+    @Test
+    void testWithBytes_ShouldWipeTemporaryCopy() throws Exception {
+        // Arrange
+        byte[][] copy = new byte[1][];
+
+        // Act
+        try (SecretBuffer secret = SecretBuffer.of("minhasenha123")) {
+            int length = secret.withBytes(bytes -> {
+                copy[0] = bytes;
+                return bytes.length;
+            });
+
+            // Assert
+            assertEquals(13, length);
+        }
+        for (byte b : copy[0]) {
+            assertEquals(0, b);
+        }
+    }
+
+    @Test
+    void testDecryptToBuffer_ShouldFeedConsumerEncryptionWithoutString() throws Exception {
+        // Arrange
+        RSAEncryptionService rsaEncryptionService = new RSAEncryptionService();
+        KeyPair keyPair = rsaEncryptionService.generateKeyPair();
+        String stored = internalEncryptionService.encrypt("minhasenha123");
+
+        // Act
+        String encryptedForConsumer;
+        String reEncrypted;
+        try (SecretBuffer plain = internalEncryptionService.decryptToBuffer(stored)) {
+            encryptedForConsumer = rsaEncryptionService.encryptSecret(plain, keyPair.getPublic());
+            reEncrypted = internalEncryptionService.encryptSecret(plain);
+        }
+
+        // Assert
+        assertEquals("minhasenha123", rsaEncryptionService.decrypt(encryptedForConsumer, keyPair.getPrivate()));
+        assertEquals("minhasenha123", internalEncryptionService.decrypt(reEncrypted));
+    }
+}
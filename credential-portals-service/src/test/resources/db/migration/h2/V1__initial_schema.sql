@@ -0,0 +1,47 @@
+-- Esquema inicial para o H2 dos testes (tipos do H2Dialect), equivalente ao script do MySQL.
+
+create table consumer_public_keys (
+    active boolean not null,
+    key_size integer not null,
+    created_at timestamp(6) not null,
+    expires_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    key_algorithm varchar(20) not null,
+    consumer_identifier varchar(100) not null,
+    consumer_name varchar(100) not null,
+    description varchar(500),
+    public_key TEXT not null,
+    primary key (id)
+);
+
+create table credentials (
+    active boolean not null,
+    created_at timestamp(6) not null,
+    deleted_at timestamp(6),
+    updated_at timestamp(6),
+    id uuid not null,
+    robot_id uuid,
+    cnpj varchar(18),
+    username varchar(100) not null,
+    url_portal varchar(500) not null,
+    original_password_encrypted varchar(1000),
+    name_mall varchar(255) not null,
+    password varchar(255) not null,
+    password_of_invoice varchar(255),
+    primary key (id)
+);
+
+create table robots (
+    id uuid not null,
+    robot_name varchar(255) not null,
+    primary key (id)
+);
+
+alter table consumer_public_keys
+   add constraint UK4ilyk8sn0r4rnlrxeg1vsops2 unique (consumer_identifier);
+
+alter table credentials
+   add constraint FKclimcvv95axlxe4k4tf2tuof7
+   foreign key (robot_id)
+   references robots (id);
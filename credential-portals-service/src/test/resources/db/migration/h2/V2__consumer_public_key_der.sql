@@ -0,0 +1,8 @@
+-- Chave pública normalizada (X.509/DER) e seu SHA-256, equivalente ao script do MySQL.
+
+alter table consumer_public_keys add column if not exists public_key_der varbinary(1024);
+
+alter table consumer_public_keys add column if not exists public_key_fingerprint varchar(64);
+
+create index if not exists idx_consumer_public_keys_fingerprint
+   on consumer_public_keys (public_key_fingerprint);
@@ -0,0 +1,12 @@
+-- Progresso da re-criptografia das senhas internas, equivalente ao script do MySQL.
+
+create table if not exists re_encryption_checkpoints (
+    target_key_version integer not null,
+    completed_at timestamp(6),
+    failed_count bigint not null,
+    processed_count bigint not null,
+    started_at timestamp(6) not null,
+    updated_at timestamp(6),
+    last_credential_id uuid,
+    primary key (target_key_version)
+);
@@ -0,0 +1,10 @@
+-- Chaves de dados da criptografia envelope, equivalente ao script do MySQL.
+
+create table if not exists data_keys (
+    master_key_version integer not null,
+    created_at timestamp(6) not null,
+    updated_at timestamp(6),
+    id uuid not null,
+    wrapped_key varchar(255) not null,
+    primary key (id)
+);
@@ -0,0 +1,7 @@
+-- Índices da paginação por cursor, equivalente ao script do MySQL.
+
+create index if not exists idx_credentials_active_created_at_id
+   on credentials (active, created_at, id);
+
+create index if not exists idx_consumer_public_keys_active_created_at_id
+   on consumer_public_keys (active, created_at, id);
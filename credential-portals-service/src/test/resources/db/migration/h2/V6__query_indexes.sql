@@ -0,0 +1,47 @@
+-- Índices para as consultas dos repositórios, equivalentes ao script do MySQL
+-- (o H2 não tem índice por prefixo).
+
+-- credentials: ordem por id das credenciais ativas (versão da listagem e fluxo dos robôs),
+-- com updated_at para a versão da listagem ser lida só do índice
+create index idx_credentials_active_id_updated_at
+   on credentials (active, id, updated_at);
+
+-- credentials: buscas por CNPJ, nome do shopping e usuário entre as ativas
+create index idx_credentials_cnpj_active
+   on credentials (cnpj, active);
+
+create index idx_credentials_active_name_mall
+   on credentials (active, name_mall);
+
+create index idx_credentials_active_username
+   on credentials (active, username);
+
+-- credentials: hashes pendentes, troca condicional de hash e distribuição dos custos do BCrypt
+create index idx_credentials_password
+   on credentials (password);
+
+-- credentials: formato da senha interna (re-criptografia após rotação de chave)
+create index idx_credentials_original_password_encrypted
+   on credentials (original_password_encrypted);
+
+-- consumer_public_keys: chave (válida) de um consumidor
+create index idx_consumer_public_keys_identifier_active_expires_at
+   on consumer_public_keys (consumer_identifier, active, expires_at);
+
+-- consumer_public_keys: chaves válidas e chaves por nome do consumidor
+create index idx_consumer_public_keys_active_expires_at
+   on consumer_public_keys (active, expires_at);
+
+create index idx_consumer_public_keys_active_consumer_name
+   on consumer_public_keys (active, consumer_name);
+
+-- data_keys: chave de dados mais recente e chaves protegidas por outra chave mestra
+create index idx_data_keys_created_at
+   on data_keys (created_at);
+
+create index idx_data_keys_master_key_version
+   on data_keys (master_key_version);
+
+-- robots: busca e ordenação por nome
+create index idx_robots_robot_name
+   on robots (robot_name);